@@ -0,0 +1,35 @@
+import importer.UserImporter;
+import importer.UserImporter.ImportReport;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public class ImportUsers {
+    public static void main(String[] args) {
+        System.out.println("=== Importing Members ===\n");
+
+        if (args.length == 0) {
+            System.out.println("Usage: ImportUsers <members.csv> [batch size]");
+            System.out.println("CSV columns: name,email,username,password");
+            System.out.println("Passwords may be plaintext or already hashed (pbkdf2$...)");
+            return;
+        }
+
+        Path file = Paths.get(args[0]);
+        if (!Files.isRegularFile(file)) {
+            System.out.println("File not found: " + file);
+            return;
+        }
+        int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : UserImporter.DEFAULT_BATCH_SIZE;
+
+        try {
+            // Streamed, batched transactions; existing emails and usernames are skipped
+            ImportReport report = new UserImporter(batchSize).importCsv(file);
+            System.out.println(report);
+            System.out.println("\n=== Import Complete ===");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+import adapter.PaymentAdapterFactory;
+import adapter.PaymentAdapterFactory.PaymentMethod;
+import adapter.PaymentResult;
+import adapter.PaymentService;
+import adapter.SimulatedGateway;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LoadTestPayments {
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== Payment Load Test ===\n");
+
+        if (args.length == 0) {
+            System.out.println("Usage: LoadTestPayments <payments> [in flight, default 64] [CREDIT_CARD|PAYPAL|BANK_TRANSFER]");
+            System.out.println("Gateway: -Dpayment.sim.latencyMs=200 -Dpayment.sim.jitterMs=300 "
+                               + "-Dpayment.sim.failureRate=0.05 -Dpayment.sim.declineRate=0.02");
+            return;
+        }
+
+        int count = Integer.parseInt(args[0]);
+        int inFlight = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        PaymentMethod method = args.length > 2 ? PaymentMethod.valueOf(args[2].toUpperCase()) : PaymentMethod.CREDIT_CARD;
+
+        // Bounded like a real set of kiosks, so the run measures the pipeline rather than the queue limit
+        Semaphore permits = new Semaphore(inFlight);
+        long[] latencyNanos = new long[count];
+        AtomicInteger failures = new AtomicInteger();
+        CompletableFuture<?>[] payments = new CompletableFuture<?>[count];
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            permits.acquire();
+            int index = i;
+            long submitted = System.nanoTime();
+            CompletableFuture<PaymentResult> payment = PaymentAdapterFactory.createPaymentProcessor(method)
+                .processPaymentAsync(1500 + i % 5000, "load-test-" + i + "@example.com");
+            payments[i] = payment.whenComplete((result, error) -> {
+                latencyNanos[index] = System.nanoTime() - submitted;
+                if (error != null) {
+                    failures.incrementAndGet();
+                }
+                permits.release();
+            });
+        }
+        CompletableFuture.allOf(payments).exceptionally(e -> null).join();
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencyNanos);
+        System.out.println("\nPayments: " + count + " via " + method + ", " + inFlight + " in flight");
+        System.out.printf("Elapsed: %.2f s (%.0f payments/s)%n", elapsed / 1e9, count / (elapsed / 1e9));
+        System.out.printf("Latency ms: p50=%.1f p95=%.1f p99=%.1f max=%.1f%n",
+            percentile(latencyNanos, 50), percentile(latencyNanos, 95), percentile(latencyNanos, 99),
+            latencyNanos[count - 1] / 1e6);
+        System.out.println("Failed after retries: " + failures.get());
+        System.out.println("Gateway calls: " + SimulatedGateway.getInstance().getCallCount());
+        System.out.println(PaymentService.getInstance());
+        System.out.println("\n=== Load Test Complete ===");
+    }
+
+    private static double percentile(long[] sorted, int p) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * p / 100)] / 1e6;
+    }
+}
@@ -1,11 +1,28 @@
+import javax.swing.JFrame;
 import javax.swing.SwingUtilities;
 
+import checkout.CheckoutSaga;
+import core.AccountAvailability;
+import core.SessionManager;
+import gui.BookingFrame;
 import gui.LoginFrame;
+import security.PasswordHasher;
 
 public class Main {
     public static void main(String[] args) {
+        // Calibrate password hashing before the UI appears, not during the first login
+        PasswordHasher.getInstance();
+        // Username/email filters for the registration form
+        AccountAvailability.getInstance().rebuildInBackground();
+        
+        // Finish checkouts a crash or restart left half done
+        CheckoutSaga.getInstance();
+        
+        // A kiosk restarted mid-session continues where the customer left off
+        boolean resumed = SessionManager.getInstance().restoreCurrentSession() != null;
+        
         SwingUtilities.invokeLater(() -> {
-            LoginFrame frame = new LoginFrame();
+            JFrame frame = resumed ? new BookingFrame() : new LoginFrame();
             frame.setVisible(true);
         });
     }
@@ -0,0 +1,115 @@
+import factory.TheaterFactory;
+import factory.TheaterFactory.TheaterType;
+import model.Booking;
+import model.Movie;
+import pricing.AddOn;
+import pricing.BatchQuoter;
+import pricing.BatchQuoter.Report;
+import pricing.BatchQuoter.Scenario;
+import pricing.Money;
+import pricing.PriceTable;
+import pricing.PricingEngine;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+public class RepriceBookings {
+    public static void main(String[] args) {
+        System.out.println("=== Re-pricing Bookings ===\n");
+
+        if (args.length == 0) {
+            System.out.println("Usage: RepriceBookings <proposal.properties> [days, default 90]");
+            System.out.println("       RepriceBookings <proposal.properties> --synthetic <carts>");
+            System.out.println("Proposal keys: seat.base=16.00, theater.IMAX=1.9, addon.POPCORN_MEDIUM=8.49");
+            return;
+        }
+
+        Path file = Paths.get(args[0]);
+        if (!Files.isRegularFile(file)) {
+            System.out.println("File not found: " + file);
+            return;
+        }
+
+        TheaterType[] types = TheaterType.values();
+        String[] theaterNames = new String[types.length];
+        double[] multipliers = new double[types.length];
+        for (TheaterType type : types) {
+            theaterNames[type.ordinal()] = type.name();
+            multipliers[type.ordinal()] = TheaterFactory.getTheater(type).getPriceMultiplier();
+        }
+
+        try {
+            Scenario baseline = new Scenario(PricingEngine.getInstance().getTable(),
+                                             PriceTable.DEFAULT_SEAT_CENTS, multipliers);
+            Scenario proposed = loadProposal(file, multipliers.clone());
+            BatchQuoter.Run run = new BatchQuoter(baseline, proposed).start();
+            Map<Integer, String> titles = new HashMap<>();
+
+            if (args.length > 2 && args[1].equals("--synthetic")) {
+                // Random carts, to size a run before pointing it at real data
+                int count = Integer.parseInt(args[2]);
+                Random random = new Random(42);
+                int addOnBits = AddOn.values().length;
+                for (int i = 0; i < count; i++) {
+                    run.accept(new BatchQuoter.Cart(1 + random.nextInt(50), random.nextInt(types.length),
+                                                    random.nextInt(1 << addOnBits), 1 + random.nextInt(8)));
+                }
+            } else {
+                int days = args.length > 1 ? Integer.parseInt(args[1]) : 90;
+                // Baseline is what each booking was charged, demand pricing, promotions and fee included
+                int rows = Booking.forEachPricingRow(days, (movieId, theaterType, addOnMask, seatCount, paidCents) ->
+                    run.accept(new BatchQuoter.Cart(movieId, theaterIndex(theaterType), addOnMask, seatCount, paidCents)));
+                System.out.println("Bookings from the last " + days + " days: " + rows);
+                for (Movie movie : Movie.getAllMovies()) {
+                    titles.put(movie.getId(), movie.getTitle());
+                }
+            }
+
+            Report report = run.finish();
+            System.out.println(report.format(theaterNames, titles));
+            System.out.println("=== Re-pricing Complete ===");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Bookings from before theater types were recorded were standard
+    private static int theaterIndex(String theaterType) {
+        if (theaterType != null) {
+            for (TheaterType type : TheaterType.values()) {
+                if (type.name().equalsIgnoreCase(theaterType)) {
+                    return type.ordinal();
+                }
+            }
+        }
+        return TheaterType.STANDARD.ordinal();
+    }
+
+    private static Scenario loadProposal(Path file, double[] multipliers) throws IOException {
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            props.load(reader);
+        }
+        long seatCents = PriceTable.DEFAULT_SEAT_CENTS;
+        PriceTable table = PricingEngine.getInstance().getTable();
+        for (String key : props.stringPropertyNames()) {
+            String value = props.getProperty(key).trim();
+            if (key.equals("seat.base")) {
+                seatCents = Money.ofDollars(Double.parseDouble(value));
+            } else if (key.startsWith("theater.")) {
+                multipliers[TheaterType.valueOf(key.substring(8).toUpperCase()).ordinal()] = Double.parseDouble(value);
+            } else if (key.startsWith("addon.")) {
+                table = table.withPrice(AddOn.valueOf(key.substring(6).toUpperCase()), Money.ofDollars(Double.parseDouble(value)));
+            } else {
+                System.out.println("Ignoring unknown key: " + key);
+            }
+        }
+        return new Scenario(table, seatCents, multipliers);
+    }
+}
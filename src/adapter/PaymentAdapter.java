@@ -1,5 +1,8 @@
 package adapter;
 
+import adapter.PaymentAdapterFactory.PaymentMethod;
+import pricing.Money;
+
 /**
  * Adapter Pattern: PaymentAdapter
  * Adapts different payment systems to work with the booking system
@@ -10,135 +13,192 @@ package adapter;
 
 // Adaptee 1: Credit Card Payment System
 class CreditCardPaymentSystem {
-    private String transactionId;
-    
-    public boolean chargeCreditCard(String cardNumber, String cvv, double amount) {
+    // Transaction id, or null when declined
+    public String chargeCreditCard(String cardNumber, String cvv, long amountCents, String idempotencyKey) {
         // Simulate credit card processing
-        System.out.println("Processing credit card payment: $" + amount);
-        this.transactionId = "CC-" + System.currentTimeMillis();
-        return true;
+        System.out.println("Processing credit card payment: " + Money.format(amountCents));
+        return SimulatedGateway.getInstance().charge("Credit card", "CC", idempotencyKey, amountCents);
     }
     
-    public String getLastTransactionId() {
-        return transactionId;
+    public boolean refundCreditCard(String idempotencyKey, long amountCents) {
+        System.out.println("Refunding credit card payment: " + Money.format(amountCents));
+        return SimulatedGateway.getInstance().refund("Credit card", idempotencyKey, amountCents);
     }
 }
 
 // Adaptee 2: PayPal Payment System
 class PayPalPaymentSystem {
-    private String orderId;
-    
-    public boolean makePayment(String email, double totalAmount) {
+    // Order id, or null when declined
+    public String makePayment(String email, long totalAmountCents, String idempotencyKey) {
         // Simulate PayPal processing
-        System.out.println("Processing PayPal payment: $" + totalAmount);
-        this.orderId = "PP-" + System.currentTimeMillis();
-        return true;
+        System.out.println("Processing PayPal payment: " + Money.format(totalAmountCents));
+        return SimulatedGateway.getInstance().charge("PayPal", "PP", idempotencyKey, totalAmountCents);
     }
     
-    public String getOrderId() {
-        return orderId;
+    public boolean refundPayment(String idempotencyKey, long amountCents) {
+        System.out.println("Refunding PayPal payment: " + Money.format(amountCents));
+        return SimulatedGateway.getInstance().refund("PayPal", idempotencyKey, amountCents);
     }
 }
 
 // Adaptee 3: Bank Transfer System
 class BankTransferSystem {
-    private String referenceNumber;
-    
-    public boolean transferFunds(String accountNumber, double funds) {
+    // Reference number, or null when declined
+    public String transferFunds(String accountNumber, long fundsCents, String idempotencyKey) {
         // Simulate bank transfer
-        System.out.println("Processing bank transfer: $" + funds);
-        this.referenceNumber = "BT-" + System.currentTimeMillis();
-        return true;
+        System.out.println("Processing bank transfer: " + Money.format(fundsCents));
+        return SimulatedGateway.getInstance().charge("Bank transfer", "BT", idempotencyKey, fundsCents);
     }
     
-    public String getReferenceNumber() {
-        return referenceNumber;
+    public boolean reverseTransfer(String idempotencyKey, long amountCents) {
+        System.out.println("Reversing bank transfer: " + Money.format(amountCents));
+        return SimulatedGateway.getInstance().refund("Bank transfer", idempotencyKey, amountCents);
     }
 }
 
 // Adapter 1: Credit Card Adapter
 class CreditCardAdapter implements PaymentProcessor {
     private CreditCardPaymentSystem creditCardSystem;
-    private boolean paymentSuccessful;
+    private volatile PaymentResult lastResult;  // only for the status getters
     
     public CreditCardAdapter() {
         this.creditCardSystem = new CreditCardPaymentSystem();
     }
     
     @Override
-    public boolean processPayment(double amount, String customerInfo) {
+    public PaymentResult charge(long amountCents, String customerInfo, String idempotencyKey, int attempt) {
         // Parse customer info to extract card details
         // In real scenario, this would be properly encrypted and validated
         String[] parts = customerInfo.split(",");
         String cardNumber = parts.length > 0 ? parts[0] : "XXXX";
         String cvv = parts.length > 1 ? parts[1] : "XXX";
         
-        paymentSuccessful = creditCardSystem.chargeCreditCard(cardNumber, cvv, amount);
-        return paymentSuccessful;
+        String transactionId = creditCardSystem.chargeCreditCard(cardNumber, cvv, amountCents, idempotencyKey);
+        return remember(new PaymentResult(transactionId != null, transactionId,
+            transactionId != null ? "Payment Successful via Credit Card" : "Payment Failed", attempt));
+    }
+    
+    @Override
+    public PaymentResult refund(String idempotencyKey, long amountCents, int attempt) {
+        boolean refunded = creditCardSystem.refundCreditCard(idempotencyKey, amountCents);
+        return remember(new PaymentResult(refunded, null,
+            refunded ? "Refund Successful via Credit Card" : "Refund Failed", attempt));
     }
     
     @Override
     public String getPaymentStatus() {
-        return paymentSuccessful ? "Payment Successful via Credit Card" : "Payment Failed";
+        PaymentResult last = lastResult;
+        return last != null ? last.getStatus() : "Payment Failed";
     }
     
     @Override
     public String getTransactionId() {
-        return creditCardSystem.getLastTransactionId();
+        PaymentResult last = lastResult;
+        return last != null ? last.getTransactionId() : null;
+    }
+    
+    @Override
+    public PaymentMethod getMethod() {
+        return PaymentMethod.CREDIT_CARD;
+    }
+    
+    private PaymentResult remember(PaymentResult result) {
+        lastResult = result;
+        return result;
     }
 }
 
 // Adapter 2: PayPal Adapter
 class PayPalAdapter implements PaymentProcessor {
     private PayPalPaymentSystem paypalSystem;
-    private boolean paymentSuccessful;
+    private volatile PaymentResult lastResult;  // only for the status getters
     
     public PayPalAdapter() {
         this.paypalSystem = new PayPalPaymentSystem();
     }
     
     @Override
-    public boolean processPayment(double amount, String customerInfo) {
+    public PaymentResult charge(long amountCents, String customerInfo, String idempotencyKey, int attempt) {
         // customerInfo should be email for PayPal
-        paymentSuccessful = paypalSystem.makePayment(customerInfo, amount);
-        return paymentSuccessful;
+        String orderId = paypalSystem.makePayment(customerInfo, amountCents, idempotencyKey);
+        return remember(new PaymentResult(orderId != null, orderId,
+            orderId != null ? "Payment Successful via PayPal" : "Payment Failed", attempt));
+    }
+    
+    @Override
+    public PaymentResult refund(String idempotencyKey, long amountCents, int attempt) {
+        boolean refunded = paypalSystem.refundPayment(idempotencyKey, amountCents);
+        return remember(new PaymentResult(refunded, null,
+            refunded ? "Refund Successful via PayPal" : "Refund Failed", attempt));
     }
     
     @Override
     public String getPaymentStatus() {
-        return paymentSuccessful ? "Payment Successful via PayPal" : "Payment Failed";
+        PaymentResult last = lastResult;
+        return last != null ? last.getStatus() : "Payment Failed";
     }
     
     @Override
     public String getTransactionId() {
-        return paypalSystem.getOrderId();
+        PaymentResult last = lastResult;
+        return last != null ? last.getTransactionId() : null;
+    }
+    
+    @Override
+    public PaymentMethod getMethod() {
+        return PaymentMethod.PAYPAL;
+    }
+    
+    private PaymentResult remember(PaymentResult result) {
+        lastResult = result;
+        return result;
     }
 }
 
 // Adapter 3: Bank Transfer Adapter
 class BankTransferAdapter implements PaymentProcessor {
     private BankTransferSystem bankSystem;
-    private boolean paymentSuccessful;
+    private volatile PaymentResult lastResult;  // only for the status getters
     
     public BankTransferAdapter() {
         this.bankSystem = new BankTransferSystem();
     }
     
     @Override
-    public boolean processPayment(double amount, String customerInfo) {
+    public PaymentResult charge(long amountCents, String customerInfo, String idempotencyKey, int attempt) {
         // customerInfo should be account number for bank transfer
-        paymentSuccessful = bankSystem.transferFunds(customerInfo, amount);
-        return paymentSuccessful;
+        String referenceNumber = bankSystem.transferFunds(customerInfo, amountCents, idempotencyKey);
+        return remember(new PaymentResult(referenceNumber != null, referenceNumber,
+            referenceNumber != null ? "Payment Successful via Bank Transfer" : "Payment Failed", attempt));
+    }
+    
+    @Override
+    public PaymentResult refund(String idempotencyKey, long amountCents, int attempt) {
+        boolean refunded = bankSystem.reverseTransfer(idempotencyKey, amountCents);
+        return remember(new PaymentResult(refunded, null,
+            refunded ? "Refund Successful via Bank Transfer" : "Refund Failed", attempt));
     }
     
     @Override
     public String getPaymentStatus() {
-        return paymentSuccessful ? "Payment Successful via Bank Transfer" : "Payment Failed";
+        PaymentResult last = lastResult;
+        return last != null ? last.getStatus() : "Payment Failed";
     }
     
     @Override
     public String getTransactionId() {
-        return bankSystem.getReferenceNumber();
+        PaymentResult last = lastResult;
+        return last != null ? last.getTransactionId() : null;
+    }
+    
+    @Override
+    public PaymentMethod getMethod() {
+        return PaymentMethod.BANK_TRANSFER;
+    }
+    
+    private PaymentResult remember(PaymentResult result) {
+        lastResult = result;
+        return result;
     }
 }
 
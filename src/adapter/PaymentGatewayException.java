@@ -0,0 +1,13 @@
+package adapter;
+
+/**
+ * A payment gateway could not be reached or gave no answer.
+ * Unlike a decline this is transient, so {@link PaymentService} retries it.
+ */
+public class PaymentGatewayException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public PaymentGatewayException(String message) {
+        super(message);
+    }
+}
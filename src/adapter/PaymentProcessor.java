@@ -1,11 +1,48 @@
 package adapter;
 
+import adapter.PaymentAdapterFactory.PaymentMethod;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Adapter Pattern: PaymentProcessor Interface
  * Target interface that our system expects for payment processing
+ * Amounts are in cents
+ * processPayment blocks on the payment system; processPaymentAsync runs it on the
+ * PaymentService with the method's timeout and retries.
+ * A charge repeated with the same idempotency key returns the first outcome instead
+ * of charging again, and a refund by key also blocks any later charge with that key.
  */
 public interface PaymentProcessor {
-    boolean processPayment(double amount, String customerInfo);
+    // Each call returns its own outcome; a processor may be used by overlapping attempts
+    PaymentResult charge(long amountCents, String customerInfo, String idempotencyKey, int attempt);
+    PaymentResult refund(String idempotencyKey, long amountCents, int attempt);
+    // Outcome of the most recent call, for the blocking methods below
     String getPaymentStatus();
     String getTransactionId();
+    PaymentMethod getMethod();
+    
+    default boolean processPayment(long amountCents, String customerInfo, String idempotencyKey) {
+        return charge(amountCents, customerInfo, idempotencyKey, 1).isSuccessful();
+    }
+    
+    default boolean refundPayment(String idempotencyKey, long amountCents) {
+        return refund(idempotencyKey, amountCents, 1).isSuccessful();
+    }
+    
+    default boolean processPayment(long amountCents, String customerInfo) {
+        return processPayment(amountCents, customerInfo, null);
+    }
+    
+    default CompletableFuture<PaymentResult> processPaymentAsync(long amountCents, String customerInfo) {
+        return processPaymentAsync(amountCents, customerInfo, null);
+    }
+    
+    default CompletableFuture<PaymentResult> processPaymentAsync(long amountCents, String customerInfo,
+                                                                 String idempotencyKey) {
+        return PaymentService.getInstance().submit(this, amountCents, customerInfo, idempotencyKey);
+    }
+    
+    default CompletableFuture<PaymentResult> refundPaymentAsync(String idempotencyKey, long amountCents) {
+        return PaymentService.getInstance().refund(this, idempotencyKey, amountCents);
+    }
 }
@@ -0,0 +1,36 @@
+package adapter;
+
+/**
+ * Outcome of an asynchronous payment.
+ * A declined payment completes normally with {@code isSuccessful() == false};
+ * only gateway errors and timeouts that outlast the retries fail the future.
+ */
+public final class PaymentResult {
+    private final boolean successful;
+    private final String transactionId;
+    private final String status;
+    private final int attempts;
+    
+    public PaymentResult(boolean successful, String transactionId, String status, int attempts) {
+        this.successful = successful;
+        this.transactionId = transactionId;
+        this.status = status;
+        this.attempts = attempts;
+    }
+    
+    public boolean isSuccessful() {
+        return successful;
+    }
+    
+    public String getTransactionId() {
+        return transactionId;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+}
@@ -0,0 +1,260 @@
+package adapter;
+
+import adapter.PaymentAdapterFactory.PaymentMethod;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Singleton Pattern: PaymentService
+ * Runs payments on a dedicated pool and hands back futures, so callers such as the
+ * Swing thread never wait on a gateway.
+ * Each gateway call is bounded by the method's timeout, {@code payment.timeoutMs.<METHOD>}.
+ * Gateway errors and timeouts are retried up to {@code payment.maxAttempts} (default 3)
+ * after a random delay of up to {@code payment.retryBaseMs} (default 250) doubled per
+ * attempt and capped at {@code payment.retryMaxMs} (default 4000), so kiosks that failed
+ * together do not retry together. Declines are final.
+ * Cancelling a returned future interrupts its running attempt and stops further retries.
+ * Refunds go through the same pipeline.
+ */
+public class PaymentService {
+    private static PaymentService instance;
+    
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService timer;
+    private final Map<PaymentMethod, Long> timeoutMs;
+    private final int maxAttempts;
+    private final long retryBaseMs;
+    private final long retryMaxMs;
+    
+    private final AtomicLong submitted;
+    private final AtomicLong approved;
+    private final AtomicLong declined;
+    private final AtomicLong failed;
+    private final AtomicLong retries;
+    private final AtomicLong timeouts;
+    
+    private PaymentService(int threads, int queueCapacity, int maxAttempts, long retryBaseMs, long retryMaxMs) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            r -> {
+                Thread thread = new Thread(r, "payment-worker-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "payment-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timeoutMs = new EnumMap<>(PaymentMethod.class);
+        timeoutMs.put(PaymentMethod.CREDIT_CARD, Long.getLong("payment.timeoutMs.CREDIT_CARD", 5_000));
+        timeoutMs.put(PaymentMethod.PAYPAL, Long.getLong("payment.timeoutMs.PAYPAL", 8_000));
+        timeoutMs.put(PaymentMethod.BANK_TRANSFER, Long.getLong("payment.timeoutMs.BANK_TRANSFER", 15_000));
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBaseMs = retryBaseMs;
+        this.retryMaxMs = retryMaxMs;
+        this.submitted = new AtomicLong();
+        this.approved = new AtomicLong();
+        this.declined = new AtomicLong();
+        this.failed = new AtomicLong();
+        this.retries = new AtomicLong();
+        this.timeouts = new AtomicLong();
+    }
+    
+    public static synchronized PaymentService getInstance() {
+        if (instance == null) {
+            instance = new PaymentService(Integer.getInteger("payment.threads", 8),
+                                          Integer.getInteger("payment.queue", 256),
+                                          Integer.getInteger("payment.maxAttempts", 3),
+                                          Long.getLong("payment.retryBaseMs", 250),
+                                          Long.getLong("payment.retryMaxMs", 4_000));
+        }
+        return instance;
+    }
+    
+    // Completes with the result, or fails with the last gateway error or TimeoutException,
+    // or with RejectedExecutionException when the payment queue is full.
+    // Retries reuse the idempotency key, so a charge whose answer was lost is not taken twice.
+    public CompletableFuture<PaymentResult> submit(PaymentProcessor processor, long amountCents, String customerInfo,
+                                                   String idempotencyKey) {
+        return start(processor.getMethod(), attempt -> processor.charge(amountCents, customerInfo, idempotencyKey, attempt));
+    }
+    
+    // Refund of the charge made under the key, with the same timeouts and retries
+    public CompletableFuture<PaymentResult> refund(PaymentProcessor processor, String idempotencyKey, long amountCents) {
+        return start(processor.getMethod(), attempt -> processor.refund(idempotencyKey, amountCents, attempt));
+    }
+    
+    private CompletableFuture<PaymentResult> start(PaymentMethod method, GatewayCall call) {
+        submitted.incrementAndGet();
+        Payment payment = new Payment(method, call);
+        payment.start(1);
+        return payment.result;
+    }
+    
+    public long getTimeoutMs(PaymentMethod method) {
+        return timeoutMs.get(method);
+    }
+    
+    // Full jitter: uniform in [0, min(max, base * 2^(attempt - 1))]
+    private long retryDelayMs(int attempt) {
+        long ceiling = Math.min(retryMaxMs, retryBaseMs << Math.min(attempt - 1, 20));
+        return ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+    }
+    
+    // One blocking call to a payment system
+    private interface GatewayCall {
+        PaymentResult call(int attempt);
+    }
+    
+    // One payment across its attempts
+    private final class Payment {
+        final PaymentMethod method;
+        final GatewayCall call;
+        final CompletableFuture<PaymentResult> result;
+        volatile Attempt current;
+        volatile ScheduledFuture<?> retryTimer;
+        
+        Payment(PaymentMethod method, GatewayCall call) {
+            this.method = method;
+            this.call = call;
+            this.result = new CompletableFuture<>();
+            result.whenComplete((r, e) -> {
+                if (result.isCancelled()) {
+                    stop();
+                }
+            });
+        }
+        
+        void start(int number) {
+            if (result.isDone()) {
+                return;
+            }
+            Attempt attempt = new Attempt(this, number);
+            current = attempt;
+            try {
+                attempt.work = workers.submit(attempt);
+            } catch (RejectedExecutionException e) {
+                failed.incrementAndGet();
+                result.completeExceptionally(e);
+                return;
+            }
+        }
+        
+        void retry(int number, Exception cause) {
+            if (result.isDone()) {
+                return;
+            }
+            if (number >= maxAttempts) {
+                failed.incrementAndGet();
+                result.completeExceptionally(cause);
+                return;
+            }
+            retries.incrementAndGet();
+            try {
+                retryTimer = timer.schedule(() -> start(number + 1), retryDelayMs(number), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                failed.incrementAndGet();
+                result.completeExceptionally(e);
+            }
+        }
+        
+        void stop() {
+            ScheduledFuture<?> pending = retryTimer;
+            if (pending != null) {
+                pending.cancel(false);
+            }
+            Attempt attempt = current;
+            if (attempt != null && attempt.settle() && attempt.work != null) {
+                attempt.work.cancel(true);
+            }
+        }
+    }
+    
+    // One gateway call; whichever of completion and timeout settles it first wins
+    private final class Attempt implements Runnable {
+        final Payment payment;
+        final int number;
+        final AtomicBoolean settled;
+        volatile Future<?> work;
+        volatile ScheduledFuture<?> deadline;
+        
+        Attempt(Payment payment, int number) {
+            this.payment = payment;
+            this.number = number;
+            this.settled = new AtomicBoolean();
+        }
+        
+        @Override
+        public void run() {
+            // The timeout covers the gateway call, not the wait for a worker
+            deadline = timer.schedule(this::timeout, timeoutMs.get(payment.method), TimeUnit.MILLISECONDS);
+            try {
+                PaymentResult outcome = payment.call.call(number);
+                if (settle()) {
+                    (outcome.isSuccessful() ? approved : declined).incrementAndGet();
+                    payment.result.complete(outcome);
+                }
+            } catch (PaymentGatewayException e) {
+                if (settle()) {
+                    payment.retry(number, e);
+                }
+            } catch (RuntimeException e) {
+                if (settle()) {
+                    failed.incrementAndGet();
+                    payment.result.completeExceptionally(e);
+                }
+            }
+        }
+        
+        void timeout() {
+            if (settled.compareAndSet(false, true)) {
+                timeouts.incrementAndGet();
+                work.cancel(true);
+                payment.retry(number, new TimeoutException(payment.method + " payment timed out after "
+                                                           + timeoutMs.get(payment.method) + " ms"));
+            }
+        }
+        
+        private boolean settle() {
+            if (!settled.compareAndSet(false, true)) {
+                return false;
+            }
+            ScheduledFuture<?> pending = deadline;
+            if (pending != null) {
+                pending.cancel(false);
+            }
+            return true;
+        }
+    }
+    
+    public long getSubmittedCount() { return submitted.get(); }
+    public long getApprovedCount() { return approved.get(); }
+    public long getDeclinedCount() { return declined.get(); }
+    public long getFailedCount() { return failed.get(); }
+    public long getRetryCount() { return retries.get(); }
+    public long getTimeoutCount() { return timeouts.get(); }
+    
+    @Override
+    public String toString() {
+        return String.format("PaymentService[submitted=%d, approved=%d, declined=%d, failed=%d, retries=%d, timeouts=%d, queued=%d]",
+            submitted.get(), approved.get(), declined.get(), failed.get(), retries.get(), timeouts.get(),
+            workers.getQueue().size());
+    }
+}
@@ -0,0 +1,133 @@
+package adapter;
+
+import core.IdGenerator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Singleton Pattern: SimulatedGateway
+ * Local stand-in for the remote payment systems behind the adaptees.
+ * Each call waits {@code payment.sim.latencyMs} (default 0) plus up to
+ * {@code payment.sim.jitterMs} (default 0), then fails with a
+ * {@link PaymentGatewayException} at {@code payment.sim.failureRate} or declines at
+ * {@code payment.sim.declineRate} (both default 0), so checkout can be load-tested offline.
+ * Like a real gateway it remembers idempotency keys, so a retried charge is taken once.
+ */
+public class SimulatedGateway {
+    private static SimulatedGateway instance;
+    private static final String DECLINED = "DECLINED";
+    private static final String VOIDED = "VOIDED";
+    private static final String REFUNDED = "REFUNDED:";
+    
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double failureRate;
+    private final double declineRate;
+    private final AtomicLong calls;
+    private final AtomicLong charges;
+    private final AtomicLong refunds;
+    private final Map<String, String> ledger;  // idempotency key -> transaction id or marker
+    
+    private SimulatedGateway(long latencyMs, long jitterMs, double failureRate, double declineRate) {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.failureRate = failureRate;
+        this.declineRate = declineRate;
+        this.calls = new AtomicLong();
+        this.charges = new AtomicLong();
+        this.refunds = new AtomicLong();
+        this.ledger = new ConcurrentHashMap<>();
+    }
+    
+    public static synchronized SimulatedGateway getInstance() {
+        if (instance == null) {
+            instance = new SimulatedGateway(Long.getLong("payment.sim.latencyMs", 0),
+                                            Long.getLong("payment.sim.jitterMs", 0),
+                                            Double.parseDouble(System.getProperty("payment.sim.failureRate", "0")),
+                                            Double.parseDouble(System.getProperty("payment.sim.declineRate", "0")));
+        }
+        return instance;
+    }
+    
+    // Transaction id if approved, null if declined; blocks for the simulated round trip.
+    // A repeated key returns the first answer (null once refunded or voided). Half the
+    // simulated failures happen after the charge was taken, as when the reply is lost.
+    public String charge(String system, String prefix, String idempotencyKey, long amountCents) {
+        roundTrip(system);
+        boolean lostReply = ThreadLocalRandom.current().nextBoolean();
+        if (!lostReply) {
+            failSometimes(system);
+        }
+        String outcome;
+        if (idempotencyKey == null) {
+            outcome = decide(prefix);
+        } else {
+            outcome = ledger.computeIfAbsent(idempotencyKey, key -> decide(prefix));
+        }
+        if (lostReply) {
+            failSometimes(system);
+        }
+        boolean charged = !outcome.equals(DECLINED) && !outcome.equals(VOIDED) && !outcome.startsWith(REFUNDED);
+        return charged ? outcome : null;
+    }
+    
+    // Refunds the charge taken under the key; a key never charged is voided instead,
+    // so a charge still on its way is declined. Repeating a refund is harmless.
+    public boolean refund(String system, String idempotencyKey, long amountCents) {
+        roundTrip(system);
+        failSometimes(system);
+        ledger.compute(idempotencyKey, (key, outcome) -> {
+            if (outcome == null || outcome.equals(DECLINED)) {
+                return VOIDED;
+            }
+            if (!outcome.equals(VOIDED) && !outcome.startsWith(REFUNDED)) {
+                refunds.incrementAndGet();
+                return REFUNDED + outcome;
+            }
+            return outcome;
+        });
+        return true;
+    }
+    
+    private String decide(String prefix) {
+        if (ThreadLocalRandom.current().nextDouble() < declineRate) {
+            return DECLINED;
+        }
+        charges.incrementAndGet();
+        return prefix + "-" + IdGenerator.getInstance().nextCode();
+    }
+    
+    private void roundTrip(String system) {
+        calls.incrementAndGet();
+        long delay = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PaymentGatewayException(system + " call interrupted");
+            }
+        }
+    }
+    
+    private void failSometimes(String system) {
+        if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new PaymentGatewayException(system + " gateway unavailable");
+        }
+    }
+    
+    // Charges taken and refunded, each counted once however often it was requested
+    public long getChargeCount() {
+        return charges.get();
+    }
+    
+    public long getRefundCount() {
+        return refunds.get();
+    }
+    
+    public long getCallCount() {
+        return calls.get();
+    }
+}
@@ -1,6 +1,17 @@
 package builder;
 
+import core.IdGenerator;
 import model.Booking;
+import pricing.MembershipTier;
+import pricing.Money;
+import pricing.PriceTable;
+import pricing.PricingEngine;
+import pricing.PromotionContext;
+import pricing.PromotionEngine;
+import pricing.PromotionResult;
+import pricing.PromotionRule;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -8,26 +19,39 @@ import java.util.List;
  * Builder Pattern: BookingBuilder
  * Provides a flexible way to construct Booking objects
  * Handles complex booking configurations with multiple options
+ * Amounts are in cents and rates in basis points, so totals are exact
+ * Discounts come from the PromotionEngine; the apply methods supply the facts
+ * its rules match on, so several promotions can stack
  */
 public class BookingBuilder {
+    public static final long DEFAULT_SERVICE_FEE_CENTS = 150;
+    
     private int userId;
     private int movieId;
     private List<String> seats;
-    private double basePrice;
-    private double discount;
-    private double serviceFee;
-    private double tax;
+    private long basePriceCents;
+    private int discountBasisPoints;
+    private long serviceFeeCents;
+    private int taxBasisPoints;
     private String theaterType;
     private double theaterMultiplier;
+    private int addOnMask;
+    private long seatTotalCents;
+    private String promoCode;
+    private DayOfWeek day;
+    private int groupSize;
+    private MembershipTier tier;
     
     public BookingBuilder() {
         this.seats = new ArrayList<>();
-        this.basePrice = 10.0; // Default ticket price
-        this.discount = 0.0;
-        this.serviceFee = 1.5;
-        this.tax = 0.0;
-        this.theaterType = "Standard";
+        this.basePriceCents = 1000; // Default ticket price
+        this.discountBasisPoints = 0;
+        this.serviceFeeCents = DEFAULT_SERVICE_FEE_CENTS;
+        this.taxBasisPoints = 0;
+        this.theaterType = "STANDARD";
         this.theaterMultiplier = 1.0;
+        this.seatTotalCents = -1;
+        this.tier = MembershipTier.NONE;
     }
     
     public BookingBuilder setUserId(int userId) {
@@ -50,23 +74,37 @@ public class BookingBuilder {
         return this;
     }
     
-    public BookingBuilder setBasePrice(double basePrice) {
-        this.basePrice = basePrice;
+    public BookingBuilder setBasePriceCents(long basePriceCents) {
+        this.basePriceCents = basePriceCents;
         return this;
     }
     
+    // Manual rate such as 0.15 for 15%, taken on top of any promotions
     public BookingBuilder setDiscount(double discount) {
-        this.discount = discount;
+        this.discountBasisPoints = Money.basisPoints(discount);
         return this;
     }
     
-    public BookingBuilder setServiceFee(double serviceFee) {
-        this.serviceFee = serviceFee;
+    public BookingBuilder setServiceFeeCents(long serviceFeeCents) {
+        this.serviceFeeCents = serviceFeeCents;
         return this;
     }
     
+    // Rate such as 0.08 for 8%
     public BookingBuilder setTax(double tax) {
-        this.tax = tax;
+        this.taxBasisPoints = Money.basisPoints(tax);
+        return this;
+    }
+    
+    // Sum of individually priced seats (dynamic pricing); replaces base price x multiplier
+    public BookingBuilder setSeatTotalCents(long seatTotalCents) {
+        this.seatTotalCents = seatTotalCents;
+        return this;
+    }
+    
+    // Extras as a mask of pricing.AddOn bits, priced from the current price table
+    public BookingBuilder setAddOns(int addOnMask) {
+        this.addOnMask = addOnMask;
         return this;
     }
     
@@ -78,40 +116,65 @@ public class BookingBuilder {
     
     // Convenience methods for special booking types
     public BookingBuilder applyStudentDiscount() {
-        this.discount = 0.15; // 15% discount
+        this.tier = MembershipTier.STUDENT;
         return this;
     }
     
     public BookingBuilder applySeniorDiscount() {
-        this.discount = 0.20; // 20% discount
+        this.tier = MembershipTier.SENIOR;
         return this;
     }
     
     public BookingBuilder applyGroupDiscount(int numberOfSeats) {
-        if (numberOfSeats >= 5) {
-            this.discount = 0.10; // 10% discount for groups of 5+
-        }
-        if (numberOfSeats >= 10) {
-            this.discount = 0.15; // 15% discount for groups of 10+
-        }
+        this.groupSize = numberOfSeats;
         return this;
     }
     
+    // Weekday promotions for a booking made today
     public BookingBuilder applyWeekdayDiscount() {
-        this.discount = 0.10; // 10% weekday discount
+        this.day = LocalDate.now().getDayOfWeek();
         return this;
     }
     
-    // Calculate total price
-    private double calculateTotalPrice() {
-        int numberOfSeats = seats.size();
-        double subtotal = basePrice * numberOfSeats * theaterMultiplier;
-        double discountAmount = subtotal * discount;
-        double afterDiscount = subtotal - discountAmount;
-        double taxAmount = afterDiscount * tax;
-        double total = afterDiscount + serviceFee + taxAmount;
-        
-        return Math.round(total * 100.0) / 100.0; // Round to 2 decimal places
+    public BookingBuilder applyPromoCode(String promoCode) {
+        this.promoCode = promoCode;
+        return this;
+    }
+    
+    public BookingBuilder setMembershipTier(MembershipTier tier) {
+        this.tier = tier;
+        return this;
+    }
+    
+    public BookingBuilder setDayOfWeek(DayOfWeek day) {
+        this.day = day;
+        return this;
+    }
+    
+    private PromotionResult evaluatePromotions(long subtotal) {
+        PromotionContext context = new PromotionContext(promoCode, day, groupSize, tier, theaterType, subtotal);
+        return PromotionEngine.getInstance().evaluate(context);
+    }
+    
+    // Promotions plus the manual discount, never more than the subtotal
+    private long calculateDiscountCents(long subtotal, PromotionResult promotions) {
+        long discount = promotions.getDiscountCents() + Money.applyRate(subtotal, discountBasisPoints);
+        return Math.min(discount, subtotal);
+    }
+    
+    // Seats and extras before discount; the discount applies to both
+    private long calculateSubtotalCents(PriceTable table) {
+        if (seatTotalCents >= 0) {
+            return table.quoteSeatTotal(seatTotalCents, addOnMask, seats.size());
+        }
+        return table.quote(basePriceCents, theaterMultiplier, addOnMask, seats.size());
+    }
+    
+    // Calculate total price in cents
+    private long calculateTotalPriceCents() {
+        long subtotal = calculateSubtotalCents(PricingEngine.getInstance().getTable());
+        long afterDiscount = subtotal - calculateDiscountCents(subtotal, evaluatePromotions(subtotal));
+        return afterDiscount + serviceFeeCents + Money.applyRate(afterDiscount, taxBasisPoints);
     }
     
     // Build the final Booking object
@@ -127,41 +190,64 @@ public class BookingBuilder {
         }
         
         String seatsString = String.join(", ", seats);
-        double totalPrice = calculateTotalPrice();
+        long totalPriceCents = calculateTotalPriceCents();
         
-        return new Booking(userId, movieId, seatsString, totalPrice);
+        Booking booking = new Booking(userId, movieId, seatsString, totalPriceCents);
+        booking.setTheaterType(theaterType);
+        booking.setAddOnMask(addOnMask);
+        booking.setConfirmationCode(IdGenerator.getInstance().nextCode());
+        return booking;
     }
     
     // Get booking summary before building
     public String getBookingSummary() {
+        PriceTable table = PricingEngine.getInstance().getTable();
         int numberOfSeats = seats.size();
-        double subtotal = basePrice * numberOfSeats * theaterMultiplier;
-        double discountAmount = subtotal * discount;
-        double afterDiscount = subtotal - discountAmount;
-        double taxAmount = afterDiscount * tax;
-        double total = afterDiscount + serviceFee + taxAmount;
+        long subtotal = calculateSubtotalCents(table);
+        PromotionResult promotions = evaluatePromotions(subtotal);
+        long discountAmount = calculateDiscountCents(subtotal, promotions);
+        long afterDiscount = subtotal - discountAmount;
+        long taxAmount = Money.applyRate(afterDiscount, taxBasisPoints);
+        long total = afterDiscount + serviceFeeCents + taxAmount;
         
-        StringBuilder summary = new StringBuilder();
+        StringBuilder summary = new StringBuilder(256);
         summary.append("Booking Summary:\n");
         summary.append("Theater Type: ").append(theaterType).append("\n");
         summary.append("Number of Seats: ").append(numberOfSeats).append("\n");
         summary.append("Seats: ").append(String.join(", ", seats)).append("\n");
-        summary.append("Base Price per Seat: $").append(basePrice).append("\n");
-        summary.append("Subtotal: $").append(String.format("%.2f", subtotal)).append("\n");
+        Money.appendTo(summary.append("Base Price per Seat: "), basePriceCents).append("\n");
+        
+        long extras = table.addOnCents(addOnMask, numberOfSeats);
+        if (extras > 0) {
+            Money.appendTo(summary.append("Extras: "), extras).append("\n");
+        }
         
-        if (discount > 0) {
-            summary.append("Discount (").append((int)(discount * 100)).append("%): -$")
-                   .append(String.format("%.2f", discountAmount)).append("\n");
+        Money.appendTo(summary.append("Subtotal: "), subtotal).append("\n");
+        
+        for (PromotionRule rule : promotions.getApplied()) {
+            summary.append("Promotion: ").append(rule.getName()).append(" -");
+            Money.appendTo(summary, rule.discountCents(subtotal)).append("\n");
+        }
+        if (promotions.isCapped()) {
+            summary.append("Promotions capped at ").append(promotions.getCapBasisPoints() / 100).append("%: -");
+            Money.appendTo(summary, promotions.getDiscountCents()).append("\n");
+        }
+        if (discountBasisPoints > 0) {
+            summary.append("Discount (").append(discountBasisPoints / 100).append("%): -");
+            Money.appendTo(summary, Money.applyRate(subtotal, discountBasisPoints)).append("\n");
+        }
+        if (discountAmount > 0) {
+            Money.appendTo(summary.append("Total Discount: -"), discountAmount).append("\n");
         }
         
-        summary.append("Service Fee: $").append(serviceFee).append("\n");
+        Money.appendTo(summary.append("Service Fee: "), serviceFeeCents).append("\n");
         
-        if (tax > 0) {
-            summary.append("Tax (").append((int)(tax * 100)).append("%): $")
-                   .append(String.format("%.2f", taxAmount)).append("\n");
+        if (taxBasisPoints > 0) {
+            summary.append("Tax (").append(taxBasisPoints / 100).append("%): ");
+            Money.appendTo(summary, taxAmount).append("\n");
         }
         
-        summary.append("Total: $").append(String.format("%.2f", total));
+        Money.appendTo(summary.append("Total: "), total);
         
         return summary.toString();
     }
@@ -0,0 +1,60 @@
+package checkout;
+
+import adapter.PaymentAdapterFactory.PaymentMethod;
+import model.Booking;
+
+/**
+ * One checkout, tracked by {@link CheckoutSaga} from payment to booking.
+ * The idempotency key is chosen once per checkout and is also the key the payment
+ * gateway sees, so however often the charge is sent it is taken at most once.
+ */
+public class Checkout {
+    public enum State {
+        PENDING,         // charge not settled yet
+        CONFIRMED,       // paid and booked
+        REFUND_PENDING,  // paid or possibly paid, but not booked; refund owed
+        REFUNDED,
+        FAILED;          // declined, nothing charged
+        
+        public boolean isFinal() {
+            return this == CONFIRMED || this == REFUNDED || this == FAILED;
+        }
+    }
+    
+    private final String idempotencyKey;
+    private final Booking booking;
+    private final PaymentMethod method;
+    private final String customerInfo;
+    private State state;
+    private String transactionId;
+    private String reason;
+    
+    public Checkout(String idempotencyKey, Booking booking, PaymentMethod method, String customerInfo) {
+        this.idempotencyKey = idempotencyKey;
+        this.booking = booking;
+        this.method = method;
+        this.customerInfo = customerInfo;
+        this.state = State.PENDING;
+    }
+    
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public Booking getBooking() { return booking; }
+    public PaymentMethod getMethod() { return method; }
+    public String getCustomerInfo() { return customerInfo; }
+    public long getAmountCents() { return booking.getTotalPriceCents(); }
+    
+    public State getState() { return state; }
+    public void setState(State state) { this.state = state; }
+    
+    public String getTransactionId() { return transactionId; }
+    public void setTransactionId(String transactionId) { this.transactionId = transactionId; }
+    
+    // Why the checkout was refunded or failed
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+    
+    public CheckoutResult toResult() {
+        return new CheckoutResult(idempotencyKey, state, transactionId, booking.getId(),
+                                  booking.getConfirmationCode(), reason);
+    }
+}
@@ -0,0 +1,34 @@
+package checkout;
+
+/**
+ * Final outcome of a checkout: confirmed with a booking, failed, or refunded.
+ */
+public final class CheckoutResult {
+    private final String idempotencyKey;
+    private final Checkout.State state;
+    private final String transactionId;
+    private final int bookingId;
+    private final String confirmationCode;
+    private final String reason;
+    
+    public CheckoutResult(String idempotencyKey, Checkout.State state, String transactionId, int bookingId,
+                          String confirmationCode, String reason) {
+        this.idempotencyKey = idempotencyKey;
+        this.state = state;
+        this.transactionId = transactionId;
+        this.bookingId = bookingId;
+        this.confirmationCode = confirmationCode;
+        this.reason = reason;
+    }
+    
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public Checkout.State getState() { return state; }
+    public String getTransactionId() { return transactionId; }
+    public int getBookingId() { return bookingId; }
+    public String getConfirmationCode() { return confirmationCode; }
+    public String getReason() { return reason; }
+    
+    public boolean isConfirmed() {
+        return state == Checkout.State.CONFIRMED;
+    }
+}
@@ -0,0 +1,361 @@
+package checkout;
+
+import adapter.PaymentAdapterFactory;
+import adapter.PaymentProcessor;
+import adapter.PaymentResult;
+import checkout.Checkout.State;
+import checkout.CheckoutStore.Event;
+import checkout.CheckoutStore.OutboxEntry;
+import core.IdGenerator;
+import core.SeatInventory;
+import database.DatabaseManager;
+import model.Booking;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Singleton Pattern: CheckoutSaga
+ * Drives each checkout to one of two ends: charged and booked, or not charged
+ * (declined, or refunded when the booking could not be made or was cancelled).
+ * Every change of state is committed together with the checkout's next step in the
+ * outbox table, so after a crash the dispatcher simply carries on from the outbox.
+ * Charges and refunds are sent with the checkout's idempotency key, so sending one
+ * again after a crash or a lost reply never charges twice.
+ * The dispatcher thread never waits on a payment. It sends due events, up to
+ * {@code outbox.batchSize} (default 32) at a time and {@code outbox.maxInFlight}
+ * (default 128) in total, and commits the results that have arrived, a batch per
+ * transaction, in a follow-up task. It polls every {@code outbox.pollMs} (default 500)
+ * and is woken by new checkouts. It uses its own connection, so its transactions never
+ * include statements run on the shared one.
+ * A charge still unsettled after {@code outbox.chargeAttempts} (default 3) rounds is
+ * voided by a refund; refunds are retried until they succeed.
+ */
+public class CheckoutSaga {
+    // Fresh confirmation codes tried when one collides with an existing booking
+    private static final int CODE_ATTEMPTS = 3;
+    
+    private static CheckoutSaga instance;
+    
+    // A charge or refund sent to the payment service and not yet committed
+    private static final class InFlight {
+        final OutboxEntry entry;
+        final CompletableFuture<PaymentResult> call;
+        volatile PaymentResult payment;  // null when the outcome is unknown
+        
+        InFlight(OutboxEntry entry, CompletableFuture<PaymentResult> call) {
+            this.entry = entry;
+            this.call = call;
+        }
+    }
+    
+    private final CheckoutStore store;
+    private final ScheduledExecutorService dispatcher;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final long pollMs;
+    private final int chargeAttempts;
+    private final long retryBaseMs;
+    private final long retryMaxMs;
+    // Only touched on the dispatcher thread
+    private final Map<String, CompletableFuture<CheckoutResult>> waiting;
+    private final Map<String, InFlight> inFlight;
+    private Connection connection;
+    // Completed calls waiting to be committed
+    private final Queue<InFlight> settled;
+    private boolean started;
+    
+    private CheckoutSaga(int batchSize, int maxInFlight, long pollMs, int chargeAttempts, long retryBaseMs, long retryMaxMs) {
+        this.store = new CheckoutStore();
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "outbox-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+        this.pollMs = pollMs;
+        this.chargeAttempts = chargeAttempts;
+        this.retryBaseMs = retryBaseMs;
+        this.retryMaxMs = retryMaxMs;
+        this.waiting = new HashMap<>();
+        this.inFlight = new HashMap<>();
+        this.settled = new ConcurrentLinkedQueue<>();
+    }
+    
+    public static synchronized CheckoutSaga getInstance() {
+        if (instance == null) {
+            instance = new CheckoutSaga(Integer.getInteger("outbox.batchSize", 32),
+                                        Integer.getInteger("outbox.maxInFlight", 128),
+                                        Long.getLong("outbox.pollMs", 500),
+                                        Integer.getInteger("outbox.chargeAttempts", 3),
+                                        Long.getLong("outbox.retryBaseMs", 1_000),
+                                        Long.getLong("outbox.retryMaxMs", 60_000));
+            instance.start();
+        }
+        return instance;
+    }
+    
+    // Resume checkouts left unfinished by a previous run, then keep polling
+    private synchronized void start() {
+        if (!started) {
+            started = true;
+            dispatcher.scheduleWithFixedDelay(this::dispatch, 0, pollMs, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    // The dispatcher's own connection, reopened if it was lost
+    private Connection connection() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            DatabaseManager.getInstance();  // creates the tables
+            connection = DatabaseManager.openConnection();
+        }
+        return connection;
+    }
+    
+    /**
+     * Start a checkout, or rejoin it if its key was used before.
+     * Completes once the checkout is confirmed, failed or refunded.
+     */
+    public CompletableFuture<CheckoutResult> begin(Checkout checkout) {
+        CompletableFuture<CheckoutResult> result = new CompletableFuture<>();
+        dispatcher.execute(() -> {
+            try {
+                long now = System.currentTimeMillis();
+                boolean created = DatabaseManager.inTransaction(connection(), conn -> store.insert(conn, checkout, now));
+                Checkout current = created ? checkout : store.find(connection(), checkout.getIdempotencyKey());
+                if (current != null && current.getState().isFinal()) {
+                    result.complete(current.toResult());
+                    return;
+                }
+                CompletableFuture<CheckoutResult> earlier = waiting.putIfAbsent(checkout.getIdempotencyKey(), result);
+                if (earlier != null) {
+                    earlier.whenComplete((done, error) -> result.complete(done));
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+                result.completeExceptionally(e);
+                return;
+            }
+            dispatch();
+        });
+        return result;
+    }
+    
+    /**
+     * Call a checkout off; it ends refunded unless it is already booked.
+     * A charge still in flight is cancelled, and the refund voids it by key at the
+     * gateway in case it got through.
+     */
+    public void cancel(String idempotencyKey) {
+        dispatcher.execute(() -> {
+            InFlight call = inFlight.get(idempotencyKey);
+            if (call != null && call.entry.event == Event.CHARGE) {
+                inFlight.remove(idempotencyKey);
+                call.call.cancel(true);
+            }
+            try {
+                Checkout checkout = store.find(connection(), idempotencyKey);
+                if (checkout == null || checkout.getState() != State.PENDING) {
+                    return;
+                }
+                DatabaseManager.inTransaction(connection(), conn -> {
+                    refundLater(conn, checkout, "Cancelled by customer", System.currentTimeMillis());
+                    return null;
+                });
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            dispatch();
+        });
+    }
+    
+    // Send due events that are not already in flight; runs only on the dispatcher thread
+    private void dispatch() {
+        try {
+            int room = Math.min(batchSize, maxInFlight - inFlight.size());
+            if (room <= 0) {
+                return;
+            }
+            for (OutboxEntry entry : store.due(connection(), System.currentTimeMillis(), room + inFlight.size())) {
+                if (room == 0) {
+                    break;
+                }
+                if (!inFlight.containsKey(entry.checkout.getIdempotencyKey())) {
+                    send(entry);
+                    room--;
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            // The events stay in the outbox and are picked up by the next poll
+            e.printStackTrace();
+        }
+    }
+    
+    private void send(OutboxEntry entry) {
+        Checkout checkout = entry.checkout;
+        PaymentProcessor processor = PaymentAdapterFactory.createPaymentProcessor(checkout.getMethod());
+        CompletableFuture<PaymentResult> future = entry.event == Event.CHARGE
+            ? processor.processPaymentAsync(checkout.getAmountCents(), checkout.getCustomerInfo(),
+                                            checkout.getIdempotencyKey())
+            : processor.refundPaymentAsync(checkout.getIdempotencyKey(), checkout.getAmountCents());
+        InFlight call = new InFlight(entry, future);
+        inFlight.put(checkout.getIdempotencyKey(), call);
+        future.whenComplete((payment, error) -> {
+            call.payment = error == null ? payment : null;  // gateway error, timeout or cancelled
+            settled.add(call);
+            dispatcher.execute(this::commitSettled);
+        });
+    }
+    
+    // Commit the results that have arrived, up to a batch per transaction
+    private void commitSettled() {
+        List<InFlight> batch = new ArrayList<>();
+        InFlight call;
+        while (batch.size() < batchSize && (call = settled.poll()) != null) {
+            // A call dropped by cancel() is already being refunded
+            if (inFlight.remove(call.entry.checkout.getIdempotencyKey(), call)) {
+                batch.add(call);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        
+        List<Checkout> finished = new ArrayList<>();
+        try {
+            DatabaseManager.inTransaction(connection(), conn -> {
+                long now = System.currentTimeMillis();
+                for (InFlight done : batch) {
+                    OutboxEntry entry = done.entry;
+                    if (entry.event == Event.CHARGE) {
+                        charged(conn, entry, done.payment, now);
+                    } else {
+                        refunded(conn, entry, done.payment, now);
+                    }
+                    if (entry.checkout.getState().isFinal()) {
+                        finished.add(entry.checkout);
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException | RuntimeException e) {
+            // Rolled back; the events are sent again, with the same keys, by a later poll
+            e.printStackTrace();
+            return;
+        }
+        
+        // Committed; now tell the seat map and anyone waiting
+        for (Checkout checkout : finished) {
+            if (checkout.getState() == State.CONFIRMED) {
+                SeatInventory.getInstance().booked(checkout.getBooking().getMovieId(),
+                                                   checkout.getBooking().getSeatList());
+            }
+            CompletableFuture<CheckoutResult> waiter = waiting.remove(checkout.getIdempotencyKey());
+            if (waiter != null) {
+                waiter.complete(checkout.toResult());
+            }
+        }
+        if (!settled.isEmpty()) {
+            dispatcher.execute(this::commitSettled);
+        }
+        dispatch();
+    }
+    
+    private void charged(Connection conn, OutboxEntry entry, PaymentResult payment, long now) throws SQLException {
+        Checkout checkout = entry.checkout;
+        if (payment == null) {
+            if (entry.attempts + 1 >= chargeAttempts) {
+                refundLater(conn, checkout, "Payment service unavailable", now);
+            } else {
+                store.reschedule(conn, entry.id, entry.attempts + 1, now + retryDelayMs(entry.attempts + 1));
+            }
+            return;
+        }
+        if (!payment.isSuccessful()) {
+            store.removeEvents(conn, checkout.getIdempotencyKey());
+            checkout.setState(State.FAILED);
+            checkout.setReason("Payment declined");
+            store.update(conn, checkout, now);
+            return;
+        }
+        checkout.setTransactionId(payment.getTransactionId());
+        
+        // Book in the same transaction as recording the charge; on failure only this checkout's work is undone
+        Savepoint savepoint = conn.setSavepoint();
+        try {
+            store.removeEvents(conn, checkout.getIdempotencyKey());
+            insertBooking(conn, checkout.getBooking());
+            checkout.setState(State.CONFIRMED);
+            store.update(conn, checkout, now);
+        } catch (SQLException e) {
+            conn.rollback(savepoint);
+            checkout.getBooking().setId(0);
+            if (Booking.isSeatTaken(e)) {
+                refundLater(conn, checkout, "Seats no longer available", now);
+            } else if (entry.attempts + 1 >= chargeAttempts) {
+                e.printStackTrace();
+                refundLater(conn, checkout, "Booking could not be stored", now);
+            } else {
+                // The charge event stays; resending it under the same key returns the same charge
+                e.printStackTrace();
+                store.reschedule(conn, entry.id, entry.attempts + 1, now + retryDelayMs(entry.attempts + 1));
+            }
+        }
+    }
+    
+    // A confirmation code that collides with another kiosk's is replaced; other failures are thrown
+    private void insertBooking(Connection conn, Booking booking) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            Savepoint savepoint = conn.setSavepoint();
+            try {
+                if (!booking.insert(conn)) {
+                    throw new SQLException("Booking was not stored");
+                }
+                return;
+            } catch (SQLException e) {
+                conn.rollback(savepoint);
+                if (!Booking.isDuplicateConfirmationCode(e) || attempt >= CODE_ATTEMPTS) {
+                    throw e;
+                }
+                booking.setConfirmationCode(IdGenerator.getInstance().nextCode());
+            }
+        }
+    }
+    
+    private void refunded(Connection conn, OutboxEntry entry, PaymentResult payment, long now) throws SQLException {
+        Checkout checkout = entry.checkout;
+        if (payment == null || !payment.isSuccessful()) {
+            store.reschedule(conn, entry.id, entry.attempts + 1, now + retryDelayMs(entry.attempts + 1));
+            return;
+        }
+        store.removeEvents(conn, checkout.getIdempotencyKey());
+        checkout.setState(State.REFUNDED);
+        store.update(conn, checkout, now);
+    }
+    
+    private void refundLater(Connection conn, Checkout checkout, String reason, long now) throws SQLException {
+        store.removeEvents(conn, checkout.getIdempotencyKey());
+        checkout.setState(State.REFUND_PENDING);
+        checkout.setReason(reason);
+        store.update(conn, checkout, now);
+        store.addEvent(conn, checkout.getIdempotencyKey(), Event.REFUND, now);
+    }
+    
+    // Full jitter, doubling from outbox.retryBaseMs up to outbox.retryMaxMs
+    private long retryDelayMs(int attempts) {
+        long ceiling = Math.min(retryMaxMs, retryBaseMs << Math.min(attempts - 1, 20));
+        return ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+    }
+}
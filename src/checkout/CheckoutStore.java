@@ -0,0 +1,171 @@
+package checkout;
+
+import adapter.PaymentAdapterFactory.PaymentMethod;
+import core.IdGenerator;
+import model.Booking;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes the checkouts and outbox tables for {@link CheckoutSaga}.
+ * Everything runs on the saga's own connection; writes join its transaction, so a checkout's new state and the outbox
+ * event that follows from it commit together.
+ */
+public class CheckoutStore {
+    
+    public enum Event {
+        CHARGE, REFUND
+    }
+    
+    // A due outbox row and its checkout
+    public static class OutboxEntry {
+        final long id;
+        final Event event;
+        final int attempts;
+        final Checkout checkout;
+        
+        OutboxEntry(long id, Event event, int attempts, Checkout checkout) {
+            this.id = id;
+            this.event = event;
+            this.attempts = attempts;
+            this.checkout = checkout;
+        }
+    }
+    
+    private static final String CHECKOUT_COLUMNS = "c.idempotency_key, c.user_id, c.movie_id, c.seats, c.confirmation_code, c.amount_cents, " +
+            "c.theater_type, c.add_on_mask, c.payment_method, c.customer_info, c.state, c.transaction_id, " +
+            "c.booking_id, c.reason";
+    
+    // Store a new checkout with its first step; false if the key was used before
+    public boolean insert(Connection conn, Checkout checkout, long now) throws SQLException {
+        String sql = "INSERT OR IGNORE INTO checkouts (idempotency_key, user_id, movie_id, seats, confirmation_code, " +
+                     "amount_cents, theater_type, add_on_mask, payment_method, customer_info, state, created_at, updated_at) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        Booking booking = checkout.getBooking();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, checkout.getIdempotencyKey());
+            pstmt.setInt(2, booking.getUserId());
+            pstmt.setInt(3, booking.getMovieId());
+            pstmt.setString(4, booking.getSeats());
+            pstmt.setString(5, booking.getConfirmationCode());
+            pstmt.setLong(6, booking.getTotalPriceCents());
+            pstmt.setString(7, booking.getTheaterType());
+            pstmt.setInt(8, booking.getAddOnMask());
+            pstmt.setString(9, checkout.getMethod().name());
+            pstmt.setString(10, checkout.getCustomerInfo());
+            pstmt.setString(11, checkout.getState().name());
+            pstmt.setLong(12, now);
+            pstmt.setLong(13, now);
+            if (pstmt.executeUpdate() == 0) {
+                return false;
+            }
+        }
+        addEvent(conn, checkout.getIdempotencyKey(), Event.CHARGE, now);
+        return true;
+    }
+    
+    public Checkout find(Connection conn, String idempotencyKey) {
+        String sql = "SELECT " + CHECKOUT_COLUMNS + " FROM checkouts c WHERE c.idempotency_key = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, idempotencyKey);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return readCheckout(rs);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+    
+    // Oldest due events first
+    public List<OutboxEntry> due(Connection conn, long now, int limit) throws SQLException {
+        String sql = "SELECT o.id, o.event, o.attempts, " + CHECKOUT_COLUMNS + " FROM outbox o " +
+                     "JOIN checkouts c ON c.idempotency_key = o.checkout_key " +
+                     "WHERE o.next_attempt_at <= ? ORDER BY o.id LIMIT ?";
+        List<OutboxEntry> entries = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setLong(1, now);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(new OutboxEntry(rs.getLong("id"), Event.valueOf(rs.getString("event")),
+                                                rs.getInt("attempts"), readCheckout(rs)));
+                }
+            }
+        }
+        return entries;
+    }
+    
+    public void update(Connection conn, Checkout checkout, long now) throws SQLException {
+        // The confirmation code changes if the first one collided with another booking's
+        String sql = "UPDATE checkouts SET state = ?, transaction_id = ?, booking_id = ?, reason = ?, updated_at = ?, " +
+                     "confirmation_code = ? WHERE idempotency_key = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, checkout.getState().name());
+            pstmt.setString(2, checkout.getTransactionId());
+            int bookingId = checkout.getBooking().getId();
+            if (bookingId > 0) {
+                pstmt.setInt(3, bookingId);
+            } else {
+                pstmt.setNull(3, Types.INTEGER);
+            }
+            pstmt.setString(4, checkout.getReason());
+            pstmt.setLong(5, now);
+            pstmt.setString(6, checkout.getBooking().getConfirmationCode());
+            pstmt.setString(7, checkout.getIdempotencyKey());
+            pstmt.executeUpdate();
+        }
+    }
+    
+    public void addEvent(Connection conn, String idempotencyKey, Event event, long dueAt) throws SQLException {
+        // Time-ordered event ids, so ORDER BY id is oldest first
+        String sql = "INSERT INTO outbox (id, checkout_key, event, attempts, next_attempt_at) VALUES (?, ?, ?, 0, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setLong(1, IdGenerator.getInstance().nextId());
+            pstmt.setString(2, idempotencyKey);
+            pstmt.setString(3, event.name());
+            pstmt.setLong(4, dueAt);
+            pstmt.executeUpdate();
+        }
+    }
+    
+    public void removeEvents(Connection conn, String idempotencyKey) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM outbox WHERE checkout_key = ?")) {
+            pstmt.setString(1, idempotencyKey);
+            pstmt.executeUpdate();
+        }
+    }
+    
+    public void reschedule(Connection conn, long eventId, int attempts, long dueAt) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "UPDATE outbox SET attempts = ?, next_attempt_at = ? WHERE id = ?")) {
+            pstmt.setInt(1, attempts);
+            pstmt.setLong(2, dueAt);
+            pstmt.setLong(3, eventId);
+            pstmt.executeUpdate();
+        }
+    }
+    
+    private static Checkout readCheckout(ResultSet rs) throws SQLException {
+        Booking booking = new Booking(rs.getInt("user_id"), rs.getInt("movie_id"), rs.getString("seats"),
+                                      rs.getLong("amount_cents"));
+        booking.setTheaterType(rs.getString("theater_type"));
+        booking.setAddOnMask(rs.getInt("add_on_mask"));
+        booking.setId(rs.getInt("booking_id"));
+        booking.setConfirmationCode(rs.getString("confirmation_code"));
+        Checkout checkout = new Checkout(rs.getString("idempotency_key"), booking,
+                                         PaymentMethod.valueOf(rs.getString("payment_method")),
+                                         rs.getString("customer_info"));
+        checkout.setState(Checkout.State.valueOf(rs.getString("state")));
+        checkout.setTransactionId(rs.getString("transaction_id"));
+        checkout.setReason(rs.getString("reason"));
+        return checkout;
+    }
+}
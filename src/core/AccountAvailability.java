@@ -0,0 +1,188 @@
+package core;
+
+import model.User;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Singleton Pattern: AccountAvailability
+ * Answers "is this username / email already registered?" while the user types.
+ * Bloom filters over all usernames and emails rule out most values without a
+ * query; only a probable hit is confirmed through {@link UserCache}, which
+ * falls back to the database.
+ * Filter size comes from {@code account.bloom.expected} (default: twice the
+ * current number of users, at least 10000) and {@code account.bloom.fpp}
+ * (default 0.01).
+ * Users stored by this process are added as they register. Users stored by
+ * another process, e.g. a bulk import, are picked up by id every
+ * {@code account.bloom.catchUpSeconds} (default 30).
+ */
+public class AccountAvailability {
+    private static final int MIN_EXPECTED = 10_000;
+
+    private static AccountAvailability instance;
+
+    private BloomFilter usernames;
+    private BloomFilter emails;
+    private volatile boolean ready;
+    // Users stored while a rebuild scans the table; the scan may have missed them
+    private int rebuilding;
+    private final List<User> addedDuringRebuild = new ArrayList<>();
+    // Highest user id the filters are known to cover
+    private int coveredUserId;
+    private ScheduledExecutorService catchUp;
+
+    private long checks;
+    private long filteredOut;
+    private long falsePositives;
+
+    private AccountAvailability() {
+    }
+
+    public static synchronized AccountAvailability getInstance() {
+        if (instance == null) {
+            instance = new AccountAvailability();
+        }
+        return instance;
+    }
+
+    // Build the filters from the users table; until then every check goes to the database
+    public void rebuild() {
+        int users = User.count();
+        int expected = Integer.getInteger("account.bloom.expected", Math.max(MIN_EXPECTED, users * 2));
+        double fpp = Double.parseDouble(System.getProperty("account.bloom.fpp", "0.01"));
+
+        BloomFilter newUsernames = new BloomFilter(expected, fpp);
+        BloomFilter newEmails = new BloomFilter(expected, fpp);
+        long start = System.nanoTime();
+        synchronized (this) {
+            rebuilding++;
+        }
+        // Read before the scan; later users are found by the next catch-up
+        int maxId = User.maxId();
+        try {
+            User.forEachIdentity((username, email) -> {
+                newUsernames.add(username);
+                newEmails.add(email);
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                finishRebuild();
+            }
+            throw e;
+        }
+
+        // Catch up with users stored during the scan in the same step as the swap,
+        // so none of them is ever reported free
+        synchronized (this) {
+            for (User user : addedDuringRebuild) {
+                newUsernames.add(user.getUsername());
+                newEmails.add(user.getEmail());
+            }
+            finishRebuild();
+            usernames = newUsernames;
+            emails = newEmails;
+            coveredUserId = maxId;
+            ready = true;
+        }
+        System.out.println("Account filters rebuilt in " + (System.nanoTime() - start) / 1_000_000 + " ms: " + this);
+    }
+
+    private void finishRebuild() {
+        if (--rebuilding == 0) {
+            addedDuringRebuild.clear();
+        }
+    }
+
+    // Rebuild, then keep catching up with users added by other processes
+    public synchronized void rebuildInBackground() {
+        if (catchUp != null) {
+            return;
+        }
+        catchUp = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "account-filter-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        catchUp.execute(this::rebuild);
+        long seconds = Long.getLong("account.bloom.catchUpSeconds", 30);
+        catchUp.scheduleWithFixedDelay(this::catchUp, seconds, seconds, TimeUnit.SECONDS);
+    }
+
+    // Add users stored since the filters last covered the table; one indexed query
+    public void catchUp() {
+        int after;
+        synchronized (this) {
+            if (!ready) {
+                return;
+            }
+            after = coveredUserId;
+        }
+        int maxId = User.maxId();
+        if (maxId <= after) {
+            return;
+        }
+        List<String[]> found = new ArrayList<>();
+        User.forEachIdentityAfter(after, (username, email) -> found.add(new String[]{username, email}));
+        synchronized (this) {
+            for (String[] identity : found) {
+                usernames.add(identity[0]);
+                emails.add(identity[1]);
+            }
+            coveredUserId = Math.max(coveredUserId, maxId);
+        }
+    }
+
+    // Call after a user was stored
+    public synchronized void add(User user) {
+        if (ready) {
+            usernames.add(user.getUsername());
+            emails.add(user.getEmail());
+        }
+        if (rebuilding > 0) {
+            addedDuringRebuild.add(user);
+        }
+    }
+
+    // Cheap, in-memory: false means certainly free
+    public synchronized boolean mightHaveUsername(String username) {
+        return !ready || usernames.mightContain(username);
+    }
+
+    public synchronized boolean mightHaveEmail(String email) {
+        return !ready || emails.mightContain(email);
+    }
+
+    // Definitive answers; they query only on a probable hit
+    public boolean isUsernameTaken(String username) {
+        boolean probable = mightHaveUsername(username);
+        return record(probable, probable && UserCache.getInstance().getByUsername(username) != null);
+    }
+
+    public boolean isEmailTaken(String email) {
+        boolean probable = mightHaveEmail(email);
+        return record(probable, probable && UserCache.getInstance().getByEmail(email) != null);
+    }
+
+    private synchronized boolean record(boolean probable, boolean taken) {
+        checks++;
+        if (!probable) {
+            filteredOut++;
+        } else if (!taken && ready) {
+            falsePositives++;
+        }
+        return taken;
+    }
+
+    @Override
+    public synchronized String toString() {
+        if (!ready) {
+            return "AccountAvailability[not built]";
+        }
+        return String.format("AccountAvailability[usernames: %s; emails: %s; checks=%d, answered in memory=%d, false positives=%d]",
+            usernames, emails, checks, filteredOut, falsePositives);
+    }
+}
@@ -3,7 +3,14 @@ package core;
 import model.User;
 import model.Movie;
 import model.Booking;
+import model.RegistrationResult;
 import database.DatabaseManager;
+import search.FacetIndex;
+import search.SearchIndex;
+import security.PasswordHasher;
+import security.PasswordVerifier;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Singleton Pattern: BookingSystem
@@ -11,8 +18,8 @@ import database.DatabaseManager;
  * Ensures only one instance manages all bookings
  */
 public class BookingSystem {
+    private static final int MAX_FUZZY_RESULTS = 20;
     private static BookingSystem instance;
-    private User currentUser;
     private SessionManager sessionManager;
     
     private BookingSystem() {
@@ -29,87 +36,205 @@ public class BookingSystem {
         return instance;
     }
     
-    // User Authentication
-    public boolean register(String name, String email, String username, String password) {
-        // Check if user already exists
-        if (User.findByEmail(email) != null) {
-            return false; // Email already exists
+    // User Authentication: one insert; the UNIQUE constraints report duplicates.
+    // Hashing is CPU-heavy, so call this off the EDT.
+    public RegistrationResult register(String name, String email, String username, String password) {
+        String hash;
+        try {
+            hash = PasswordVerifier.getInstance().hash(password.toCharArray()).join();
+        } catch (CompletionException e) {
+            return RegistrationResult.FAILED;
         }
-        
-        if (User.findByUsername(username) != null) {
-            return false; // Username already exists
+        User user = new User(name, email, username, hash);
+        RegistrationResult result = user.register();
+        if (result.isSuccess()) {
+            AccountAvailability.getInstance().add(user);
         }
-        
-        User user = new User(name, email, username, password);
-        return user.save();
+        return result;
     }
     
-    public boolean login(String email, String password) {
-        User user = User.findByEmailAndPassword(email, password);
-        if (user != null) {
-            currentUser = user;
-            sessionManager.setCurrentUser(user);
+    // Live availability for the registration form; see AccountAvailability
+    public AccountAvailability getAccountAvailability() {
+        return AccountAvailability.getInstance();
+    }
+    
+    /**
+     * Check the credentials on the password verification pool and open a session.
+     * Completes with null for a wrong email or password, and exceptionally with a
+     * RejectedExecutionException when too many logins are already waiting.
+     */
+    public CompletableFuture<Session> authenticate(String email, String password) {
+        char[] secret = password.toCharArray();
+        return PasswordVerifier.getInstance().submit(() -> {
+            PasswordHasher hasher = PasswordHasher.getInstance();
+            User user = UserCache.getInstance().getByEmail(email);
+            if (user == null) {
+                // Spend the same time as for a known email so accounts cannot be probed
+                hasher.hash(secret);
+                return null;
+            }
+            if (!hasher.verify(secret, user.getPassword())) {
+                return null;
+            }
+            // Legacy plaintext passwords and weaker hashes are upgraded on a successful login
+            if (hasher.needsRehash(user.getPassword())) {
+                String upgraded = hasher.hash(secret);
+                if (User.updatePassword(user.getId(), upgraded)) {
+                    user.setPassword(upgraded);
+                    UserCache.getInstance().invalidate(user);
+                }
+            }
+            return sessionManager.createSession(user);
+        });
+    }
+    
+    // Log in the desktop UI: the new session becomes the current one
+    public CompletableFuture<Boolean> loginAsync(String email, String password) {
+        return authenticate(email, password).thenApply(session -> {
+            if (session == null) {
+                return false;
+            }
+            sessionManager.setCurrentSession(session);
             return true;
+        });
+    }
+    
+    public boolean login(String email, String password) {
+        try {
+            return loginAsync(email, password).join();
+        } catch (CompletionException e) {
+            return false;
         }
-        return false;
     }
     
     public void logout() {
-        currentUser = null;
         sessionManager.logout();
     }
     
     public User getCurrentUser() {
-        return currentUser;
+        return sessionManager.getCurrentUser();
     }
     
     public boolean isLoggedIn() {
-        return currentUser != null;
+        return sessionManager.isUserLoggedIn();
     }
     
     // Movie Management
     public boolean addMovie(String title, String genre, String duration, String rating, String description, String posterPath) {
         Movie movie = new Movie(title, genre, duration, rating, description, posterPath);
-        return movie.save();
+        if (movie.save()) {
+            MovieCatalog.getInstance().put(movie);
+            return true;
+        }
+        return false;
     }
     
     public java.util.List<Movie> getAllMovies() {
-        return Movie.getAllMovies();
+        java.util.List<Movie> movies = Movie.getAllMovies();
+        // Keep the in-memory caches and search index in step with the catalog
+        MovieCatalog.getInstance().replaceAll(movies);
+        SearchIndex.getInstance().rebuild(movies);
+        return movies;
     }
     
+    // Serve a catalog loaded from elsewhere (e.g. the start-up snapshot) until the next database load
+    public void primeCatalog(java.util.List<Movie> movies) {
+        MovieCatalog.getInstance().replaceAll(movies);
+        SearchIndex.getInstance().rebuild(movies);
+    }
+    
+    // Exact (substring) matches first, then typo-tolerant matches that were not already found
     public java.util.List<Movie> searchMovies(String searchTerm) {
-        return Movie.searchByTitle(searchTerm);
+        java.util.List<Movie> results = Movie.searchByTitle(searchTerm);
+        java.util.Set<Integer> seen = new java.util.HashSet<>();
+        for (Movie movie : results) {
+            seen.add(movie.getId());
+        }
+        for (Movie movie : SearchIndex.getInstance().fuzzySearch(searchTerm, MAX_FUZZY_RESULTS)) {
+            if (seen.add(movie.getId())) {
+                results.add(movie);
+            }
+        }
+        return results;
+    }
+    
+    // Typeahead suggestions, served from memory without touching the database
+    public java.util.List<String> autocomplete(String prefix, int limit) {
+        return SearchIndex.getInstance().complete(prefix, limit);
+    }
+    
+    // Faceted filtering (genre, rating band, duration band, format) with per-value counts
+    public FacetIndex.FacetResult filterMovies(java.util.Map<FacetIndex.Facet, java.util.Set<String>> selected) {
+        return SearchIndex.getInstance().filter(selected);
     }
     
     public Movie getMovieById(int movieId) {
-        return Movie.findById(movieId);
+        return MovieCatalog.getInstance().get(movieId);
+    }
+    
+    // Several movies at once; cache misses are loaded with a single query
+    public java.util.Map<Integer, Movie> getMoviesByIds(int[] movieIds) {
+        return MovieCatalog.getInstance().getAll(movieIds);
+    }
+    
+    // Identity map for one screen: repeated lookups of the same id are free
+    public MovieScope openMovieScope() {
+        return new MovieScope(MovieCatalog.getInstance());
+    }
+    
+    // Bookings together with their movies, resolved in one batch
+    public MovieScope prefetchMovies(java.util.List<Booking> bookings) {
+        MovieScope scope = openMovieScope();
+        java.util.List<Integer> movieIds = new java.util.ArrayList<>();
+        for (Booking booking : bookings) {
+            movieIds.add(booking.getMovieId());
+        }
+        scope.prefetch(movieIds);
+        return scope;
     }
     
     // Booking Management
-    public boolean createBooking(int movieId, String seats, double totalPrice) {
-        if (!isLoggedIn()) {
+    public boolean createBooking(int movieId, String seats, long totalPriceCents) {
+        return createBooking(sessionManager.getCurrentSession(), movieId, seats, totalPriceCents);
+    }
+    
+    public boolean createBooking(Session session, int movieId, String seats, long totalPriceCents) {
+        if (session == null || session.getUser() == null) {
             return false;
         }
         
-        Booking booking = new Booking(currentUser.getId(), movieId, seats, totalPrice);
-        boolean success = booking.save();
+        Booking booking = new Booking(session.getUser().getId(), movieId, seats, totalPriceCents);
+        boolean success = saveBooking(booking);
         
         if (success) {
-            sessionManager.addActiveBooking(movieId, "Created");
+            session.addActiveBooking(movieId, "Created");
         }
         
         return success;
     }
     
+    // Save and mark the seats taken in the live inventory used for pricing
+    public boolean saveBooking(Booking booking) {
+        if (!booking.save()) {
+            return false;
+        }
+        SeatInventory.getInstance().booked(booking.getMovieId(), booking.getSeatList());
+        return true;
+    }
+    
     public SessionManager getSessionManager() {
         return sessionManager;
     }
     
     public java.util.List<Booking> getUserBookings() {
-        if (!isLoggedIn()) {
+        return getUserBookings(sessionManager.getCurrentSession());
+    }
+    
+    public java.util.List<Booking> getUserBookings(Session session) {
+        if (session == null || session.getUser() == null) {
             return new java.util.ArrayList<>();
         }
-        return Booking.getBookingsByUser(currentUser.getId());
+        return Booking.getBookingsByUser(session.getUser().getId());
     }
     
     public java.util.List<Booking> getAllBookings() {
@@ -117,13 +242,17 @@ public class BookingSystem {
     }
     
     public boolean isSeatOccupied(int movieId, String seatLabel) {
-        return Booking.isSeatOccupied(movieId, seatLabel);
+        return SeatInventory.getInstance().getShowing(movieId).isOccupied(seatLabel);
     }
     
     public java.util.List<String> getOccupiedSeats(int movieId) {
         return Booking.getOccupiedSeats(movieId);
     }
     
+    public java.util.Map<Integer, Integer> getOccupiedSeatCounts() {
+        return Booking.getOccupiedSeatCounts();
+    }
+    
     // Cleanup
     public void cleanup() {
         DatabaseManager.getInstance().closeConnection();
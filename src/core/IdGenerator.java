@@ -0,0 +1,88 @@
+package core;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Singleton Pattern: IdGenerator
+ * Unique, time-ordered 64-bit ids: 41 bits of milliseconds since 2024-01-01 UTC,
+ * 10 bits of node id and a 12-bit sequence within the millisecond.
+ * The node is {@code id.node} (0-1023); by default it is derived from the host name
+ * and process id, so kiosks sharing a database should set it explicitly.
+ * Lock-free: the last (millisecond, sequence) pair is one AtomicLong updated by CAS.
+ * Past 4096 ids in a millisecond, or if the clock steps back, ids borrow the next
+ * millisecond, so they never repeat and never go backwards.
+ */
+public class IdGenerator {
+    public static final long EPOCH_MILLIS = 1_704_067_200_000L;  // 2024-01-01T00:00:00Z
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();  // Crockford base 32
+    
+    private static IdGenerator instance;
+    
+    private final long nodeBits;
+    private final AtomicLong last;  // (millis since epoch << SEQUENCE_BITS) | sequence of the last id
+    
+    private IdGenerator(long node) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Node id must be 0-" + MAX_NODE + ": " + node);
+        }
+        this.nodeBits = node << SEQUENCE_BITS;
+        this.last = new AtomicLong();
+    }
+    
+    public static synchronized IdGenerator getInstance() {
+        if (instance == null) {
+            instance = new IdGenerator(Long.getLong("id.node", defaultNode()));
+        }
+        return instance;
+    }
+    
+    public long nextId() {
+        long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        while (true) {
+            long previous = last.get();
+            long next = now > previous ? now : previous + 1;
+            if (last.compareAndSet(previous, next)) {
+                return (next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+    
+    // Next id as a 13-character code, e.g. for booking confirmations
+    public String nextCode() {
+        return format(nextId());
+    }
+    
+    // Fixed width, so codes sort like their ids
+    public static String format(long id) {
+        char[] code = new char[13];
+        for (int i = code.length - 1; i >= 0; i--) {
+            code[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(code);
+    }
+    
+    public static long timestampMillis(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+    
+    public static int node(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE);
+    }
+    
+    private static long defaultNode() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "localhost";
+        }
+        return ((host.hashCode() * 31L) + ProcessHandle.current().pid()) & MAX_NODE;
+    }
+}
@@ -0,0 +1,86 @@
+package core;
+
+import model.Movie;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Singleton Pattern: MovieCatalog
+ * Application-wide cache of movies by id.
+ * It is filled whenever the full catalog is loaded; lookups that miss are
+ * fetched from the database together, in a single batched query.
+ */
+public class MovieCatalog {
+    private static MovieCatalog instance;
+    private final Map<Integer, Movie> movies;
+
+    private MovieCatalog() {
+        this.movies = new ConcurrentHashMap<>();
+    }
+
+    public static synchronized MovieCatalog getInstance() {
+        if (instance == null) {
+            instance = new MovieCatalog();
+        }
+        return instance;
+    }
+
+    // Replace the cache with a freshly loaded catalog
+    public void replaceAll(List<Movie> catalog) {
+        Map<Integer, Movie> fresh = new HashMap<>();
+        for (Movie movie : catalog) {
+            fresh.put(movie.getId(), movie);
+        }
+        movies.keySet().retainAll(fresh.keySet());
+        movies.putAll(fresh);
+    }
+
+    public void put(Movie movie) {
+        movies.put(movie.getId(), movie);
+    }
+
+    public void invalidate(int movieId) {
+        movies.remove(movieId);
+    }
+
+    public Movie get(int movieId) {
+        return getAll(new int[]{movieId}).get(movieId);
+    }
+
+    /**
+     * Movies for the given ids: cached ones directly, all misses with one query.
+     * @return movies keyed by id; unknown ids are absent
+     */
+    public Map<Integer, Movie> getAll(int[] movieIds) {
+        Map<Integer, Movie> result = new HashMap<>();
+        Set<Integer> misses = new LinkedHashSet<>();
+        for (int id : movieIds) {
+            Movie movie = movies.get(id);
+            if (movie != null) {
+                result.put(id, movie);
+            } else {
+                misses.add(id);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            int[] ids = new int[misses.size()];
+            int i = 0;
+            for (int id : misses) {
+                ids[i++] = id;
+            }
+            Map<Integer, Movie> loaded = Movie.findByIds(ids);
+            movies.putAll(loaded);
+            result.putAll(loaded);
+        }
+        return result;
+    }
+
+    public int size() {
+        return movies.size();
+    }
+}
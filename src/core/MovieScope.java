@@ -0,0 +1,49 @@
+package core;
+
+import model.Movie;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Identity map for one screen or request.
+ * Each movie id is resolved at most once while the scope is alive, and always
+ * to the same instance. Call {@link #prefetch} with every id a screen is about
+ * to show so the misses are loaded with one query instead of one per row.
+ */
+public class MovieScope {
+    private final MovieCatalog catalog;
+    private final Map<Integer, Movie> resolved;
+
+    public MovieScope(MovieCatalog catalog) {
+        this.catalog = catalog;
+        this.resolved = new HashMap<>();
+    }
+
+    public void prefetch(Collection<Integer> movieIds) {
+        int[] ids = new int[movieIds.size()];
+        int count = 0;
+        for (int id : movieIds) {
+            if (!resolved.containsKey(id)) {
+                ids[count++] = id;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        int[] pending = Arrays.copyOf(ids, count);
+        Map<Integer, Movie> loaded = catalog.getAll(pending);
+        for (int id : pending) {
+            // Unknown ids are remembered as null so they are not queried again
+            resolved.put(id, loaded.get(id));
+        }
+    }
+
+    public Movie get(int movieId) {
+        if (!resolved.containsKey(movieId)) {
+            resolved.put(movieId, catalog.get(movieId));
+        }
+        return resolved.get(movieId);
+    }
+}
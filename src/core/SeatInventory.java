@@ -0,0 +1,84 @@
+package core;
+
+import model.Booking;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Singleton Pattern: SeatInventory
+ * Live occupied-seat state per showing (a showing is a movie; seats are
+ * tracked per movie). A showing is read from the seats table on first use
+ * and then updated in memory as bookings are saved, so occupancy for pricing
+ * never costs a query. Bookings made by other instances of the app only show
+ * up after {@link #invalidate}; the booking window calls it when it opens.
+ */
+public class SeatInventory {
+    private static SeatInventory instance;
+
+    // Occupied seats of one showing; seat sets make repeated updates harmless.
+    // Capacity comes from the theater layout the seats are shown in.
+    public static class Showing {
+        private final Set<String> occupied;
+        private final AtomicInteger occupiedCount;
+
+        Showing(Collection<String> occupiedSeats) {
+            this.occupied = ConcurrentHashMap.newKeySet();
+            this.occupiedCount = new AtomicInteger();
+            occupy(occupiedSeats);
+        }
+
+        void occupy(Collection<String> seats) {
+            for (String seat : seats) {
+                if (occupied.add(seat)) {
+                    occupiedCount.incrementAndGet();
+                }
+            }
+        }
+
+        public int getOccupiedCount() { return occupiedCount.get(); }
+
+        public boolean isOccupied(String seat) {
+            return occupied.contains(seat);
+        }
+
+        // Whole percent of the given capacity, 0-100
+        public int getOccupancyPercent(int capacity) {
+            return capacity == 0 ? 100 : Math.min(100, occupiedCount.get() * 100 / capacity);
+        }
+    }
+
+    private final Map<Integer, Showing> showings;
+
+    private SeatInventory() {
+        this.showings = new ConcurrentHashMap<>();
+    }
+
+    public static synchronized SeatInventory getInstance() {
+        if (instance == null) {
+            instance = new SeatInventory();
+        }
+        return instance;
+    }
+
+    public Showing getShowing(int movieId) {
+        return showings.computeIfAbsent(movieId,
+            id -> new Showing(Booking.getOccupiedSeats(id)));
+    }
+
+    // Call after the booking's seats were written. A showing not loaded yet
+    // will read them from the table when first used.
+    public void booked(int movieId, Collection<String> seats) {
+        showings.computeIfPresent(movieId, (id, showing) -> {
+            showing.occupy(seats);
+            return showing;
+        });
+    }
+
+    // Forget a showing so it is read again, e.g. after seats changed outside this app
+    public void invalidate(int movieId) {
+        showings.remove(movieId);
+    }
+}
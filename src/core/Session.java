@@ -0,0 +1,98 @@
+package core;
+
+import model.User;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * State of one logged-in customer, identified by an opaque token.
+ * Fields are safe to read and update from any thread.
+ * A lookup only marks the session changed once its last access has moved by
+ * {@code session.accessGranularitySeconds} (default 60) since it was persisted,
+ * so flushes do not rewrite every active session.
+ */
+public class Session {
+    private static final long ACCESS_GRANULARITY_MILLIS =
+        Long.getLong("session.accessGranularitySeconds", 60) * 1000;
+
+    private final String token;
+    private final long createdAt;
+    private volatile User user;
+    private volatile long lastAccess;
+    private volatile long persistedAccess;   // last access as of the last flush
+    private volatile boolean dirty = true;  // changed since it was last persisted
+    private final Map<Integer, String> activeBookings; // movieId -> booking status
+
+    public Session(String token, User user) {
+        this(token, user, System.currentTimeMillis());
+    }
+
+    public Session(String token, User user, long createdAt) {
+        this(token, user, createdAt, System.currentTimeMillis());
+    }
+
+    public Session(String token, User user, long createdAt, long lastAccess) {
+        this.token = token;
+        this.user = user;
+        this.createdAt = createdAt;
+        this.lastAccess = lastAccess;
+        this.activeBookings = new ConcurrentHashMap<>();
+    }
+
+    public String getToken() { return token; }
+    public long getCreatedAt() { return createdAt; }
+    public long getLastAccess() { return lastAccess; }
+
+    public User getUser() { return user; }
+    public void setUser(User user) {
+        this.user = user;
+        dirty = true;
+    }
+
+    public void touch() {
+        long now = System.currentTimeMillis();
+        lastAccess = now;
+        if (now - persistedAccess >= ACCESS_GRANULARITY_MILLIS) {
+            dirty = true;
+        }
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    // Clear before reading the state to persist, so changes made meanwhile stay dirty
+    public void markClean() {
+        dirty = false;
+        persistedAccess = lastAccess;
+    }
+
+    public boolean isIdle(long now, long timeoutMillis) {
+        return now - lastAccess > timeoutMillis;
+    }
+
+    // Booking Status Management
+    public void addActiveBooking(int movieId, String status) {
+        activeBookings.put(movieId, status);
+        dirty = true;
+    }
+
+    public String getBookingStatus(int movieId) {
+        return activeBookings.getOrDefault(movieId, "Not Started");
+    }
+
+    public void removeActiveBooking(int movieId) {
+        activeBookings.remove(movieId);
+        dirty = true;
+    }
+
+    public Map<Integer, String> getAllActiveBookings() {
+        return new HashMap<>(activeBookings);
+    }
+
+    public void clearAllBookings() {
+        activeBookings.clear();
+        dirty = true;
+    }
+}
@@ -1,66 +1,272 @@
 package core;
 
 import model.User;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Singleton Pattern: SessionManager
- * Manages user sessions and booking status
- * Ensures only one instance exists throughout the application
+ * Registry of logged-in sessions keyed by random tokens.
+ * Lookups are plain concurrent-map reads, so many kiosk and web sessions can be
+ * served at once. Sessions unused for {@code session.idleMinutes} (default 30)
+ * are removed by a background sweeper.
+ * Sessions are flushed to the sessions table every {@code session.flushSeconds}
+ * (default 15) and on exit. After a restart nothing is loaded up front: a token
+ * is read back from the store the first time it is looked up; tokens the store
+ * does not know are remembered for a minute, so repeated bogus tokens cost no query.
+ * The desktop UI works with one "current" session; the methods without a token
+ * operate on that one. Its token is kept in a local file so the kiosk can resume.
  */
 public class SessionManager {
+    private static final int TOKEN_BYTES = 24;
+    private static final long SWEEP_INTERVAL_SECONDS = 60;
+    private static final Path CURRENT_TOKEN_FILE = Paths.get("moviebooking.session");
+    private static final int MAX_UNKNOWN_TOKENS = 1024;
+    private static final long UNKNOWN_TOKEN_MILLIS = 60_000;
+
     private static SessionManager instance;
-    private User currentUser;
-    private Map<Integer, String> activeBookings; // movieId -> booking status
-    
-    private SessionManager() {
-        this.activeBookings = new HashMap<>();
+
+    private final Map<String, Session> sessions;
+    private final Set<String> removedTokens;   // invalidated, not yet deleted from the store
+    private final Map<String, Long> unknownTokens;   // token -> when the store did not have it
+    private final SessionStore store;
+    private final SecureRandom random;
+    private final long idleTimeoutMillis;
+    private final ScheduledExecutorService sweeper;
+    private volatile Session currentSession;
+
+    private SessionManager(long idleTimeoutMillis) {
+        this.sessions = new ConcurrentHashMap<>();
+        this.removedTokens = ConcurrentHashMap.newKeySet();
+        this.unknownTokens = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > MAX_UNKNOWN_TOKENS;
+            }
+        };
+        this.store = new SessionStore();
+        this.random = new SecureRandom();
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::evictIdleSessions,
+            SWEEP_INTERVAL_SECONDS, SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        long flushSeconds = Long.getLong("session.flushSeconds", 15);
+        sweeper.scheduleWithFixedDelay(this::flush, flushSeconds, flushSeconds, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "session-flush-exit"));
     }
-    
+
     public static synchronized SessionManager getInstance() {
         if (instance == null) {
-            instance = new SessionManager();
+            instance = new SessionManager(TimeUnit.MINUTES.toMillis(Long.getLong("session.idleMinutes", 30)));
         }
         return instance;
     }
+
+    // Session registry
+    public Session createSession(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        Session session = new Session(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes), user);
+        sessions.put(session.getToken(), session);
+        return session;
+    }
+
+    // The session for a token, or null if unknown or idle for too long
+    public Session getSession(String token) {
+        if (token == null || removedTokens.contains(token)) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            // Possibly from before a restart; loaded outside the map so no map lock is held over the query
+            session = load(token);
+            if (session == null) {
+                return null;
+            }
+        }
+        if (session.isIdle(System.currentTimeMillis(), idleTimeoutMillis)) {
+            invalidate(token);
+            return null;
+        }
+        session.touch();
+        return session;
+    }
+
+    private Session load(String token) {
+        synchronized (unknownTokens) {
+            Long missedAt = unknownTokens.get(token);
+            if (missedAt != null && System.currentTimeMillis() - missedAt < UNKNOWN_TOKEN_MILLIS) {
+                return null;
+            }
+        }
+        Session loaded = store.load(token);
+        if (loaded == null) {
+            synchronized (unknownTokens) {
+                unknownTokens.put(token, System.currentTimeMillis());
+            }
+            return null;
+        }
+        // A concurrent lookup may have loaded it first; keep that one
+        Session session = sessions.putIfAbsent(token, loaded);
+        session = session != null ? session : loaded;
+        if (removedTokens.contains(token)) {
+            sessions.remove(token, session);
+            return null;
+        }
+        return session;
+    }
+
+    public void invalidate(String token) {
+        removedTokens.add(token);
+        Session session = sessions.remove(token);
+        if (session != null && session == currentSession) {
+            currentSession = null;
+        }
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    private void evictIdleSessions() {
+        long now = System.currentTimeMillis();
+        int evicted = 0;
+        for (Session session : sessions.values()) {
+            if (session.isIdle(now, idleTimeoutMillis) && sessions.remove(session.getToken(), session)) {
+                removedTokens.add(session.getToken());
+                if (session == currentSession) {
+                    currentSession = null;
+                }
+                evicted++;
+            }
+        }
+        // Also those persisted before a restart and never looked up since
+        evicted += store.deleteIdle(now - idleTimeoutMillis);
+        if (evicted > 0) {
+            System.out.println("Session sweeper: removed " + evicted + " idle session(s), "
+                               + sessions.size() + " active");
+        }
+    }
     
-    // User Session Management
-    public void setCurrentUser(User user) {
-        this.currentUser = user;
+    // Write changed sessions and delete invalidated ones, each in one transaction
+    public synchronized void flush() {
+        List<Session> changed = new ArrayList<>();
+        for (Session session : sessions.values()) {
+            if (session.isDirty() && session.getUser() != null) {
+                session.markClean();
+                changed.add(session);
+            }
+        }
+        List<String> removed = new ArrayList<>(removedTokens);
+        store.saveAll(changed);
+        store.deleteAll(removed);
+        removedTokens.removeAll(removed);
+    }
+
+    // Current session of the desktop UI
+    public void setCurrentSession(Session session) {
+        this.currentSession = session;
+        try {
+            if (session != null) {
+                Files.write(CURRENT_TOKEN_FILE, session.getToken().getBytes(StandardCharsets.US_ASCII));
+            } else {
+                Files.deleteIfExists(CURRENT_TOKEN_FILE);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
     
+    // Resume the desktop UI's session from before a restart, if it is still valid
+    public Session restoreCurrentSession() {
+        if (!Files.isRegularFile(CURRENT_TOKEN_FILE)) {
+            return null;
+        }
+        try {
+            String token = new String(Files.readAllBytes(CURRENT_TOKEN_FILE), StandardCharsets.US_ASCII).trim();
+            Session session = getSession(token);
+            setCurrentSession(session);
+            return session;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    public Session getCurrentSession() {
+        Session session = currentSession;
+        return session != null ? getSession(session.getToken()) : null;
+    }
+
     public User getCurrentUser() {
-        return currentUser;
+        Session session = getCurrentSession();
+        return session != null ? session.getUser() : null;
     }
-    
+
     public boolean isUserLoggedIn() {
-        return currentUser != null;
+        return getCurrentUser() != null;
     }
-    
+
     public void logout() {
-        currentUser = null;
-        activeBookings.clear();
+        Session session = currentSession;
+        if (session != null) {
+            invalidate(session.getToken());
+        }
+        setCurrentSession(null);
     }
-    
-    // Booking Status Management
+
+    // Booking Status Management (current session)
     public void addActiveBooking(int movieId, String status) {
-        activeBookings.put(movieId, status);
+        Session session = getCurrentSession();
+        if (session != null) {
+            session.addActiveBooking(movieId, status);
+        }
     }
-    
+
     public String getBookingStatus(int movieId) {
-        return activeBookings.getOrDefault(movieId, "Not Started");
+        Session session = getCurrentSession();
+        return session != null ? session.getBookingStatus(movieId) : "Not Started";
     }
-    
+
     public void removeActiveBooking(int movieId) {
-        activeBookings.remove(movieId);
+        Session session = getCurrentSession();
+        if (session != null) {
+            session.removeActiveBooking(movieId);
+        }
     }
-    
+
     public Map<Integer, String> getAllActiveBookings() {
-        return new HashMap<>(activeBookings);
+        Session session = getCurrentSession();
+        return session != null ? session.getAllActiveBookings() : new HashMap<>();
     }
-    
+
     public void clearAllBookings() {
-        activeBookings.clear();
+        Session session = getCurrentSession();
+        if (session != null) {
+            session.clearAllBookings();
+        }
     }
 }
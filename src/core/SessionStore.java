@@ -0,0 +1,135 @@
+package core;
+
+import database.DatabaseManager;
+import model.User;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Persists sessions in the sessions table so they survive a restart.
+ * Sessions are written in batches by {@link SessionManager} and read back one
+ * at a time, when their token is first used after the restart.
+ */
+public class SessionStore {
+
+    // Insert or update all given sessions in one transaction
+    public void saveAll(Collection<Session> sessions) {
+        if (sessions.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT OR REPLACE INTO sessions (token, user_id, created_at, last_access, active_bookings) " +
+                     "VALUES (?, ?, ?, ?, ?)";
+        try {
+            DatabaseManager.getInstance().inTransaction(connection -> {
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    for (Session session : sessions) {
+                        pstmt.setString(1, session.getToken());
+                        pstmt.setInt(2, session.getUser().getId());
+                        pstmt.setLong(3, session.getCreatedAt());
+                        pstmt.setLong(4, session.getLastAccess());
+                        pstmt.setString(5, encodeBookings(session.getAllActiveBookings()));
+                        pstmt.addBatch();
+                    }
+                    return pstmt.executeBatch().length;
+                }
+            });
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public void deleteAll(Collection<String> tokens) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        String sql = "DELETE FROM sessions WHERE token = ?";
+        try {
+            DatabaseManager.getInstance().inTransaction(connection -> {
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    for (String token : tokens) {
+                        pstmt.setString(1, token);
+                        pstmt.addBatch();
+                    }
+                    return pstmt.executeBatch().length;
+                }
+            });
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Sessions that were never used again after a restart
+    public int deleteIdle(long lastAccessBefore) {
+        String sql = "DELETE FROM sessions WHERE last_access < ?";
+        try (PreparedStatement pstmt = DatabaseManager.getInstance().getConnection().prepareStatement(sql)) {
+            pstmt.setLong(1, lastAccessBefore);
+            return pstmt.executeUpdate();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return 0;
+    }
+
+    // Rebuild one session, or null if the token or its user is unknown
+    public Session load(String token) {
+        String sql = "SELECT user_id, created_at, last_access, active_bookings FROM sessions WHERE token = ?";
+        try (PreparedStatement pstmt = DatabaseManager.getInstance().getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, token);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                User user = User.findById(rs.getInt("user_id"));
+                if (user == null) {
+                    return null;
+                }
+                Session session = new Session(token, user, rs.getLong("created_at"), rs.getLong("last_access"));
+                decodeBookings(rs.getString("active_bookings"), session);
+                session.markClean();
+                return session;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    // "movieId=status;movieId=status" with URL-encoded statuses
+    private static String encodeBookings(Map<Integer, String> bookings) {
+        StringBuilder encoded = new StringBuilder();
+        try {
+            for (Map.Entry<Integer, String> entry : bookings.entrySet()) {
+                if (encoded.length() > 0) {
+                    encoded.append(';');
+                }
+                encoded.append(entry.getKey()).append('=').append(URLEncoder.encode(entry.getValue(), "UTF-8"));
+            }
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+        return encoded.toString();
+    }
+
+    private static void decodeBookings(String encoded, Session session) {
+        if (encoded == null || encoded.isEmpty()) {
+            return;
+        }
+        try {
+            for (String pair : encoded.split(";")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) {
+                    session.addActiveBooking(Integer.parseInt(pair.substring(0, eq)),
+                                             URLDecoder.decode(pair.substring(eq + 1), "UTF-8"));
+                }
+            }
+        } catch (UnsupportedEncodingException | NumberFormatException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package core;
+
+import model.User;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Singleton Pattern: UserCache
+ * Size-bounded, time-limited cache of users by email and by username.
+ * Least recently used entries are evicted once {@code user.cache.size} (default 1000)
+ * is reached and entries expire after {@code user.cache.ttlSeconds} (default 300).
+ * Concurrent misses for the same key share one database query.
+ * Only existing users are cached, so a newly registered email is never reported missing.
+ */
+public class UserCache {
+    private static UserCache instance;
+
+    private static class Entry {
+        final User user;
+        final long expiresAt;
+
+        Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entry> entries;
+    private final Map<String, CompletableFuture<User>> loading;
+    private long generation;  // bumped on invalidation so in-flight loads do not store stale users
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long coalesced;
+
+    private UserCache(int maxSize, long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > UserCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.loading = new ConcurrentHashMap<>();
+    }
+
+    public static synchronized UserCache getInstance() {
+        if (instance == null) {
+            instance = new UserCache(Integer.getInteger("user.cache.size", 1000),
+                                     Long.getLong("user.cache.ttlSeconds", 300));
+        }
+        return instance;
+    }
+
+    public User getByEmail(String email) {
+        return get("email:" + email, () -> User.findByEmail(email));
+    }
+
+    public User getByUsername(String username) {
+        return get("username:" + username, () -> User.findByUsername(username));
+    }
+
+    // Call after a user's profile or password changed
+    public synchronized void invalidate(User user) {
+        generation++;
+        entries.remove("email:" + user.getEmail());
+        entries.remove("username:" + user.getUsername());
+        // The user may be cached under an old email or username
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().user.getId() == user.getId()) {
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    private User get(String key, Supplier<User> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (System.nanoTime() - entry.expiresAt < 0) {
+                    hits++;
+                    return entry.user;
+                }
+                entries.remove(key);
+                evictions++;
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        CompletableFuture<User> mine = new CompletableFuture<>();
+        CompletableFuture<User> inFlight = loading.putIfAbsent(key, mine);
+        if (inFlight != null) {
+            synchronized (this) {
+                coalesced++;
+            }
+            return inFlight.join();
+        }
+
+        try {
+            User user = loader.get();
+            if (user != null) {
+                synchronized (this) {
+                    if (generation == loadGeneration) {
+                        entries.put(key, new Entry(user, System.nanoTime() + ttlNanos));
+                    }
+                }
+            }
+            mine.complete(user);
+            return user;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+
+    public synchronized long getHitCount() { return hits; }
+    public synchronized long getMissCount() { return misses; }
+    public synchronized long getEvictionCount() { return evictions; }
+    public synchronized long getCoalescedCount() { return coalesced; }
+    public synchronized int size() { return entries.size(); }
+
+    @Override
+    public synchronized String toString() {
+        long lookups = hits + misses;
+        return String.format("UserCache[size=%d/%d, hits=%d, misses=%d (%.1f%% hit rate), coalesced=%d, evictions=%d]",
+            entries.size(), maxSize, hits, misses, lookups == 0 ? 0.0 : hits * 100.0 / lookups,
+            coalesced, evictions);
+    }
+}
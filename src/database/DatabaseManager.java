@@ -1,22 +1,29 @@
 package database;
 
 import java.sql.*;
+import model.Certification;
+import model.Movie;
 
 /**
  * Singleton Pattern: DatabaseManager
- * Manages database connection and ensures only one connection exists
- * Thread-safe implementation for database operations
+ * Manages the database connections and ensures only one manager exists
+ * Thread-safe implementation for database operations: single statements share
+ * one autocommit connection, transactions take turns on a second one
  */
 public class DatabaseManager {
     private static final String DB_URL = "jdbc:sqlite:moviebooking.db";
     private static DatabaseManager instance;
     private Connection connection;
+    // Never used outside inTransaction, so the shared connection stays in autocommit
+    // mode and a statement from another thread cannot end up in someone's transaction
+    private Connection transactionConnection;
     
     private DatabaseManager() {
         try {
             // Load SQLite JDBC driver
             Class.forName("org.sqlite.JDBC");
-            connection = DriverManager.getConnection(DB_URL);
+            connection = openConnection();
+            transactionConnection = openConnection();
             createTables();
             System.out.println("DatabaseManager initialized successfully (Singleton Pattern)");
         } catch (ClassNotFoundException | SQLException e) {
@@ -35,6 +42,49 @@ public class DatabaseManager {
         return connection;
     }
     
+    /**
+     * A separate connection for a background writer, so its transactions never
+     * take in statements run on the shared connection. SQLite serializes writers;
+     * the busy timeout makes each side wait for the other instead of failing.
+     */
+    public static Connection openConnection() throws SQLException {
+        Connection conn = DriverManager.getConnection(DB_URL);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + Integer.getInteger("db.busyTimeoutMs", 5_000));
+        }
+        return conn;
+    }
+    
+    // Unit of work run inside a transaction
+    public interface TransactionWork<T> {
+        T execute(Connection connection) throws SQLException;
+    }
+    
+    /**
+     * Run work as one transaction on the transaction connection, not the shared one.
+     * Other transactions wait until it commits or rolls back; statements on the shared
+     * connection wait on SQLite's write lock (busy timeout) instead of joining it.
+     */
+    public synchronized <T> T inTransaction(TransactionWork<T> work) throws SQLException {
+        return inTransaction(transactionConnection, work);
+    }
+    
+    // Run work as one transaction on a connection owned by the caller
+    public static <T> T inTransaction(Connection connection, TransactionWork<T> work) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            T result = work.execute(connection);
+            connection.commit();
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+    
     private void createTables() {
         try {
             Statement stmt = connection.createStatement();
@@ -70,6 +120,10 @@ public class DatabaseManager {
                     "movie_id INTEGER NOT NULL," +
                     "seats TEXT NOT NULL," +
                     "total_price REAL NOT NULL," +
+                    "total_price_cents INTEGER," +
+                    "theater_type TEXT," +
+                    "add_on_mask INTEGER DEFAULT 0," +
+                    "confirmation_code TEXT," +
                     "booking_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
                     "FOREIGN KEY (user_id) REFERENCES users(id)," +
                     "FOREIGN KEY (movie_id) REFERENCES movies(id)" +
@@ -89,13 +143,148 @@ public class DatabaseManager {
                     ")";
             stmt.execute(createSeatsTable);
             
+            // Poster files already ingested by the folder watcher
+            String createPosterCheckpointTable = "CREATE TABLE IF NOT EXISTS poster_checkpoint (" +
+                    "path TEXT PRIMARY KEY," +
+                    "size INTEGER NOT NULL," +
+                    "modified INTEGER NOT NULL" +
+                    ")";
+            stmt.execute(createPosterCheckpointTable);
+            
+            // Logged-in sessions, persisted so they survive a restart
+            String createSessionsTable = "CREATE TABLE IF NOT EXISTS sessions (" +
+                    "token TEXT PRIMARY KEY," +
+                    "user_id INTEGER NOT NULL," +
+                    "created_at INTEGER NOT NULL," +
+                    "last_access INTEGER NOT NULL," +
+                    "active_bookings TEXT," +
+                    "FOREIGN KEY (user_id) REFERENCES users(id)" +
+                    ")";
+            stmt.execute(createSessionsTable);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_sessions_last_access ON sessions(last_access)");
+            
+            // Checkouts driven by the checkout saga, keyed by their idempotency key
+            String createCheckoutsTable = "CREATE TABLE IF NOT EXISTS checkouts (" +
+                    "idempotency_key TEXT PRIMARY KEY," +
+                    "user_id INTEGER NOT NULL," +
+                    "movie_id INTEGER NOT NULL," +
+                    "seats TEXT NOT NULL," +
+                    "confirmation_code TEXT," +
+                    "amount_cents INTEGER NOT NULL," +
+                    "theater_type TEXT," +
+                    "add_on_mask INTEGER DEFAULT 0," +
+                    "payment_method TEXT NOT NULL," +
+                    "customer_info TEXT," +
+                    "state TEXT NOT NULL," +
+                    "transaction_id TEXT," +
+                    "booking_id INTEGER," +
+                    "reason TEXT," +
+                    "created_at INTEGER NOT NULL," +
+                    "updated_at INTEGER NOT NULL," +
+                    "FOREIGN KEY (user_id) REFERENCES users(id)," +
+                    "FOREIGN KEY (booking_id) REFERENCES bookings(id)" +
+                    ")";
+            stmt.execute(createCheckoutsTable);
+            
+            // Next step of each unfinished checkout, written with the checkout's state
+            String createOutboxTable = "CREATE TABLE IF NOT EXISTS outbox (" +
+                    "id INTEGER PRIMARY KEY," +
+                    "checkout_key TEXT NOT NULL," +
+                    "event TEXT NOT NULL," +
+                    "attempts INTEGER DEFAULT 0," +
+                    "next_attempt_at INTEGER NOT NULL," +
+                    "FOREIGN KEY (checkout_key) REFERENCES checkouts(idempotency_key)" +
+                    ")";
+            stmt.execute(createOutboxTable);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_outbox_due ON outbox(next_attempt_at)");
+            
             stmt.close();
+            migrateTables();
             System.out.println("Database tables created successfully!");
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
     
+    // Bring databases created by older versions up to the current schema
+    private void migrateTables() throws SQLException {
+        // Content hash of the poster file, used by the importer to skip duplicates
+        addColumnIfMissing("movies", "poster_hash", "TEXT");
+        
+        // Typed forms of duration and rating for sorting and range queries
+        addColumnIfMissing("movies", "runtime_minutes", "INTEGER");
+        addColumnIfMissing("movies", "score_tenths", "INTEGER");
+        addColumnIfMissing("movies", "certification", "INTEGER");
+        backfillTypedMovieColumns();
+        
+        // Exact booking totals in cents, and what is needed to re-price a booking
+        addColumnIfMissing("bookings", "total_price_cents", "INTEGER");
+        addColumnIfMissing("bookings", "theater_type", "TEXT");
+        addColumnIfMissing("bookings", "add_on_mask", "INTEGER DEFAULT 0");
+        
+        // Collision-free codes customers quote, from IdGenerator
+        addColumnIfMissing("bookings", "confirmation_code", "TEXT");
+        addColumnIfMissing("checkouts", "confirmation_code", "TEXT");
+        try (Statement stmt = connection.createStatement()) {
+            int rows = stmt.executeUpdate("UPDATE bookings SET total_price_cents = CAST(ROUND(total_price * 100) AS INTEGER) " +
+                                          "WHERE total_price_cents IS NULL");
+            if (rows > 0) {
+                System.out.println("Backfilled total_price_cents for " + rows + " booking(s)");
+            }
+        }
+        
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_movies_poster_hash ON movies(poster_hash)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_movies_runtime ON movies(runtime_minutes)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_movies_score ON movies(score_tenths)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_movies_certification ON movies(certification)");
+            stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_bookings_confirmation ON bookings(confirmation_code)");
+        }
+    }
+    
+    // Parse the text columns once for rows written before the typed columns existed
+    private void backfillTypedMovieColumns() throws SQLException {
+        String selectSql = "SELECT id, duration, rating FROM movies WHERE certification IS NULL";
+        String updateSql = "UPDATE movies SET runtime_minutes = ?, score_tenths = ?, certification = ? WHERE id = ?";
+        
+        inTransaction(conn -> {
+            try (Statement select = conn.createStatement();
+                 ResultSet rs = select.executeQuery(selectSql);
+                 PreparedStatement update = conn.prepareStatement(updateSql)) {
+                int rows = 0;
+                while (rs.next()) {
+                    String rating = rs.getString("rating");
+                    Movie.bindTyped(update, 1,
+                                    Movie.parseRuntimeMinutes(rs.getString("duration")),
+                                    Movie.parseScoreTenths(rating),
+                                    Certification.parse(rating));
+                    update.setInt(4, rs.getInt("id"));
+                    update.addBatch();
+                    rows++;
+                }
+                if (rows > 0) {
+                    update.executeBatch();
+                    System.out.println("Backfilled typed columns for " + rows + " movie(s)");
+                }
+                return rows;
+            }
+        });
+    }
+    
+    private void addColumnIfMissing(String table, String column, String definition) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return;
+                }
+            }
+        }
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        }
+    }
+    
     public void closeConnection() {
         try {
             if (connection != null && !connection.isClosed()) {
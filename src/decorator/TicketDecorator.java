@@ -1,27 +1,32 @@
 package decorator;
 
+import pricing.AddOn;
+import pricing.PricingEngine;
+
 /**
  * Decorator Pattern: TicketDecorator
  * Allows adding additional features and services to tickets dynamically
  * Each decorator adds extra functionality without modifying the base ticket
+ * Add-on prices come from the compiled price table in {@link PricingEngine}
+ * Costs are in cents
  */
 
 // Component interface
 interface Ticket {
     String getDescription();
-    double getCost();
+    long getCost();
 }
 
 // Concrete Component - Base Ticket
 class BaseTicket implements Ticket {
     private String movieTitle;
     private String seatNumber;
-    private double basePrice;
+    private long basePriceCents;
     
-    public BaseTicket(String movieTitle, String seatNumber, double basePrice) {
+    public BaseTicket(String movieTitle, String seatNumber, long basePriceCents) {
         this.movieTitle = movieTitle;
         this.seatNumber = seatNumber;
-        this.basePrice = basePrice;
+        this.basePriceCents = basePriceCents;
     }
     
     @Override
@@ -30,8 +35,8 @@ class BaseTicket implements Ticket {
     }
     
     @Override
-    public double getCost() {
-        return basePrice;
+    public long getCost() {
+        return basePriceCents;
     }
 }
 
@@ -49,18 +54,25 @@ abstract class TicketDecorator implements Ticket {
     }
     
     @Override
-    public double getCost() {
+    public long getCost() {
         return ticket.getCost();
     }
+    
+    // Current price of an add-on
+    protected static long priceOf(AddOn addOn) {
+        return PricingEngine.getInstance().getTable().priceOf(addOn);
+    }
 }
 
 // Concrete Decorator 1: Popcorn and Drink Combo
 class PopcornDrinkDecorator extends TicketDecorator {
     private String comboSize;
+    private AddOn combo;
     
     public PopcornDrinkDecorator(Ticket ticket, String comboSize) {
         super(ticket);
         this.comboSize = comboSize;
+        this.combo = AddOn.popcornCombo(comboSize);
     }
     
     @Override
@@ -69,22 +81,8 @@ class PopcornDrinkDecorator extends TicketDecorator {
     }
     
     @Override
-    public double getCost() {
-        double comboCost = 0;
-        switch (comboSize.toLowerCase()) {
-            case "small":
-                comboCost = 5.99;
-                break;
-            case "medium":
-                comboCost = 7.99;
-                break;
-            case "large":
-                comboCost = 9.99;
-                break;
-            default:
-                comboCost = 7.99;
-        }
-        return ticket.getCost() + comboCost;
+    public long getCost() {
+        return ticket.getCost() + priceOf(combo);
     }
 }
 
@@ -101,8 +99,8 @@ class ThreeDGlassesDecorator extends TicketDecorator {
     }
     
     @Override
-    public double getCost() {
-        return ticket.getCost() + 3.50;
+    public long getCost() {
+        return ticket.getCost() + priceOf(AddOn.THREE_D_GLASSES);
     }
 }
 
@@ -119,8 +117,8 @@ class PremiumSeatDecorator extends TicketDecorator {
     }
     
     @Override
-    public double getCost() {
-        return ticket.getCost() + 5.00;
+    public long getCost() {
+        return ticket.getCost() + priceOf(AddOn.PREMIUM_SEAT);
     }
 }
 
@@ -137,8 +135,8 @@ class VIPLoungeDecorator extends TicketDecorator {
     }
     
     @Override
-    public double getCost() {
-        return ticket.getCost() + 15.00;
+    public long getCost() {
+        return ticket.getCost() + priceOf(AddOn.VIP_LOUNGE);
     }
 }
 
@@ -155,18 +153,20 @@ class ReservedParkingDecorator extends TicketDecorator {
     }
     
     @Override
-    public double getCost() {
-        return ticket.getCost() + 5.00;
+    public long getCost() {
+        return ticket.getCost() + priceOf(AddOn.RESERVED_PARKING);
     }
 }
 
 // Concrete Decorator 6: Meal Voucher
 class MealVoucherDecorator extends TicketDecorator {
     private String mealType;
+    private AddOn meal;
     
     public MealVoucherDecorator(Ticket ticket, String mealType) {
         super(ticket);
         this.mealType = mealType;
+        this.meal = AddOn.mealVoucher(mealType);
     }
     
     @Override
@@ -175,22 +175,8 @@ class MealVoucherDecorator extends TicketDecorator {
     }
     
     @Override
-    public double getCost() {
-        double mealCost = 0;
-        switch (mealType.toLowerCase()) {
-            case "snack":
-                mealCost = 8.99;
-                break;
-            case "dinner":
-                mealCost = 15.99;
-                break;
-            case "deluxe":
-                mealCost = 22.99;
-                break;
-            default:
-                mealCost = 8.99;
-        }
-        return ticket.getCost() + mealCost;
+    public long getCost() {
+        return ticket.getCost() + priceOf(meal);
     }
 }
 
@@ -207,34 +193,34 @@ class TicketInsuranceDecorator extends TicketDecorator {
     }
     
     @Override
-    public double getCost() {
-        return ticket.getCost() + 2.50;
+    public long getCost() {
+        return ticket.getCost() + priceOf(AddOn.INSURANCE);
     }
 }
 
 // Helper class to build tickets with decorators
 class TicketBuilder {
     
-    public static Ticket createBasicTicket(String movieTitle, String seatNumber, double basePrice) {
-        return new BaseTicket(movieTitle, seatNumber, basePrice);
+    public static Ticket createBasicTicket(String movieTitle, String seatNumber, long basePriceCents) {
+        return new BaseTicket(movieTitle, seatNumber, basePriceCents);
     }
     
-    public static Ticket createStandardPackage(String movieTitle, String seatNumber, double basePrice) {
-        Ticket ticket = new BaseTicket(movieTitle, seatNumber, basePrice);
+    public static Ticket createStandardPackage(String movieTitle, String seatNumber, long basePriceCents) {
+        Ticket ticket = new BaseTicket(movieTitle, seatNumber, basePriceCents);
         ticket = new PopcornDrinkDecorator(ticket, "Medium");
         return ticket;
     }
     
-    public static Ticket createPremiumPackage(String movieTitle, String seatNumber, double basePrice) {
-        Ticket ticket = new BaseTicket(movieTitle, seatNumber, basePrice);
+    public static Ticket createPremiumPackage(String movieTitle, String seatNumber, long basePriceCents) {
+        Ticket ticket = new BaseTicket(movieTitle, seatNumber, basePriceCents);
         ticket = new PremiumSeatDecorator(ticket);
         ticket = new PopcornDrinkDecorator(ticket, "Large");
         ticket = new ReservedParkingDecorator(ticket);
         return ticket;
     }
     
-    public static Ticket createVIPPackage(String movieTitle, String seatNumber, double basePrice) {
-        Ticket ticket = new BaseTicket(movieTitle, seatNumber, basePrice);
+    public static Ticket createVIPPackage(String movieTitle, String seatNumber, long basePriceCents) {
+        Ticket ticket = new BaseTicket(movieTitle, seatNumber, basePriceCents);
         ticket = new PremiumSeatDecorator(ticket);
         ticket = new VIPLoungeDecorator(ticket);
         ticket = new MealVoucherDecorator(ticket, "Deluxe");
@@ -243,8 +229,8 @@ class TicketBuilder {
         return ticket;
     }
     
-    public static Ticket create3DPackage(String movieTitle, String seatNumber, double basePrice) {
-        Ticket ticket = new BaseTicket(movieTitle, seatNumber, basePrice);
+    public static Ticket create3DPackage(String movieTitle, String seatNumber, long basePriceCents) {
+        Ticket ticket = new BaseTicket(movieTitle, seatNumber, basePriceCents);
         ticket = new ThreeDGlassesDecorator(ticket);
         ticket = new PopcornDrinkDecorator(ticket, "Medium");
         return ticket;
@@ -1,54 +1,45 @@
 package decorator;
 
+import pricing.AddOn;
+import pricing.PricingEngine;
+
 /**
- * Public helper class to calculate ticket prices using Decorator Pattern
- * This class provides a public interface to use the decorator pattern
- * for calculating ticket prices with various extras
+ * Public helper class to calculate ticket prices
+ * Facade over the compiled price table in {@link PricingEngine}: a quote is
+ * computed from an add-on mask without building a decorator chain
  */
 public class TicketPriceCalculator {
     
     /**
-     * Calculate total price using Decorator Pattern
+     * Calculate total price for a cart
      * @param movieTitle Movie title
-     * @param basePricePerSeat Base price per seat
+     * @param basePricePerSeatCents Base price per seat in cents
+     * @param theaterMultiplier Theater price multiplier
      * @param numberOfSeats Number of seats selected
      * @param hasPopcorn Whether popcorn combo is selected
      * @param has3DGlasses Whether 3D glasses are selected
      * @param hasPremiumSeat Whether premium seat upgrade is selected
-     * @return Total price with decorators applied
+     * @return Total price in cents
      */
-    public static double calculateTotalPrice(String movieTitle, double basePricePerSeat, 
-                                            int numberOfSeats, boolean hasPopcorn, 
-                                            boolean has3DGlasses, boolean hasPremiumSeat) {
-        if (numberOfSeats == 0) {
-            return 0.0;
-        }
-        
-        // Create base ticket (Decorator Pattern)
-        String representativeSeat = "A1"; // Representative seat
-        Ticket ticket = new BaseTicket(movieTitle, representativeSeat, basePricePerSeat);
-        
-        // Apply decorators dynamically (Decorator Pattern)
+    public static long calculateTotalPrice(String movieTitle, long basePricePerSeatCents, 
+                                          double theaterMultiplier, int numberOfSeats, boolean hasPopcorn, 
+                                          boolean has3DGlasses, boolean hasPremiumSeat) {
+        int addOns = addOnMask(hasPopcorn, has3DGlasses, hasPremiumSeat);
+        return PricingEngine.getInstance().quote(basePricePerSeatCents, theaterMultiplier, addOns, numberOfSeats);
+    }
+    
+    // Popcorn is the medium combo, charged once per booking
+    public static int addOnMask(boolean hasPopcorn, boolean has3DGlasses, boolean hasPremiumSeat) {
+        int mask = 0;
         if (hasPopcorn) {
-            ticket = new PopcornDrinkDecorator(ticket, "Medium");
+            mask |= AddOn.POPCORN_MEDIUM.mask();
         }
         if (has3DGlasses) {
-            ticket = new ThreeDGlassesDecorator(ticket);
+            mask |= AddOn.THREE_D_GLASSES.mask();
         }
         if (hasPremiumSeat) {
-            ticket = new PremiumSeatDecorator(ticket);
-        }
-        
-        // Calculate total: decorator-enhanced price per seat * number of seats
-        double enhancedPricePerSeat = ticket.getCost();
-        double total = enhancedPricePerSeat * numberOfSeats;
-        
-        // Adjust for items that are per-booking (popcorn is typically one per booking)
-        if (hasPopcorn) {
-            double popcornCost = 7.99; // Medium size
-            total = total - (popcornCost * (numberOfSeats - 1));
+            mask |= AddOn.PREMIUM_SEAT.mask();
         }
-        
-        return total;
+        return mask;
     }
 }
@@ -0,0 +1,136 @@
+package factory;
+
+import pricing.DemandPricing.SeatZone;
+
+/**
+ * Immutable seat geometry of a theater, kept in compact arrays: a bit per
+ * column for aisles, one zone byte per row and a bit set over seat indexes
+ * (row * cols + col) for wheelchair-accessible places.
+ * Seat labels are a row letter and a 1-based seat number, e.g. "C7".
+ */
+public final class SeatLayout {
+    private static final SeatZone[] ZONES = SeatZone.values();
+
+    private final int rows;
+    private final int cols;
+    private final long aisleMask;       // bit c: aisle after column c (0-based)
+    private final byte[] rowZones;      // SeatZone ordinal per row
+    private final long[] accessible;    // bit per seat index
+
+    private SeatLayout(int rows, int cols, long aisleMask, byte[] rowZones, long[] accessible) {
+        this.rows = rows;
+        this.cols = cols;
+        this.aisleMask = aisleMask;
+        this.rowZones = rowZones;
+        this.accessible = accessible;
+    }
+
+    /**
+     * @param aisles seat numbers an aisle follows, e.g. "3,9"; may be empty
+     * @param zones one letter per row (F front, M middle, B back); empty uses
+     *              the first and last quarter of the rows as front and back
+     * @param accessibleSeats seat labels, e.g. "H1,H12"; may be empty
+     */
+    public static SeatLayout parse(int rows, int cols, String aisles, String zones, String accessibleSeats) {
+        if (rows <= 0 || rows > 26 || cols <= 0 || cols > 63) {
+            throw new IllegalArgumentException("Layout must be 1-26 rows by 1-63 seats: " + rows + "x" + cols);
+        }
+        long aisleMask = 0;
+        for (String seat : split(aisles)) {
+            int number = Integer.parseInt(seat);
+            if (number < 1 || number >= cols) {
+                throw new IllegalArgumentException("Aisle after seat " + number + " is outside 1-" + (cols - 1));
+            }
+            aisleMask |= 1L << (number - 1);
+        }
+
+        byte[] rowZones = new byte[rows];
+        String zoneLetters = zones == null ? "" : zones.trim();
+        if (!zoneLetters.isEmpty() && zoneLetters.length() != rows) {
+            throw new IllegalArgumentException("Expected " + rows + " zone letters but got '" + zoneLetters + "'");
+        }
+        for (int row = 0; row < rows; row++) {
+            SeatZone zone = zoneLetters.isEmpty() ? SeatZone.forRow(row, rows) : zoneForLetter(zoneLetters.charAt(row));
+            rowZones[row] = (byte) zone.ordinal();
+        }
+
+        SeatLayout layout = new SeatLayout(rows, cols, aisleMask, rowZones, new long[(rows * cols + 63) / 64]);
+        for (String label : split(accessibleSeats)) {
+            int index = layout.indexOf(label);
+            if (index < 0) {
+                throw new IllegalArgumentException("Accessible seat " + label + " is not in the layout");
+            }
+            layout.accessible[index >>> 6] |= 1L << index;
+        }
+        return layout;
+    }
+
+    private static SeatZone zoneForLetter(char letter) {
+        switch (Character.toUpperCase(letter)) {
+            case 'F': return SeatZone.FRONT;
+            case 'M': return SeatZone.MIDDLE;
+            case 'B': return SeatZone.BACK;
+            default:
+                throw new IllegalArgumentException("Unknown zone letter: " + letter);
+        }
+    }
+
+    private static String[] split(String list) {
+        return list == null || list.trim().isEmpty() ? new String[0] : list.trim().split("\\s*,\\s*");
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public int getCapacity() { return rows * cols; }
+
+    public int getAisleCount() {
+        return Long.bitCount(aisleMask);
+    }
+
+    // Whether an aisle follows the seat in this column (0-based)
+    public boolean isAisleAfter(int col) {
+        return (aisleMask & (1L << col)) != 0;
+    }
+
+    public SeatZone getZone(int row) {
+        return ZONES[rowZones[row]];
+    }
+
+    public boolean isAccessible(int row, int col) {
+        int index = row * cols + col;
+        return (accessible[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public int getAccessibleCount() {
+        int count = 0;
+        for (long word : accessible) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public String label(int row, int col) {
+        return (char) ('A' + row) + String.valueOf(col + 1);
+    }
+
+    // Seat index of a label, or -1 if it is not a seat of this layout
+    public int indexOf(String label) {
+        if (label == null || label.length() < 2) {
+            return -1;
+        }
+        int row = Character.toUpperCase(label.charAt(0)) - 'A';
+        int col;
+        try {
+            col = Integer.parseInt(label.substring(1)) - 1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        return row < 0 || row >= rows || col < 0 || col >= cols ? -1 : row * cols + col;
+    }
+
+    // Zone of a seat by label; seats outside the layout count as middle
+    public SeatZone zoneOf(String label) {
+        int index = indexOf(label);
+        return index < 0 ? SeatZone.MIDDLE : getZone(index / cols);
+    }
+}
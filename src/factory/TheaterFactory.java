@@ -1,8 +1,24 @@
 package factory;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
 /**
  * Factory Pattern: TheaterFactory
  * Creates different types of theater locations and configurations
+ * Theaters are immutable flyweights, one per type, built once from
+ * {@code theaters.config} (default assets/theaters.properties) with the
+ * built-in definitions below filling any missing keys.
  */
 public class TheaterFactory {
     
@@ -10,199 +26,135 @@ public class TheaterFactory {
         STANDARD, IMAX, VIP, DOLBY_ATMOS, FOUR_DX
     }
     
-    public static Theater createTheater(TheaterType type, int capacity) {
-        switch (type) {
-            case STANDARD:
-                return new StandardTheater(capacity);
-            case IMAX:
-                return new IMAXTheater(capacity);
-            case VIP:
-                return new VIPTheater(capacity);
-            case DOLBY_ATMOS:
-                return new DolbyAtmosTheater(capacity);
-            case FOUR_DX:
-                return new FourDXTheater(capacity);
-            default:
-                return new StandardTheater(capacity);
-        }
+    // Built-in definitions: name, description, multiplier, features, aisles, zones, accessible seats
+    private static final String[][] DEFAULTS = {
+        { "Standard Cinema Hall", "Regular cinema hall with comfortable seating", "1.0",
+          "Comfortable Seating, Digital Sound, HD Screen", "3,9", "FFMMMMBB", "H1,H2,H11,H12" },
+        { "IMAX Theater", "Premium IMAX experience with massive screen and immersive sound", "1.8",
+          "Giant IMAX Screen, 12-Channel Sound, Laser Projection, Premium Seating", "2,10", "FFFMMMMB", "H1,H12" },
+        { "VIP Luxury Theater", "Luxury VIP experience with reclining seats and waiter service", "2.5",
+          "Reclining Leather Seats, Waiter Service, Premium Sound, Extra Legroom", "4,8", "FMMMMMBB", "A1,A12,H1,H12" },
+        { "Dolby Atmos Theater", "Immersive audio experience with Dolby Atmos technology", "1.5",
+          "Dolby Atmos Sound, Enhanced Visuals, Comfortable Seating, Object-Based Audio", "3,9", "FFMMMMBB", "H1,H2,H11,H12" },
+        { "4DX Theater", "4D experience with motion seats, wind, and environmental effects", "2.0",
+          "Motion Seats, Wind Effects, Water Spray, Scent Effects, Lighting Effects", "6", "FFMMMMBB", "H1,H12" },
+    };
+    private static final int DEFAULT_ROWS = 8;
+    private static final int DEFAULT_COLS = 12;
+    
+    private static Map<TheaterType, Theater> theaters;
+    
+    // Shared instance for the type; nothing is allocated per call
+    public static Theater getTheater(TheaterType type) {
+        return theaters().get(type);
+    }
+    
+    private static synchronized Map<TheaterType, Theater> theaters() {
+        if (theaters == null) {
+            Properties config = new Properties();
+            Path file = Paths.get(System.getProperty("theaters.config", "assets/theaters.properties"));
+            if (Files.isRegularFile(file)) {
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    config.load(reader);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+            Map<TheaterType, Theater> loaded = new EnumMap<>(TheaterType.class);
+            for (TheaterType type : TheaterType.values()) {
+                try {
+                    loaded.put(type, define(type, config));
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Invalid configuration for theater " + type + ", using built-in definition");
+                    e.printStackTrace();
+                    loaded.put(type, define(type, new Properties()));
+                }
+            }
+            theaters = Collections.unmodifiableMap(loaded);
+        }
+        return theaters;
+    }
+    
+    private static Theater define(TheaterType type, Properties config) {
+        String[] d = DEFAULTS[type.ordinal()];
+        String prefix = type.name() + ".";
+        List<String> features = Arrays.asList(config.getProperty(prefix + "features", d[3]).trim().split("\\s*,\\s*"));
+        SeatLayout layout = SeatLayout.parse(
+            Integer.parseInt(config.getProperty(prefix + "rows", String.valueOf(DEFAULT_ROWS)).trim()),
+            Integer.parseInt(config.getProperty(prefix + "cols", String.valueOf(DEFAULT_COLS)).trim()),
+            config.getProperty(prefix + "aisles", d[4]),
+            config.getProperty(prefix + "zones", d[5]),
+            config.getProperty(prefix + "accessible", d[6]));
+        return new TheaterDefinition(type,
+                                     config.getProperty(prefix + "name", d[0]).trim(),
+                                     config.getProperty(prefix + "description", d[1]).trim(),
+                                     Double.parseDouble(config.getProperty(prefix + "multiplier", d[2]).trim()),
+                                     features, layout);
     }
     
     // Theater Interface
     public interface Theater {
+        TheaterType getType();
         String getName();
         String getDescription();
         double getPriceMultiplier();
         int getCapacity();
-        String[] getFeatures();
-    }
-    
-    // Standard Theater
-    static class StandardTheater implements Theater {
-        private int capacity;
-        
-        public StandardTheater(int capacity) {
-            this.capacity = capacity;
-        }
-        
-        @Override
-        public String getName() {
-            return "Standard Cinema Hall";
-        }
-        
-        @Override
-        public String getDescription() {
-            return "Regular cinema hall with comfortable seating";
-        }
-        
-        @Override
-        public double getPriceMultiplier() {
-            return 1.0;
-        }
-        
-        @Override
-        public int getCapacity() {
-            return capacity;
-        }
-        
-        @Override
-        public String[] getFeatures() {
-            return new String[]{"Comfortable Seating", "Digital Sound", "HD Screen"};
-        }
-    }
-    
-    // IMAX Theater
-    static class IMAXTheater implements Theater {
-        private int capacity;
-        
-        public IMAXTheater(int capacity) {
-            this.capacity = capacity;
-        }
-        
-        @Override
-        public String getName() {
-            return "IMAX Theater";
-        }
-        
-        @Override
-        public String getDescription() {
-            return "Premium IMAX experience with massive screen and immersive sound";
-        }
-        
-        @Override
-        public double getPriceMultiplier() {
-            return 1.8;
-        }
-        
-        @Override
-        public int getCapacity() {
-            return capacity;
-        }
-        
-        @Override
-        public String[] getFeatures() {
-            return new String[]{"Giant IMAX Screen", "12-Channel Sound", "Laser Projection", "Premium Seating"};
-        }
+        List<String> getFeatures();
+        SeatLayout getLayout();
     }
     
-    // VIP Theater
-    static class VIPTheater implements Theater {
-        private int capacity;
-        
-        public VIPTheater(int capacity) {
-            this.capacity = capacity;
-        }
-        
-        @Override
-        public String getName() {
-            return "VIP Luxury Theater";
-        }
-        
-        @Override
-        public String getDescription() {
-            return "Luxury VIP experience with reclining seats and waiter service";
-        }
+    // Immutable theater definition, shared by everyone using the type
+    static final class TheaterDefinition implements Theater {
+        private final TheaterType type;
+        private final String name;
+        private final String description;
+        private final double priceMultiplier;
+        private final List<String> features;
+        private final SeatLayout layout;
         
-        @Override
-        public double getPriceMultiplier() {
-            return 2.5;
+        TheaterDefinition(TheaterType type, String name, String description, double priceMultiplier,
+                          List<String> features, SeatLayout layout) {
+            this.type = type;
+            this.name = name;
+            this.description = description;
+            this.priceMultiplier = priceMultiplier;
+            this.features = Collections.unmodifiableList(features);
+            this.layout = layout;
         }
         
         @Override
-        public int getCapacity() {
-            return capacity;
-        }
-        
-        @Override
-        public String[] getFeatures() {
-            return new String[]{"Reclining Leather Seats", "Waiter Service", "Premium Sound", "Extra Legroom"};
-        }
-    }
-    
-    // Dolby Atmos Theater
-    static class DolbyAtmosTheater implements Theater {
-        private int capacity;
-        
-        public DolbyAtmosTheater(int capacity) {
-            this.capacity = capacity;
+        public TheaterType getType() {
+            return type;
         }
         
         @Override
         public String getName() {
-            return "Dolby Atmos Theater";
+            return name;
         }
         
         @Override
         public String getDescription() {
-            return "Immersive audio experience with Dolby Atmos technology";
+            return description;
         }
         
         @Override
         public double getPriceMultiplier() {
-            return 1.5;
+            return priceMultiplier;
         }
         
         @Override
         public int getCapacity() {
-            return capacity;
-        }
-        
-        @Override
-        public String[] getFeatures() {
-            return new String[]{"Dolby Atmos Sound", "Enhanced Visuals", "Comfortable Seating", "Object-Based Audio"};
-        }
-    }
-    
-    // 4DX Theater
-    static class FourDXTheater implements Theater {
-        private int capacity;
-        
-        public FourDXTheater(int capacity) {
-            this.capacity = capacity;
+            return layout.getCapacity();
         }
         
         @Override
-        public String getName() {
-            return "4DX Theater";
-        }
-        
-        @Override
-        public String getDescription() {
-            return "4D experience with motion seats, wind, and environmental effects";
-        }
-        
-        @Override
-        public double getPriceMultiplier() {
-            return 2.0;
-        }
-        
-        @Override
-        public int getCapacity() {
-            return capacity;
+        public List<String> getFeatures() {
+            return features;
         }
         
         @Override
-        public String[] getFeatures() {
-            return new String[]{"Motion Seats", "Wind Effects", "Water Spray", "Scent Effects", "Lighting Effects"};
+        public SeatLayout getLayout() {
+            return layout;
         }
     }
 }
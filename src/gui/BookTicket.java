@@ -2,18 +2,36 @@ package gui;
 
 import javax.swing.*;
 import java.awt.*;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 import core.BookingSystem;
 import model.Booking;
 import builder.BookingBuilder;
-import adapter.PaymentProcessor;
+import checkout.Checkout;
+import checkout.CheckoutResult;
+import checkout.CheckoutSaga;
 import adapter.PaymentAdapterFactory;
 import adapter.PaymentAdapterFactory.PaymentMethod;
+import factory.SeatLayout;
 import factory.TheaterFactory;
 import factory.TheaterFactory.TheaterType;
 import factory.TheaterFactory.Theater;
 import decorator.TicketPriceCalculator;
+import core.IdGenerator;
+import core.SeatInventory;
+import pricing.AddOn;
+import pricing.DemandPricing;
+import pricing.MembershipTier;
+import pricing.Money;
+import pricing.PriceTable;
+import pricing.PricingEngine;
+import pricing.PromotionContext;
+import pricing.PromotionEngine;
+import pricing.QuoteCache;
 
 public class BookTicket extends JFrame {
     private BookingFrame.Movie movie;
@@ -22,14 +40,17 @@ public class BookTicket extends JFrame {
     private JLabel selectedSeatsLabel;
     private JLabel totalPriceLabel;
     private List<SeatButton> selectedSeats;
-    private static final double SEAT_PRICE = 15.00;
-    private static final int ROWS = 8;
-    private static final int COLS = 12;
+    private final StringBuilder priceText = new StringBuilder(32);  // reused for the total label
+    private static final long SEAT_PRICE_CENTS = PriceTable.DEFAULT_SEAT_CENTS;
     
     // Decorator Pattern - Ticket extras
     private JCheckBox popcornCheckBox;
     private JCheckBox glasses3DCheckBox;
     private JCheckBox premiumSeatCheckBox;
+    private JTextField promoCodeField;
+    private JButton confirmButton;
+    private CompletableFuture<CheckoutResult> pendingCheckout;  // set while a checkout is in flight
+    private String checkoutKey;
     
     // Factory Pattern - Theater selection
     private JComboBox<String> theaterTypeCombo;
@@ -45,6 +66,13 @@ public class BookTicket extends JFrame {
         this.movieId = movieId;
         this.selectedSeats = new ArrayList<>();
         
+        // Initialize default theater; its layout drives the seat map
+        currentTheaterType = TheaterType.STANDARD;
+        selectedTheater = TheaterFactory.getTheater(currentTheaterType);
+        
+        // Other kiosks book the same showing; start from the seats table, not a stale copy
+        SeatInventory.getInstance().invalidate(movieId);
+        
         setTitle("Book Ticket - " + movie.getTitle());
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         setSize(1100, 750);
@@ -168,10 +196,13 @@ public class BookTicket extends JFrame {
         JPanel selectedPanel = createLegendItem("Selected", new Color(19, 91, 236));
         // Occupied
         JPanel occupiedPanel = createLegendItem("Occupied", new Color(220, 53, 69));
+        // Wheelchair accessible
+        JPanel accessiblePanel = createLegendItem("Accessible", SeatButton.ACCESSIBLE_COLOR);
         
         legendPanel.add(availablePanel);
         legendPanel.add(selectedPanel);
         legendPanel.add(occupiedPanel);
+        legendPanel.add(accessiblePanel);
         
         return legendPanel;
     }
@@ -199,29 +230,58 @@ public class BookTicket extends JFrame {
         JPanel container = new JPanel();
         container.setBackground(new Color(16, 22, 34));
         container.setLayout(new BoxLayout(container, BoxLayout.Y_AXIS));
-        
-        // Create seats grid
-        JPanel seatsGrid = new JPanel(new GridLayout(ROWS, COLS, 8, 8));
+        container.add(createSeatsGrid());
+        return container;
+    }
+    
+    // Seat grid from the selected theater's layout, with gaps for aisles
+    private JPanel createSeatsGrid() {
+        SeatLayout layout = selectedTheater.getLayout();
+        JPanel seatsGrid = new JPanel(new GridLayout(layout.getRows(), layout.getCols() + layout.getAisleCount(), 8, 8));
         seatsGrid.setBackground(new Color(16, 22, 34));
-        seatsGrid.setMaximumSize(new Dimension(800, 400));
+        seatsGrid.setMaximumSize(new Dimension(800 + 40 * layout.getAisleCount(), 400));
         
-        // Get occupied seats from database
-        List<String> occupiedSeats = Booking.getOccupiedSeats(movieId);
+        // Occupied seats from the live inventory (read again from the database when the window opens)
+        SeatInventory.Showing showing = SeatInventory.getInstance().getShowing(movieId);
         
-        // Generate seats with real occupied status from database
-        for (int row = 0; row < ROWS; row++) {
-            for (int col = 0; col < COLS; col++) {
-                String seatLabel = (char)('A' + row) + String.valueOf(col + 1);
-                boolean isOccupied = occupiedSeats.contains(seatLabel);
-                SeatButton seatButton = new SeatButton(seatLabel, isOccupied, this);
+        for (int row = 0; row < layout.getRows(); row++) {
+            for (int col = 0; col < layout.getCols(); col++) {
+                String seatLabel = layout.label(row, col);
+                boolean isOccupied = showing.isOccupied(seatLabel);
+                SeatButton seatButton = new SeatButton(seatLabel, isOccupied, layout.isAccessible(row, col), this);
                 seatsGrid.add(seatButton);
+                if (layout.isAisleAfter(col)) {
+                    seatsGrid.add(Box.createGlue());
+                }
             }
         }
         
         seatsGrid.setAlignmentX(Component.CENTER_ALIGNMENT);
-        container.add(seatsGrid);
-        
-        return container;
+        return seatsGrid;
+    }
+    
+    // Another theater has another layout; keep the seats still selected in it
+    private void refreshSeatMap() {
+        List<String> previous = new ArrayList<>();
+        for (SeatButton seat : selectedSeats) {
+            previous.add(seat.getSeatLabel());
+        }
+        seatsPanel.removeAll();
+        JPanel seatsGrid = createSeatsGrid();
+        seatsPanel.add(seatsGrid);
+        
+        selectedSeats.clear();
+        for (Component component : seatsGrid.getComponents()) {
+            if (component instanceof SeatButton) {
+                SeatButton seat = (SeatButton) component;
+                if (previous.contains(seat.getSeatLabel()) && !seat.isOccupied()) {
+                    seat.restoreSelection();
+                    selectedSeats.add(seat);
+                }
+            }
+        }
+        seatsPanel.revalidate();
+        seatsPanel.repaint();
     }
     
     private JPanel createFooterPanel() {
@@ -271,16 +331,13 @@ public class BookTicket extends JFrame {
         theaterTypeCombo.setMaximumSize(new Dimension(300, 35));
         theaterTypeCombo.setAlignmentX(Component.LEFT_ALIGNMENT);
         
-        // Initialize default theater
-        currentTheaterType = TheaterType.STANDARD;
-        selectedTheater = TheaterFactory.createTheater(currentTheaterType, ROWS * COLS);
-        
         theaterTypeCombo.addActionListener(e -> {
             String selected = (String) theaterTypeCombo.getSelectedItem();
             try {
                 currentTheaterType = TheaterType.valueOf(selected);
-                selectedTheater = TheaterFactory.createTheater(currentTheaterType, ROWS * COLS);
-                updateTotalPrice();
+                selectedTheater = TheaterFactory.getTheater(currentTheaterType);
+                refreshSeatMap();
+                updateBookingInfo();
                 
                 // Show theater info
                 JLabel theaterInfoLabel = new JLabel(
@@ -340,19 +397,19 @@ public class BookTicket extends JFrame {
             new Color(150, 155, 170)
         ));
         
-        popcornCheckBox = new JCheckBox("🍿 Popcorn & Drink (+$7.99)");
+        popcornCheckBox = new JCheckBox("🍿 Popcorn & Drink" + extraPrice(AddOn.POPCORN_MEDIUM));
         popcornCheckBox.setFont(new Font("Spline Sans", Font.PLAIN, 14));
         popcornCheckBox.setForeground(Color.WHITE);
         popcornCheckBox.setBackground(new Color(28, 31, 39));
         popcornCheckBox.addActionListener(e -> updateTotalPrice());
         
-        glasses3DCheckBox = new JCheckBox("🕶️ 3D Glasses (+$3.50)");
+        glasses3DCheckBox = new JCheckBox("🕶️ 3D Glasses" + extraPrice(AddOn.THREE_D_GLASSES));
         glasses3DCheckBox.setFont(new Font("Spline Sans", Font.PLAIN, 14));
         glasses3DCheckBox.setForeground(Color.WHITE);
         glasses3DCheckBox.setBackground(new Color(28, 31, 39));
         glasses3DCheckBox.addActionListener(e -> updateTotalPrice());
         
-        premiumSeatCheckBox = new JCheckBox("💺 Premium Seat Upgrade (+$5.00)");
+        premiumSeatCheckBox = new JCheckBox("💺 Premium Seat Upgrade" + extraPrice(AddOn.PREMIUM_SEAT));
         premiumSeatCheckBox.setFont(new Font("Spline Sans", Font.PLAIN, 14));
         premiumSeatCheckBox.setForeground(Color.WHITE);
         premiumSeatCheckBox.setBackground(new Color(28, 31, 39));
@@ -362,11 +419,29 @@ public class BookTicket extends JFrame {
         extrasPanel.add(glasses3DCheckBox);
         extrasPanel.add(premiumSeatCheckBox);
         
+        // Promotions by code (PromotionEngine)
+        JPanel promoPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 4));
+        promoPanel.setBackground(new Color(28, 31, 39));
+        promoPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        JLabel promoLabel = new JLabel("Promo code: ");
+        promoLabel.setFont(new Font("Spline Sans", Font.PLAIN, 14));
+        promoLabel.setForeground(Color.WHITE);
+        promoCodeField = new JTextField(10);
+        promoCodeField.setFont(new Font("Spline Sans", Font.PLAIN, 14));
+        promoCodeField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            public void insertUpdate(javax.swing.event.DocumentEvent e) { updateTotalPrice(); }
+            public void removeUpdate(javax.swing.event.DocumentEvent e) { updateTotalPrice(); }
+            public void changedUpdate(javax.swing.event.DocumentEvent e) { updateTotalPrice(); }
+        });
+        promoPanel.add(promoLabel);
+        promoPanel.add(promoCodeField);
+        extrasPanel.add(promoPanel);
+        
         infoPanel.add(Box.createVerticalStrut(10));
         infoPanel.add(extrasPanel);
         
         // Right side - Confirm button
-        JButton confirmButton = new JButton("Confirm Booking");
+        confirmButton = new JButton("Confirm Booking");
         confirmButton.setFont(new Font("Spline Sans", Font.BOLD, 16));
         confirmButton.setBackground(new Color(19, 91, 236));
         confirmButton.setForeground(Color.WHITE);
@@ -407,36 +482,99 @@ public class BookTicket extends JFrame {
         }
     }
     
-    // Update price with decorator extras and theater multiplier
-    // Uses Decorator Pattern via TicketPriceCalculator to dynamically add features to tickets
+    // Update price with extras, theater multiplier, demand pricing per seat and promotions
+    // Quotes are memoized by cart shape in QuoteCache, so repeated toggles are a lookup
     private void updateTotalPrice() {
         if (selectedSeats.isEmpty()) {
             totalPriceLabel.setText("Total: $0.00");
             return;
         }
         
-        // Base price with theater multiplier (Factory Pattern)
-        double theaterMultiplier = selectedTheater != null ? selectedTheater.getPriceMultiplier() : 1.0;
-        double basePricePerSeat = SEAT_PRICE * theaterMultiplier;
-        
-        // Use Decorator Pattern through TicketPriceCalculator
-        boolean hasPopcorn = popcornCheckBox != null && popcornCheckBox.isSelected();
-        boolean has3DGlasses = glasses3DCheckBox != null && glasses3DCheckBox.isSelected();
-        boolean hasPremiumSeat = premiumSeatCheckBox != null && premiumSeatCheckBox.isSelected();
-        
-        double total = TicketPriceCalculator.calculateTotalPrice(
-            movie.getTitle(),
-            basePricePerSeat,
-            selectedSeats.size(),
-            hasPopcorn,
-            has3DGlasses,
-            hasPremiumSeat
-        );
+        int[] zones = zoneCounts();
+        int front = zones[0];
+        int middle = zones[1];
+        int back = zones[2];
+        int occupancyBand = DemandPricing.occupancyBand(
+            SeatInventory.getInstance().getShowing(movieId).getOccupancyPercent(selectedTheater.getCapacity()));
+        int showtimeBand = DemandPricing.showtimeBand(DemandPricing.UNKNOWN_SHOWTIME);
+        String promoCode = promoCode();
+        DayOfWeek day = LocalDate.now().getDayOfWeek();
+        
+        QuoteCache cache = QuoteCache.getInstance();
+        long key = QuoteCache.cartKey(currentTheaterType.ordinal(), selectedAddOns(), front, middle, back,
+                                      occupancyBand, showtimeBand, PromotionEngine.getInstance().codeId(promoCode),
+                                      day.ordinal());
+        long version = cache.currentVersion();
+        long total = cache.lookup(key);
+        if (total == QuoteCache.MISS) {
+            total = computeQuote(front, middle, back, occupancyBand, showtimeBand, promoCode, day);
+            cache.store(key, version, total);
+        }
         
-        totalPriceLabel.setText(String.format("Total: $%.2f", total));
+        priceText.setLength(0);
+        totalPriceLabel.setText(Money.appendTo(priceText.append("Total: "), total).toString());
+    }
+    
+    // Uncached quote for a cart shape, priced as BookingBuilder will price the booking
+    // (today's promotions, then the service fee)
+    private long computeQuote(int front, int middle, int back, int occupancyBand, int showtimeBand, String promoCode,
+                              DayOfWeek day) {
+        long baseCents = PriceTable.seatCents(SEAT_PRICE_CENTS, selectedTheater.getPriceMultiplier());
+        long seatTotal = DemandPricing.bandSeatTotalCents(baseCents, occupancyBand, showtimeBand, front, middle, back);
+        long subtotal = PricingEngine.getInstance().getTable()
+            .quoteSeatTotal(seatTotal, selectedAddOns(), selectedSeats.size());
+        PromotionContext context = new PromotionContext(promoCode, day, 0, MembershipTier.NONE,
+                                                        currentTheaterType.name(), subtotal);
+        long discount = Math.min(PromotionEngine.getInstance().evaluate(context).getDiscountCents(), subtotal);
+        return subtotal - discount + BookingBuilder.DEFAULT_SERVICE_FEE_CENTS;
+    }
+    
+    private String promoCode() {
+        return promoCodeField != null ? promoCodeField.getText() : null;
+    }
+    
+    // Selected seats per zone (front, middle, back) in the theater's layout
+    private int[] zoneCounts() {
+        SeatLayout layout = selectedTheater.getLayout();
+        int[] counts = new int[3];
+        for (SeatButton seat : selectedSeats) {
+            counts[layout.zoneOf(seat.getSeatLabel()).ordinal()]++;
+        }
+        return counts;
+    }
+    
+    // Base price with theater multiplier (Factory Pattern), then adjusted per seat
+    // for occupancy and layout zone. Showings have no showtime yet, so that factor is neutral.
+    private long seatTotalCents() {
+        long baseCents = PriceTable.seatCents(SEAT_PRICE_CENTS, selectedTheater.getPriceMultiplier());
+        int[] zones = zoneCounts();
+        int occupancyBand = DemandPricing.occupancyBand(
+            SeatInventory.getInstance().getShowing(movieId).getOccupancyPercent(selectedTheater.getCapacity()));
+        return DemandPricing.bandSeatTotalCents(baseCents, occupancyBand,
+                                                DemandPricing.showtimeBand(DemandPricing.UNKNOWN_SHOWTIME),
+                                                zones[0], zones[1], zones[2]);
+    }
+    
+    private int selectedAddOns() {
+        return TicketPriceCalculator.addOnMask(
+            popcornCheckBox != null && popcornCheckBox.isSelected(),
+            glasses3DCheckBox != null && glasses3DCheckBox.isSelected(),
+            premiumSeatCheckBox != null && premiumSeatCheckBox.isSelected());
+    }
+    
+    private static String extraPrice(AddOn addOn) {
+        return Money.appendTo(new StringBuilder(" (+"), PricingEngine.getInstance().getTable().priceOf(addOn)).append(')').toString();
     }
     
     private void confirmBooking() {
+        // While paying, the button cancels the checkout instead; it then ends refunded
+        if (pendingCheckout != null) {
+            CheckoutSaga.getInstance().cancel(checkoutKey);
+            confirmButton.setText("Cancelling...");
+            confirmButton.setEnabled(false);
+            return;
+        }
+        
         if (selectedSeats.isEmpty()) {
             JOptionPane.showMessageDialog(this,
                 "Please select at least one seat!",
@@ -465,11 +603,15 @@ public class BookTicket extends JFrame {
         BookingBuilder builder = BookingBuilder.newBooking()
             .setUserId(bookingSystem.getCurrentUser().getId())
             .setMovieId(movieId)
-            .setBasePrice(SEAT_PRICE);
+            .setBasePriceCents(SEAT_PRICE_CENTS)
+            .setSeatTotalCents(seatTotalCents())
+            .setAddOns(selectedAddOns())
+            .setDayOfWeek(LocalDate.now().getDayOfWeek())
+            .applyPromoCode(promoCode());
         
         // Use Theater Factory Pattern - set theater type and multiplier
         if (selectedTheater != null) {
-            builder.setTheaterType(selectedTheater.getName(), selectedTheater.getPriceMultiplier());
+            builder.setTheaterType(currentTheaterType.name(), selectedTheater.getPriceMultiplier());
         }
         
         // Add all selected seats
@@ -480,22 +622,13 @@ public class BookTicket extends JFrame {
         // Build the booking
         Booking booking = builder.build();
         
-        // Calculate final price with decorators
-        double finalPrice = booking.getTotalPrice();
-        if (popcornCheckBox.isSelected()) {
-            finalPrice += 7.99;
-        }
-        if (glasses3DCheckBox.isSelected()) {
-            finalPrice += 3.50;
-        }
-        if (premiumSeatCheckBox.isSelected()) {
-            finalPrice += 5.00 * selectedSeats.size();
-        }
+        // Seats, extras and service fee, priced exactly as in the quoted total
+        long finalPrice = booking.getTotalPriceCents();
         
         // Use Adapter Pattern for payment
         String[] paymentOptions = {"Credit Card", "PayPal", "Bank Transfer"};
         int paymentChoice = JOptionPane.showOptionDialog(this,
-            String.format("Total Amount: $%.2f\nSelect Payment Method:", finalPrice),
+            Money.appendTo(new StringBuilder("Total Amount: "), finalPrice).append("\nSelect Payment Method:").toString(),
             "Payment Method (Adapter Pattern)",
             JOptionPane.DEFAULT_OPTION,
             JOptionPane.QUESTION_MESSAGE,
@@ -523,50 +656,87 @@ public class BookTicket extends JFrame {
                 method = PaymentMethod.CREDIT_CARD;
         }
         
-        // Process payment using adapter
-        PaymentProcessor processor = PaymentAdapterFactory.createPaymentProcessor(method);
+        // Pay and book through the checkout saga, off the EDT. The key makes the charge
+        // happen at most once; if the seats are gone by then, the payment is refunded.
         String customerInfo = bookingSystem.getCurrentUser().getEmail();
-        
-        if (processor.processPayment(finalPrice, customerInfo)) {
-            // Payment successful, save booking
-            if (booking.save()) {
-                StringBuilder message = new StringBuilder();
-                message.append("Movie: ").append(movie.getTitle()).append("\n");
-                message.append("Seats: ").append(booking.getSeats()).append("\n");
-                
-                // Show selected extras
-                if (popcornCheckBox.isSelected()) {
-                    message.append("Extra: 🍿 Popcorn & Drink\n");
-                }
-                if (glasses3DCheckBox.isSelected()) {
-                    message.append("Extra: 🕶️ 3D Glasses\n");
+        String paymentName = paymentOptions[paymentChoice];
+        checkoutKey = "CO-" + IdGenerator.getInstance().nextCode();
+        setCheckoutPending(CheckoutSaga.getInstance().begin(new Checkout(checkoutKey, booking, method, customerInfo)));
+        pendingCheckout.whenComplete((result, error) ->
+            SwingUtilities.invokeLater(() -> {
+                setCheckoutPending(null);
+                if (error != null) {
+                    error.printStackTrace();
+                    JOptionPane.showMessageDialog(this,
+                        "Checkout could not be started. Please try again.",
+                        "Payment Failed",
+                        JOptionPane.ERROR_MESSAGE);
+                } else if (result.isConfirmed()) {
+                    completeBooking(booking, finalPrice, paymentName, result);
+                } else if (result.getState() == Checkout.State.FAILED) {
+                    JOptionPane.showMessageDialog(this,
+                        "Payment was declined. Please try another payment method.",
+                        "Payment Failed",
+                        JOptionPane.ERROR_MESSAGE);
+                } else {
+                    // Most likely a seat was taken elsewhere; show the current seats
+                    SeatInventory.getInstance().invalidate(movieId);
+                    refreshSeatMap();
+                    JOptionPane.showMessageDialog(this,
+                        result.getReason() + ". Any amount charged has been refunded.",
+                        "Booking Not Completed",
+                        JOptionPane.WARNING_MESSAGE);
                 }
-                if (premiumSeatCheckBox.isSelected()) {
-                    message.append("Extra: 💺 Premium Seats\n");
-                }
-                
-                message.append(String.format("\nTotal: $%.2f", finalPrice));
-                message.append("\n\nPayment: ").append(processor.getPaymentStatus());
-                message.append("\nTransaction ID: ").append(processor.getTransactionId());
-                message.append("\n\nBooking confirmed!");
-                
-                JOptionPane.showMessageDialog(this,
-                    message.toString(),
-                    "Booking Successful",
-                    JOptionPane.INFORMATION_MESSAGE);
-                
-                dispose();
-            } else {
-                JOptionPane.showMessageDialog(this,
-                    "Failed to save booking. Please contact support.",
-                    "Booking Failed",
-                    JOptionPane.ERROR_MESSAGE);
-            }
-        } else {
-            JOptionPane.showMessageDialog(this,
-                "Payment failed. Please try again.",
-                "Payment Failed",
-                JOptionPane.ERROR_MESSAGE);
+            }));
+    }
+    
+    private void setCheckoutPending(CompletableFuture<CheckoutResult> checkout) {
+        pendingCheckout = checkout;
+        confirmButton.setEnabled(true);
+        confirmButton.setText(checkout != null ? "Cancel Payment" : "Confirm Booking");
+        setCursor(checkout != null ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+    }
+    
+    // Booked and paid
+    private void completeBooking(Booking booking, long finalPrice, String paymentName, CheckoutResult checkout) {
+        StringBuilder message = new StringBuilder();
+        message.append("Confirmation: ").append(checkout.getConfirmationCode()).append("\n");
+        message.append("Movie: ").append(movie.getTitle()).append("\n");
+        message.append("Seats: ").append(booking.getSeats()).append("\n");
+        
+        // Show selected extras
+        if (popcornCheckBox.isSelected()) {
+            message.append("Extra: 🍿 Popcorn & Drink\n");
+        }
+        if (glasses3DCheckBox.isSelected()) {
+            message.append("Extra: 🕶️ 3D Glasses\n");
+        }
+        if (premiumSeatCheckBox.isSelected()) {
+            message.append("Extra: 💺 Premium Seats\n");
+        }
+        if (PromotionEngine.getInstance().codeId(promoCode()) != 0) {
+            message.append("Promo code: ").append(promoCode().trim().toUpperCase(Locale.ROOT)).append("\n");
+        }
+        
+        Money.appendTo(message.append("\nTotal: "), finalPrice);
+        message.append("\n\nPayment: Payment Successful via ").append(paymentName);
+        message.append("\nTransaction ID: ").append(checkout.getTransactionId());
+        message.append("\n\nBooking confirmed!");
+        
+        JOptionPane.showMessageDialog(this,
+            message.toString(),
+            "Booking Successful",
+            JOptionPane.INFORMATION_MESSAGE);
+        
+        dispose();
+    }
+    
+    @Override
+    public void dispose() {
+        // Leaving the screen calls off a checkout still in flight
+        if (pendingCheckout != null) {
+            CheckoutSaga.getInstance().cancel(checkoutKey);
         }
+        super.dispose();
     }
 }
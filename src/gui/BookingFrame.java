@@ -2,15 +2,39 @@ package gui;
 
 import javax.swing.*;
 import java.awt.*;
-import java.io.File;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import core.BookingSystem;
+import importer.PosterWatcher;
 import prototype.MoviePrototype;
+import search.FacetIndex;
+import search.FacetIndex.Facet;
+import snapshot.CatalogSnapshot;
+import snapshot.SnapshotManager;
+import snapshot.ThumbnailCache;
 
 public class BookingFrame extends JFrame {
     private JTextField searchField;
     private List<model.Movie> movies;
+    private Map<Integer, Integer> occupiedSeats = Collections.emptyMap();
+    
+    // Typeahead state
+    private static final int SUGGEST_DELAY_MS = 150;
+    private static final int MAX_SUGGESTIONS = 8;
+    private Timer suggestTimer;
+    private JPopupMenu suggestPopup;
+    private SwingWorker<List<String>, Void> suggestWorker;
+    
+    private Runnable posterListener;
+    
+    // Facet filter state
+    private final Map<Facet, String> activeFilters = new EnumMap<>(Facet.class);
+    private FacetIndex.FacetResult facetResult;
     
     public BookingFrame() {
         setTitle("Movie Booking");
@@ -19,15 +43,132 @@ public class BookingFrame extends JFrame {
         setLocationRelativeTo(null);
         setResizable(false);
         
-        // Load movies from posters folder
-        loadMovies();
+        // Show the last catalog snapshot at once; without one, load from the database
+        CatalogSnapshot snapshot = SnapshotManager.getInstance().load();
+        if (snapshot != null) {
+            BookingSystem.getInstance().primeCatalog(snapshot.getMovies());
+            applyCatalog(snapshot.getMovies(), snapshot.getOccupiedSeats());
+        } else {
+            loadMovies();
+        }
         
         // Main panel with BorderLayout
         JPanel mainPanel = new JPanel(new BorderLayout());
         mainPanel.setBackground(new Color(16, 22, 34));
         add(mainPanel);
         
-        // Search bar panel at the top
+        // Search bar and filters at the top
+        mainPanel.add(createTopPanel(), BorderLayout.NORTH);
+        
+        // Movies grid panel with scroll - 4 columns per row
+        int columns = 4;
+        int rows = (int) Math.ceil((double) movies.size() / columns);
+        
+        JPanel moviesContainer = new JPanel(new GridLayout(rows, columns, 20, 20));
+        moviesContainer.setBackground(new Color(16, 22, 34));
+        moviesContainer.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+        
+        // Add movie cards from loaded movies
+        for (model.Movie movie : movies) {
+            JPanel movieCard = createMovieCard(movie);
+            moviesContainer.add(movieCard);
+        }
+        
+        // Fill remaining cells with empty panels if needed
+        int remainingCells = (rows * columns) - movies.size();
+        for (int i = 0; i < remainingCells; i++) {
+            JPanel emptyPanel = new JPanel();
+            emptyPanel.setBackground(new Color(16, 22, 34));
+            moviesContainer.add(emptyPanel);
+        }
+        
+        JScrollPane scrollPane = new JScrollPane(moviesContainer);
+        scrollPane.setBackground(new Color(16, 22, 34));
+        scrollPane.setBorder(null);
+        scrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        mainPanel.add(scrollPane, BorderLayout.CENTER);
+        
+        // Pick up new, replaced and removed posters without a restart
+        watchPosterFolder();
+        
+        if (snapshot != null) {
+            reconcileWithDatabase(snapshot);
+        }
+        SnapshotManager.getInstance().start();
+    }
+    
+    private JPanel createTopPanel() {
+        JPanel topPanel = new JPanel();
+        topPanel.setLayout(new BoxLayout(topPanel, BoxLayout.Y_AXIS));
+        topPanel.setBackground(new Color(16, 22, 34));
+        topPanel.add(createSearchPanel());
+        topPanel.add(createFilterPanel());
+        return topPanel;
+    }
+    
+    // Facet filters; each choice shows how many movies it would leave
+    private JPanel createFilterPanel() {
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 15, 0));
+        filterPanel.setBackground(new Color(16, 22, 34));
+        
+        if (facetResult == null) {
+            facetResult = BookingSystem.getInstance().filterMovies(selectedFacets());
+        }
+        filterPanel.add(createFacetCombo(Facet.GENRE, "All genres"));
+        filterPanel.add(createFacetCombo(Facet.RATING, "All ratings"));
+        filterPanel.add(createFacetCombo(Facet.DURATION, "Any duration"));
+        
+        return filterPanel;
+    }
+    
+    private JComboBox<String> createFacetCombo(Facet facet, String anyLabel) {
+        Map<String, Integer> counts = facetResult.getCounts(facet);
+        List<String> values = new ArrayList<>(counts.keySet());
+        String[] items = new String[values.size() + 1];
+        items[0] = anyLabel;
+        for (int i = 0; i < values.size(); i++) {
+            items[i + 1] = values.get(i) + " (" + counts.get(values.get(i)) + ")";
+        }
+        
+        JComboBox<String> combo = new JComboBox<>(items);
+        combo.setFont(new Font("Spline Sans", Font.PLAIN, 13));
+        combo.setBackground(new Color(28, 31, 39));
+        combo.setForeground(Color.WHITE);
+        combo.setPreferredSize(new Dimension(180, 32));
+        
+        String active = activeFilters.get(facet);
+        if (active != null) {
+            combo.setSelectedIndex(values.indexOf(active) + 1);
+        }
+        
+        combo.addActionListener(e -> {
+            int index = combo.getSelectedIndex();
+            if (index <= 0) {
+                activeFilters.remove(facet);
+            } else {
+                activeFilters.put(facet, values.get(index - 1));
+            }
+            searchField.setText("");
+            applyFilters();
+        });
+        return combo;
+    }
+    
+    private Map<Facet, Set<String>> selectedFacets() {
+        Map<Facet, Set<String>> selected = new EnumMap<>(Facet.class);
+        for (Map.Entry<Facet, String> entry : activeFilters.entrySet()) {
+            selected.put(entry.getKey(), Collections.singleton(entry.getValue()));
+        }
+        return selected;
+    }
+    
+    private void applyFilters() {
+        facetResult = BookingSystem.getInstance().filterMovies(selectedFacets());
+        movies = facetResult.getMovies();
+        refreshMoviesDisplay();
+    }
+    
+    private JPanel createSearchPanel() {
         JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 15, 15));
         searchPanel.setBackground(new Color(16, 22, 34));
         
@@ -38,7 +179,9 @@ public class BookingFrame extends JFrame {
         searchFieldPanel.setBorder(BorderFactory.createLineBorder(new Color(59, 67, 84), 1, true));
         searchFieldPanel.setPreferredSize(new Dimension(400, 40));
         
+        String currentText = searchField != null ? searchField.getText() : "";
         searchField = new JTextField(30);
+        searchField.setText(currentText);
         searchField.setFont(new Font("Spline Sans", Font.PLAIN, 14));
         searchField.setForeground(Color.WHITE);
         searchField.setBackground(new Color(28, 31, 39));
@@ -55,10 +198,11 @@ public class BookingFrame extends JFrame {
         clearBtn.setContentAreaFilled(false);
         clearBtn.setCursor(new Cursor(Cursor.HAND_CURSOR));
         clearBtn.setPreferredSize(new Dimension(30, 30));
-        clearBtn.setVisible(false);
+        clearBtn.setVisible(!currentText.isEmpty());
         clearBtn.addActionListener(e -> {
             searchField.setText("");
             clearBtn.setVisible(false);
+            hideSuggestions();
             loadMovies();
             refreshMoviesDisplay();
         });
@@ -67,18 +211,19 @@ public class BookingFrame extends JFrame {
         searchField.addKeyListener(new java.awt.event.KeyAdapter() {
             public void keyReleased(java.awt.event.KeyEvent e) {
                 clearBtn.setVisible(!searchField.getText().isEmpty());
+                if (e.getKeyCode() == java.awt.event.KeyEvent.VK_ESCAPE) {
+                    hideSuggestions();
+                }
                 if (e.getKeyCode() == java.awt.event.KeyEvent.VK_ENTER) {
-                    String search = searchField.getText().trim();
-                    if (!search.isEmpty()) {
-                        searchMovies(search);
-                    } else {
-                        loadMovies();
-                        refreshMoviesDisplay();
-                    }
+                    hideSuggestions();
+                    handleSearch();
                 }
             }
         });
         
+        // Typeahead suggestions while typing
+        installTypeahead(searchField);
+        
         searchFieldPanel.add(searchField, BorderLayout.CENTER);
         searchFieldPanel.add(clearBtn, BorderLayout.EAST);
         
@@ -91,13 +236,8 @@ public class BookingFrame extends JFrame {
         searchBtn.setPreferredSize(new Dimension(100, 40));
         searchBtn.setCursor(new Cursor(Cursor.HAND_CURSOR));
         searchBtn.addActionListener(e -> {
-            String search = searchField.getText().trim();
-            if (!search.isEmpty()) {
-                searchMovies(search);
-            } else {
-                loadMovies();
-                refreshMoviesDisplay();
-            }
+            hideSuggestions();
+            handleSearch();
         });
         
         // Add Movie button
@@ -114,44 +254,108 @@ public class BookingFrame extends JFrame {
         searchPanel.add(searchFieldPanel);
         searchPanel.add(searchBtn);
         searchPanel.add(addMovieBtn);
-        mainPanel.add(searchPanel, BorderLayout.NORTH);
         
-        // Movies grid panel with scroll - 4 columns per row
-        int columns = 4;
-        int rows = (int) Math.ceil((double) movies.size() / columns);
+        return searchPanel;
+    }
+    
+    // Typeahead: keystrokes restart a short debounce timer; when it fires, completions are
+    // computed on a background worker from the in-memory index and shown in a popup.
+    // A newer keystroke cancels the pending worker, so stale results are never displayed.
+    private void installTypeahead(JTextField field) {
+        if (suggestTimer != null) {
+            suggestTimer.stop();
+        }
+        hideSuggestions();
         
-        JPanel moviesContainer = new JPanel(new GridLayout(rows, columns, 20, 20));
-        moviesContainer.setBackground(new Color(16, 22, 34));
-        moviesContainer.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+        suggestPopup = new JPopupMenu();
+        suggestPopup.setFocusable(false);
+        suggestPopup.setBackground(new Color(28, 31, 39));
+        suggestPopup.setBorder(BorderFactory.createLineBorder(new Color(59, 67, 84), 1));
         
-        // Add movie cards from loaded movies
-        for (model.Movie movie : movies) {
-            JPanel movieCard = createMovieCard(movie);
-            moviesContainer.add(movieCard);
+        suggestTimer = new Timer(SUGGEST_DELAY_MS, e -> requestSuggestions(field));
+        suggestTimer.setRepeats(false);
+        
+        field.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            public void insertUpdate(javax.swing.event.DocumentEvent e) { suggestTimer.restart(); }
+            public void removeUpdate(javax.swing.event.DocumentEvent e) { suggestTimer.restart(); }
+            public void changedUpdate(javax.swing.event.DocumentEvent e) { }
+        });
+    }
+    
+    private void requestSuggestions(JTextField field) {
+        if (suggestWorker != null) {
+            suggestWorker.cancel(true);
         }
         
-        // Fill remaining cells with empty panels if needed
-        int remainingCells = (rows * columns) - movies.size();
-        for (int i = 0; i < remainingCells; i++) {
-            JPanel emptyPanel = new JPanel();
-            emptyPanel.setBackground(new Color(16, 22, 34));
-            moviesContainer.add(emptyPanel);
+        String prefix = field.getText().trim();
+        if (prefix.isEmpty() || !field.isShowing()) {
+            hideSuggestions();
+            return;
         }
         
-        JScrollPane scrollPane = new JScrollPane(moviesContainer);
-        scrollPane.setBackground(new Color(16, 22, 34));
-        scrollPane.setBorder(null);
-        scrollPane.getVerticalScrollBar().setUnitIncrement(16);
-        mainPanel.add(scrollPane, BorderLayout.CENTER);
+        suggestWorker = new SwingWorker<List<String>, Void>() {
+            @Override
+            protected List<String> doInBackground() {
+                return BookingSystem.getInstance().autocomplete(prefix, MAX_SUGGESTIONS);
+            }
+            
+            @Override
+            protected void done() {
+                // Drop results that were cancelled or no longer match what is typed
+                if (isCancelled() || !prefix.equals(field.getText().trim())) {
+                    return;
+                }
+                try {
+                    showSuggestions(field, get());
+                } catch (Exception e) {
+                    hideSuggestions();
+                }
+            }
+        };
+        suggestWorker.execute();
     }
     
-    private void loadMovies() {
-        // First, import movies from posters folder to database if not already imported
-        importMoviesFromPostersFolder();
+    private void showSuggestions(JTextField field, List<String> suggestions) {
+        suggestPopup.setVisible(false);
+        suggestPopup.removeAll();
+        if (suggestions.isEmpty()) {
+            return;
+        }
         
-        // Load all movies from database
+        for (String title : suggestions) {
+            JMenuItem item = new JMenuItem(title);
+            item.setFont(new Font("Spline Sans", Font.PLAIN, 14));
+            item.setForeground(Color.WHITE);
+            item.setBackground(new Color(28, 31, 39));
+            item.setPreferredSize(new Dimension(400, 32));
+            item.addActionListener(e -> {
+                field.setText(title);
+                suggestTimer.stop();
+                hideSuggestions();
+                searchMovies(title);
+            });
+            suggestPopup.add(item);
+        }
+        suggestPopup.show(field, 0, field.getHeight());
+    }
+    
+    private void hideSuggestions() {
+        if (suggestWorker != null) {
+            suggestWorker.cancel(true);
+        }
+        if (suggestPopup != null) {
+            suggestPopup.setVisible(false);
+        }
+    }
+    
+    private void loadMovies() {
+        applyCatalog(fetchCatalog(), BookingSystem.getInstance().getOccupiedSeatCounts());
+    }
+    
+    // Load all movies from the database, adding the default ones to an empty catalog
+    private static List<model.Movie> fetchCatalog() {
         BookingSystem system = BookingSystem.getInstance();
-        movies = system.getAllMovies();
+        List<model.Movie> movies = system.getAllMovies();
         
         // If still empty, add default movies to database
         if (movies.isEmpty()) {
@@ -164,58 +368,68 @@ public class BookingFrame extends JFrame {
             
             movies = system.getAllMovies();
         }
+        return movies;
     }
     
-    private void importMoviesFromPostersFolder() {
-        BookingSystem system = BookingSystem.getInstance();
-        File postersDir = new File("assets/posters");
-        
-        if (postersDir.exists() && postersDir.isDirectory()) {
-            File[] posterFiles = postersDir.listFiles((dir, name) -> 
-                name.toLowerCase().endsWith(".jpeg") || 
-                name.toLowerCase().endsWith(".jpg") || 
-                name.toLowerCase().endsWith(".png")
-            );
+    private void applyCatalog(List<model.Movie> catalog, Map<Integer, Integer> seatCounts) {
+        movies = catalog;
+        occupiedSeats = seatCounts;
+        
+        // Keep facet counts current and honour any active filters
+        facetResult = BookingSystem.getInstance().filterMovies(selectedFacets());
+        if (!activeFilters.isEmpty()) {
+            movies = facetResult.getMovies();
+        }
+    }
+    
+    // The snapshot may be stale: read the database off the EDT and redraw only if something changed
+    private void reconcileWithDatabase(CatalogSnapshot snapshot) {
+        new SwingWorker<List<model.Movie>, Void>() {
+            private Map<Integer, Integer> seatCounts;
             
-            if (posterFiles != null) {
-                String[] genres = {"Action", "Drama", "Sci-Fi", "Thriller", "Comedy", 
-                                 "Adventure", "Crime", "Mystery", "Romance"};
-                String[] descriptions = {
-                    "An epic tale of adventure and excitement.",
-                    "A powerful story that will move you.",
-                    "Experience the future like never before.",
-                    "A heart-pounding thriller that keeps you on edge.",
-                    "Laugh out loud with this hilarious comedy.",
-                    "Join the adventure of a lifetime.",
-                    "A gripping crime drama with unexpected twists.",
-                    "Unravel the mystery in this suspenseful tale.",
-                    "A beautiful love story that will touch your heart."
-                };
-                
-                for (int i = 0; i < posterFiles.length; i++) {
-                    String title = posterFiles[i].getName()
-                        .replace(".jpeg", "").replace(".jpg", "").replace(".png", "");
-                    title = title.substring(0, 1).toUpperCase() + title.substring(1);
-                    
-                    String genre = genres[i % genres.length];
-                    int hours = 2 + (i % 2);
-                    int minutes = (i % 3) * 15;
-                    String duration = hours + "h " + minutes + "m";
-                    
-                    double rating = 7.5 + (i % 15) * 0.1;
-                    String ratingStr = String.format("%.1f", rating);
-                    
-                    String description = descriptions[i % descriptions.length];
-                    String posterPath = posterFiles[i].getPath();
-                    
-                    // Check if movie with same title already exists
-                    List<model.Movie> existingMovies = system.searchMovies(title);
-                    if (existingMovies.isEmpty()) {
-                        system.addMovie(title, genre, duration, ratingStr, description, posterPath);
+            @Override
+            protected List<model.Movie> doInBackground() {
+                List<model.Movie> catalog = fetchCatalog();
+                seatCounts = BookingSystem.getInstance().getOccupiedSeatCounts();
+                return catalog;
+            }
+            
+            @Override
+            protected void done() {
+                try {
+                    List<model.Movie> catalog = get();
+                    if (snapshot.matches(catalog, seatCounts)) {
+                        return;
                     }
+                    SnapshotManager.getInstance().requestWrite();
+                    if (isDisplayable() && searchField.getText().trim().isEmpty()) {
+                        applyCatalog(catalog, seatCounts);
+                        refreshMoviesDisplay();
+                    }
+                } catch (Exception e) {
+                    e.printStackTrace();
                 }
             }
-        }
+        }.execute();
+    }
+    
+    // Poster folder changes are ingested in the background; show them once the catalog changed
+    private void watchPosterFolder() {
+        posterListener = () -> SwingUtilities.invokeLater(() -> {
+            if (isDisplayable() && searchField.getText().trim().isEmpty()) {
+                loadMovies();
+                refreshMoviesDisplay();
+            }
+        });
+        PosterWatcher watcher = PosterWatcher.getInstance();
+        watcher.addListener(posterListener);
+        watcher.start();
+    }
+    
+    @Override
+    public void dispose() {
+        PosterWatcher.getInstance().removeListener(posterListener);
+        super.dispose();
     }
     
     private void handleSearch() {
@@ -230,6 +444,9 @@ public class BookingFrame extends JFrame {
     
     private void searchMovies(String searchTerm) {
         BookingSystem system = BookingSystem.getInstance();
+        // A title search covers the whole catalog, so facet filters are reset
+        activeFilters.clear();
+        facetResult = null;
         movies = system.searchMovies(searchTerm);
         refreshMoviesDisplay();
         
@@ -336,96 +553,8 @@ public class BookingFrame extends JFrame {
         mainPanel.setBackground(new Color(16, 22, 34));
         add(mainPanel);
         
-        // Search bar panel
-        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 15, 15));
-        searchPanel.setBackground(new Color(16, 22, 34));
-        
-        // Search field with clear button
-        JPanel searchFieldPanel = new JPanel();
-        searchFieldPanel.setLayout(new BorderLayout());
-        searchFieldPanel.setBackground(new Color(28, 31, 39));
-        searchFieldPanel.setBorder(BorderFactory.createLineBorder(new Color(59, 67, 84), 1, true));
-        searchFieldPanel.setPreferredSize(new Dimension(400, 40));
-        
-        String currentText = searchField != null ? searchField.getText() : "";
-        searchField = new JTextField(30);
-        searchField.setText(currentText);
-        searchField.setFont(new Font("Spline Sans", Font.PLAIN, 14));
-        searchField.setForeground(Color.WHITE);
-        searchField.setBackground(new Color(28, 31, 39));
-        searchField.setCaretColor(Color.WHITE);
-        searchField.setBorder(BorderFactory.createEmptyBorder(8, 12, 8, 8));
-        
-        // Clear button (X)
-        JButton clearBtn = new JButton("✕");
-        clearBtn.setFont(new Font("Arial", Font.BOLD, 16));
-        clearBtn.setForeground(new Color(150, 155, 170));
-        clearBtn.setBackground(new Color(28, 31, 39));
-        clearBtn.setFocusPainted(false);
-        clearBtn.setBorderPainted(false);
-        clearBtn.setContentAreaFilled(false);
-        clearBtn.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        clearBtn.setPreferredSize(new Dimension(30, 30));
-        clearBtn.setVisible(!currentText.isEmpty());
-        clearBtn.addActionListener(e -> {
-            searchField.setText("");
-            clearBtn.setVisible(false);
-            loadMovies();
-            refreshMoviesDisplay();
-        });
-        
-        // Show/hide clear button and handle Enter key
-        searchField.addKeyListener(new java.awt.event.KeyAdapter() {
-            public void keyReleased(java.awt.event.KeyEvent e) {
-                clearBtn.setVisible(!searchField.getText().isEmpty());
-                if (e.getKeyCode() == java.awt.event.KeyEvent.VK_ENTER) {
-                    String search = searchField.getText().trim();
-                    if (!search.isEmpty()) {
-                        searchMovies(search);
-                    } else {
-                        loadMovies();
-                        refreshMoviesDisplay();
-                    }
-                }
-            }
-        });
-        
-        searchFieldPanel.add(searchField, BorderLayout.CENTER);
-        searchFieldPanel.add(clearBtn, BorderLayout.EAST);
-        
-        JButton searchBtn = new JButton("Search");
-        searchBtn.setFont(new Font("Spline Sans", Font.BOLD, 14));
-        searchBtn.setBackground(new Color(19, 91, 236));
-        searchBtn.setForeground(Color.WHITE);
-        searchBtn.setFocusPainted(false);
-        searchBtn.setBorderPainted(false);
-        searchBtn.setPreferredSize(new Dimension(100, 40));
-        searchBtn.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        searchBtn.addActionListener(e -> {
-            String search = searchField.getText().trim();
-            if (!search.isEmpty()) {
-                searchMovies(search);
-            } else {
-                loadMovies();
-                refreshMoviesDisplay();
-            }
-        });
-        
-        // Add Movie button
-        JButton addMovieBtn = new JButton("+ Add Movie");
-        addMovieBtn.setFont(new Font("Spline Sans", Font.BOLD, 14));
-        addMovieBtn.setBackground(new Color(34, 197, 94));
-        addMovieBtn.setForeground(Color.WHITE);
-        addMovieBtn.setFocusPainted(false);
-        addMovieBtn.setBorderPainted(false);
-        addMovieBtn.setPreferredSize(new Dimension(130, 40));
-        addMovieBtn.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        addMovieBtn.addActionListener(e -> openAddMovieDialog());
-        
-        searchPanel.add(searchFieldPanel);
-        searchPanel.add(searchBtn);
-        searchPanel.add(addMovieBtn);
-        mainPanel.add(searchPanel, BorderLayout.NORTH);
+        // Search bar and filters
+        mainPanel.add(createTopPanel(), BorderLayout.NORTH);
         
         // Movies grid
         int columns = 4;
@@ -472,16 +601,11 @@ public class BookingFrame extends JFrame {
         posterPanel.setBackground(new Color(40, 45, 55));
         posterPanel.setLayout(new BorderLayout());
         
-        if (movie.getPosterPath() != null) {
-            try {
-                ImageIcon icon = new ImageIcon(movie.getPosterPath());
-                Image image = icon.getImage().getScaledInstance(200, 280, Image.SCALE_SMOOTH);
-                JLabel posterLabel = new JLabel(new ImageIcon(image));
-                posterPanel.add(posterLabel, BorderLayout.CENTER);
-            } catch (Exception e) {
-                // If image loading fails, show placeholder
-                addPosterPlaceholder(posterPanel);
-            }
+        // Thumbnails are scaled once and kept, also across restarts via the snapshot
+        BufferedImage thumbnail = ThumbnailCache.getInstance().get(movie);
+        if (thumbnail != null) {
+            JLabel posterLabel = new JLabel(new ImageIcon(thumbnail));
+            posterPanel.add(posterLabel, BorderLayout.CENTER);
         } else {
             addPosterPlaceholder(posterPanel);
         }
@@ -519,6 +643,17 @@ public class BookingFrame extends JFrame {
         infoPanel.add(Box.createVerticalStrut(2));
         infoPanel.add(genreLabel);
         
+        // Seat inventory summary
+        int booked = occupiedSeats.getOrDefault(movie.getId(), 0);
+        if (booked > 0) {
+            JLabel seatsLabel = new JLabel(booked + (booked == 1 ? " seat booked" : " seats booked"));
+            seatsLabel.setFont(new Font("Spline Sans", Font.PLAIN, 11));
+            seatsLabel.setForeground(new Color(150, 155, 170));
+            seatsLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+            infoPanel.add(Box.createVerticalStrut(2));
+            infoPanel.add(seatsLabel);
+        }
+        
         card.add(infoPanel, BorderLayout.SOUTH);
         
         // Hover effect and click event
@@ -3,11 +3,13 @@ package gui;
 import javax.swing.*;
 import java.awt.*;
 import core.BookingSystem;
+import java.util.concurrent.RejectedExecutionException;
 
 public class LoginFrame extends JFrame {
 
     private JTextField emailField;
     private JPasswordField passwordField;
+    private JButton loginBtn;
     private JLabel title;
     private JLabel description;
 
@@ -80,7 +82,7 @@ public class LoginFrame extends JFrame {
         form.add(passwordField, c);
 
         // Login button
-        JButton loginBtn = new JButton("Login");
+        loginBtn = new JButton("Login");
         loginBtn.setFont(new Font("Spline Sans", Font.BOLD, 14));
         loginBtn.setBackground(new Color(19, 91, 236)); // primary color
         loginBtn.setForeground(Color.WHITE);
@@ -129,19 +131,36 @@ public class LoginFrame extends JFrame {
         
         BookingSystem bookingSystem = BookingSystem.getInstance();
         
-        if (bookingSystem.login(email, password)) {
-            JOptionPane.showMessageDialog(this,
-                "Welcome back, " + bookingSystem.getCurrentUser().getName() + "!",
-                "Login Successful",
-                JOptionPane.INFORMATION_MESSAGE);
-            dispose();
-            new BookingFrame().setVisible(true);
-        } else {
-            JOptionPane.showMessageDialog(this,
-                "Invalid email or password!",
-                "Login Failed",
-                JOptionPane.ERROR_MESSAGE);
-        }
+        // Verification runs on the password pool; the form stays responsive meanwhile
+        loginBtn.setEnabled(false);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        bookingSystem.loginAsync(email, password).whenComplete((success, error) ->
+            SwingUtilities.invokeLater(() -> {
+                loginBtn.setEnabled(true);
+                setCursor(Cursor.getDefaultCursor());
+                
+                if (error != null) {
+                    boolean busy = error instanceof RejectedExecutionException
+                        || error.getCause() instanceof RejectedExecutionException;
+                    JOptionPane.showMessageDialog(this,
+                        busy ? "Too many sign-ins right now. Please try again in a moment."
+                             : "Login failed due to an unexpected error.",
+                        "Login Failed",
+                        JOptionPane.ERROR_MESSAGE);
+                } else if (success) {
+                    JOptionPane.showMessageDialog(this,
+                        "Welcome back, " + bookingSystem.getCurrentUser().getName() + "!",
+                        "Login Successful",
+                        JOptionPane.INFORMATION_MESSAGE);
+                    dispose();
+                    new BookingFrame().setVisible(true);
+                } else {
+                    JOptionPane.showMessageDialog(this,
+                        "Invalid email or password!",
+                        "Login Failed",
+                        JOptionPane.ERROR_MESSAGE);
+                }
+            }));
     }
 
    
@@ -103,12 +103,15 @@ public class MovieDetailsFrame extends JFrame {
         genreLabel.setForeground(new Color(150, 155, 170));
         genreLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
         
-        // Description
-        JTextArea descriptionArea = new JTextArea(
-            "Experience this amazing movie in our state-of-the-art cinema. " +
-            "Book your tickets now and enjoy the best viewing experience with " +
-            "premium sound and picture quality."
-        );
+        // Description (loaded on first access, then cached with the movie)
+        model.Movie catalogMovie = system.getMovieById(movieId);
+        String description = catalogMovie != null ? catalogMovie.getDescription() : null;
+        if (description == null || description.trim().isEmpty()) {
+            description = "Experience this amazing movie in our state-of-the-art cinema. " +
+                "Book your tickets now and enjoy the best viewing experience with " +
+                "premium sound and picture quality.";
+        }
+        JTextArea descriptionArea = new JTextArea(description);
         descriptionArea.setFont(new Font("Spline Sans", Font.PLAIN, 14));
         descriptionArea.setForeground(new Color(200, 205, 220));
         descriptionArea.setBackground(new Color(16, 22, 34));
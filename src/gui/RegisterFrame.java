@@ -3,7 +3,9 @@ package gui;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
+import core.AccountAvailability;
 import core.BookingSystem;
+import model.RegistrationResult;
 
 public class RegisterFrame extends JFrame {
     private JTextField nameField;
@@ -12,6 +14,11 @@ public class RegisterFrame extends JFrame {
     private JPasswordField passwordField;
     private JLabel title;
     private JLabel description;
+    
+    // Live availability of email and username
+    private static final int AVAILABILITY_DELAY_MS = 250;
+    private JLabel emailStatus;
+    private JLabel usernameStatus;
 
     public RegisterFrame() {
         setTitle("Register");
@@ -70,11 +77,12 @@ public class RegisterFrame extends JFrame {
         c.gridy++;
         form.add(nameField, c);
 
-        // Email label and field
+        // Email label and field, with live availability next to the label
         JLabel emailLabel = new JLabel("Email");
         emailLabel.setForeground(Color.WHITE);
+        emailStatus = createStatusLabel();
         c.gridy++;
-        form.add(emailLabel, c);
+        form.add(createLabelRow(emailLabel, emailStatus), c);
         emailField = new JTextField(20);
         emailField.setFont(new Font("Spline Sans", Font.PLAIN, 14));
         emailField.setForeground(Color.WHITE);
@@ -87,8 +95,9 @@ public class RegisterFrame extends JFrame {
         // Username label and field
         JLabel usernameLabel = new JLabel("Username");
         usernameLabel.setForeground(Color.WHITE);
+        usernameStatus = createStatusLabel();
         c.gridy++;
-        form.add(usernameLabel, c);
+        form.add(createLabelRow(usernameLabel, usernameStatus), c);
         usernameField = new JTextField(20);
         usernameField.setFont(new Font("Spline Sans", Font.PLAIN, 14));
         usernameField.setForeground(Color.WHITE);
@@ -97,6 +106,9 @@ public class RegisterFrame extends JFrame {
         usernameField.setBorder(BorderFactory.createLineBorder(new Color(59, 67, 84), 5, true));
         c.gridy++;
         form.add(usernameField, c);
+        
+        installAvailabilityCheck(emailField, emailStatus, true);
+        installAvailabilityCheck(usernameField, usernameStatus, false);
 
         // Password label and field
         JLabel passwordLabel = new JLabel("Password");
@@ -149,6 +161,75 @@ public class RegisterFrame extends JFrame {
         backgroundPanel.add(form, rootConstraints);
     }
 
+    private JPanel createLabelRow(JLabel label, JLabel status) {
+        JPanel row = new JPanel(new BorderLayout());
+        row.setOpaque(false);
+        row.add(label, BorderLayout.WEST);
+        row.add(status, BorderLayout.EAST);
+        return row;
+    }
+    
+    private JLabel createStatusLabel() {
+        JLabel status = new JLabel(" ");
+        status.setFont(new Font("Spline Sans", Font.PLAIN, 12));
+        return status;
+    }
+    
+    // Checked shortly after typing stops; the Bloom filter answers most values without a query
+    private void installAvailabilityCheck(JTextField field, JLabel status, boolean email) {
+        Timer timer = new Timer(AVAILABILITY_DELAY_MS, e -> checkAvailability(field, status, email));
+        timer.setRepeats(false);
+        field.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            public void insertUpdate(javax.swing.event.DocumentEvent e) { timer.restart(); }
+            public void removeUpdate(javax.swing.event.DocumentEvent e) { timer.restart(); }
+            public void changedUpdate(javax.swing.event.DocumentEvent e) { timer.restart(); }
+        });
+    }
+    
+    private void checkAvailability(JTextField field, JLabel status, boolean email) {
+        String value = field.getText().trim();
+        if (value.isEmpty() || (email && !value.contains("@"))) {
+            status.setText(" ");
+            return;
+        }
+        
+        AccountAvailability availability = BookingSystem.getInstance().getAccountAvailability();
+        boolean probable = email ? availability.mightHaveEmail(value) : availability.mightHaveUsername(value);
+        if (!probable) {
+            showAvailability(status, false);
+            return;
+        }
+        
+        // Probable hit: confirm off the EDT, ignoring the answer if the text changed meanwhile
+        new SwingWorker<Boolean, Void>() {
+            @Override
+            protected Boolean doInBackground() {
+                return email ? availability.isEmailTaken(value) : availability.isUsernameTaken(value);
+            }
+            
+            @Override
+            protected void done() {
+                try {
+                    if (value.equals(field.getText().trim())) {
+                        showAvailability(status, get());
+                    }
+                } catch (Exception e) {
+                    status.setText(" ");
+                }
+            }
+        }.execute();
+    }
+    
+    private void showAvailability(JLabel status, boolean taken) {
+        if (taken) {
+            status.setText("✗ already taken");
+            status.setForeground(new Color(239, 68, 68));
+        } else {
+            status.setText("✓ available");
+            status.setForeground(new Color(34, 197, 94));
+        }
+    }
+    
     private void handleRegister() {
         String name = nameField.getText().trim();
         String email = emailField.getText().trim();
@@ -182,18 +263,46 @@ public class RegisterFrame extends JFrame {
         
         BookingSystem bookingSystem = BookingSystem.getInstance();
         
-        if (bookingSystem.register(name, email, username, password)) {
+        // Password hashing is deliberately slow, so register off the EDT
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        new SwingWorker<RegistrationResult, Void>() {
+            @Override
+            protected RegistrationResult doInBackground() {
+                return bookingSystem.register(name, email, username, password);
+            }
+            
+            @Override
+            protected void done() {
+                setCursor(Cursor.getDefaultCursor());
+                RegistrationResult result;
+                try {
+                    result = get();
+                } catch (Exception e) {
+                    result = RegistrationResult.FAILED;
+                }
+                showRegistrationResult(result);
+            }
+        }.execute();
+    }
+    
+    private void showRegistrationResult(RegistrationResult result) {
+        if (result.isSuccess()) {
             JOptionPane.showMessageDialog(this,
-                "Registration successful! Please login to continue.",
+                result.getMessage(),
                 "Success",
                 JOptionPane.INFORMATION_MESSAGE);
             dispose();
             new LoginFrame().setVisible(true);
         } else {
             JOptionPane.showMessageDialog(this,
-                "Registration failed! Email or username already exists.",
+                result.getMessage(),
                 "Error",
                 JOptionPane.ERROR_MESSAGE);
+            if (result == RegistrationResult.EMAIL_TAKEN) {
+                emailField.requestFocusInWindow();
+            } else if (result == RegistrationResult.USERNAME_TAKEN) {
+                usernameField.requestFocusInWindow();
+            }
         }
     }
 }
\ No newline at end of file
@@ -4,17 +4,28 @@ import javax.swing.*;
 import java.awt.*;
 
 public class SeatButton extends JButton {
+    public static final Color ACCESSIBLE_COLOR = new Color(32, 110, 100);
+    
     private String seatLabel;
     private boolean isOccupied;
     private boolean isSelected;
     private BookTicket parentFrame;
+    private Color freeColor;
     
     public SeatButton(String seatLabel, boolean isOccupied, BookTicket parentFrame) {
+        this(seatLabel, isOccupied, false, parentFrame);
+    }
+    
+    public SeatButton(String seatLabel, boolean isOccupied, boolean isAccessible, BookTicket parentFrame) {
         super(seatLabel);
         this.seatLabel = seatLabel;
         this.isOccupied = isOccupied;
         this.isSelected = false;
         this.parentFrame = parentFrame;
+        this.freeColor = isAccessible ? ACCESSIBLE_COLOR : new Color(59, 67, 84);
+        if (isAccessible) {
+            setToolTipText("Wheelchair accessible");
+        }
         
         setFont(new Font("Spline Sans", Font.BOLD, 11));
         setFocusPainted(false);
@@ -27,7 +38,7 @@ public class SeatButton extends JButton {
             setForeground(Color.WHITE);
             setEnabled(false);
         } else {
-            setBackground(new Color(59, 67, 84));
+            setBackground(freeColor);
             setForeground(Color.WHITE);
         }
         
@@ -43,7 +54,7 @@ public class SeatButton extends JButton {
             setBackground(new Color(19, 91, 236));
             parentFrame.addSelectedSeat(this);
         } else {
-            setBackground(new Color(59, 67, 84));
+            setBackground(freeColor);
             parentFrame.removeSelectedSeat(this);
         }
         
@@ -61,5 +72,13 @@ public class SeatButton extends JButton {
     public boolean isSelected() {
         return isSelected;
     }
+    
+    // Restore a selection after the seat map was rebuilt, without notifying the frame
+    public void restoreSelection() {
+        if (!isOccupied) {
+            isSelected = true;
+            setBackground(new Color(19, 91, 236));
+        }
+    }
 }
 
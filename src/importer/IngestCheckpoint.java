@@ -0,0 +1,108 @@
+package importer;
+
+import database.DatabaseManager;
+import java.io.File;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Persisted record of which poster files have been ingested, with the size and
+ * modification time seen at the time. Comparing a directory listing against it
+ * finds what changed while the application was not running without reading
+ * any file contents.
+ * The table is read once; after that the in-memory copy is kept in step with
+ * every write, so lookups during a watch session never query it again.
+ */
+public class IngestCheckpoint {
+
+    // path -> {size, modified}; null until first use
+    private Map<String, long[]> entries;
+
+    // Snapshot of all entries; callers may modify it
+    public synchronized Map<String, long[]> load() {
+        return new HashMap<>(entries());
+    }
+
+    public synchronized long[] get(String path) {
+        return entries().get(path);
+    }
+
+    private Map<String, long[]> entries() {
+        if (entries == null) {
+            entries = read();
+        }
+        return entries;
+    }
+
+    private static Map<String, long[]> read() {
+        Map<String, long[]> entries = new HashMap<>();
+        String sql = "SELECT path, size, modified FROM poster_checkpoint";
+
+        try (Statement stmt = DatabaseManager.getInstance().getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                entries.put(rs.getString("path"), new long[]{rs.getLong("size"), rs.getLong("modified")});
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return entries;
+    }
+
+    public synchronized void record(Collection<File> files) {
+        Map<String, long[]> seen = new HashMap<>();
+        for (File file : files) {
+            seen.put(file.getPath(), new long[]{file.length(), file.lastModified()});
+        }
+        String sql = "INSERT OR REPLACE INTO poster_checkpoint (path, size, modified) VALUES (?, ?, ?)";
+        if (executeBatch(sql, seen.entrySet(), (pstmt, entry) -> {
+            pstmt.setString(1, entry.getKey());
+            pstmt.setLong(2, entry.getValue()[0]);
+            pstmt.setLong(3, entry.getValue()[1]);
+        })) {
+            entries().putAll(seen);
+        }
+    }
+
+    public synchronized void remove(Collection<String> paths) {
+        String sql = "DELETE FROM poster_checkpoint WHERE path = ?";
+        if (executeBatch(sql, paths, (pstmt, path) -> pstmt.setString(1, path))) {
+            entries().keySet().removeAll(paths);
+        }
+    }
+
+    public static boolean isUnchanged(long[] entry, File file) {
+        return entry != null && entry[0] == file.length() && entry[1] == file.lastModified();
+    }
+
+    private interface Binder<T> {
+        void bind(PreparedStatement pstmt, T item) throws SQLException;
+    }
+
+    // All rows in one transaction; false if it was rolled back
+    private <T> boolean executeBatch(String sql, Collection<T> items, Binder<T> binder) {
+        if (items.isEmpty()) {
+            return true;
+        }
+        try {
+            DatabaseManager.getInstance().inTransaction(connection -> {
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    for (T item : items) {
+                        binder.bind(pstmt, item);
+                        pstmt.addBatch();
+                    }
+                    return pstmt.executeBatch().length;
+                }
+            });
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package importer;
+
+import model.Movie;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Imports movie posters into the catalog in four stages:
+ * <ol>
+ *   <li>scan the poster directory tree in parallel</li>
+ *   <li>hash the new poster files in parallel and drop identical files</li>
+ *   <li>derive movie metadata from each remaining file</li>
+ *   <li>insert everything in one batched transaction</li>
+ * </ol>
+ * Files whose path is already in the catalog are skipped before hashing,
+ * so re-running an import over an unchanged folder costs one directory scan
+ * and a single query. Catalog rows without a content hash (imported before
+ * hashes were recorded) are hashed once from their poster path and updated,
+ * so copies of those posters under a new name are recognized too.
+ */
+public class MovieImporter {
+    private static final int BATCH_SIZE = 500;
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    private static final String[] GENRES = {"Action", "Drama", "Sci-Fi", "Thriller", "Comedy",
+                                            "Adventure", "Crime", "Mystery", "Romance"};
+    private static final String[] DESCRIPTIONS = {
+        "An epic tale of adventure and excitement.",
+        "A powerful story that will move you.",
+        "Experience the future like never before.",
+        "A heart-pounding thriller that keeps you on edge.",
+        "Laugh out loud with this hilarious comedy.",
+        "Join the adventure of a lifetime.",
+        "A gripping crime drama with unexpected twists.",
+        "Unravel the mystery in this suspenseful tale.",
+        "A beautiful love story that will touch your heart."
+    };
+
+    private final ForkJoinPool pool;
+
+    public MovieImporter() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public MovieImporter(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // Import every poster found under the directory (recursively)
+    public ImportReport importDirectory(File postersDir) {
+        long start = System.nanoTime();
+        if (!postersDir.isDirectory()) {
+            return new ImportReport(0, 0, 0, 0, 0, System.nanoTime() - start);
+        }
+        List<File> files = pool.invoke(new ScanTask(postersDir));
+        return importFiles(files, start);
+    }
+
+    // Import an explicit list of poster files, e.g. the ones a folder watcher reported
+    public ImportReport importFiles(List<File> files) {
+        return importFiles(files, System.nanoTime());
+    }
+
+    private ImportReport importFiles(List<File> scanned, long start) {
+        // Sort so metadata derivation and duplicate resolution are deterministic
+        List<File> files = new ArrayList<>(scanned);
+        files.sort(Comparator.comparing(File::getPath));
+
+        // Everything the catalog already knows, fetched with a single query
+        Set<String> knownPaths = new HashSet<>();
+        Set<String> knownTitles = new HashSet<>();
+        Set<String> knownHashes = new HashSet<>();
+        List<String> unhashedPaths = new ArrayList<>();
+        for (Movie movie : Movie.getImportKeys()) {
+            if (movie.getPosterPath() != null) {
+                knownPaths.add(movie.getPosterPath());
+                if (movie.getPosterHash() == null) {
+                    unhashedPaths.add(movie.getPosterPath());
+                }
+            }
+            if (movie.getTitle() != null) {
+                knownTitles.add(movie.getTitle().toLowerCase(Locale.ROOT));
+            }
+            if (movie.getPosterHash() != null) {
+                knownHashes.add(movie.getPosterHash());
+            }
+        }
+
+        knownHashes.addAll(backfillHashes(unhashedPaths));
+
+        List<File> candidates = new ArrayList<>();
+        int alreadyInCatalog = 0;
+        for (File file : files) {
+            if (knownPaths.contains(file.getPath())) {
+                alreadyInCatalog++;
+            } else {
+                candidates.add(file);
+            }
+        }
+
+        // Stage 2: hash in parallel, then resolve duplicates in path order
+        String[] hashes = pool.submit(() ->
+            candidates.parallelStream().map(MovieImporter::hashFile).toArray(String[]::new)
+        ).join();
+
+        Set<String> batchHashes = new HashSet<>();
+        List<Movie> toInsert = new ArrayList<>();
+        int duplicates = 0;
+        int unreadable = 0;
+        int catalogIndex = knownPaths.size();
+        for (int i = 0; i < candidates.size(); i++) {
+            String hash = hashes[i];
+            if (hash == null) {
+                unreadable++;
+                continue;
+            }
+            if (knownHashes.contains(hash)) {
+                alreadyInCatalog++;
+                continue;
+            }
+            if (!batchHashes.add(hash)) {
+                duplicates++;
+                continue;
+            }
+
+            // Stage 3: derive metadata
+            Movie movie = deriveMovie(candidates.get(i), catalogIndex + toInsert.size());
+            movie.setPosterHash(hash);
+            if (!knownTitles.add(movie.getTitle().toLowerCase(Locale.ROOT))) {
+                alreadyInCatalog++;
+                continue;
+            }
+            toInsert.add(movie);
+        }
+
+        // Stage 4: one transaction for the whole import
+        int inserted = Movie.saveAll(toInsert, BATCH_SIZE);
+        return new ImportReport(files.size(), inserted, duplicates, alreadyInCatalog, unreadable,
+                                System.nanoTime() - start);
+    }
+
+    // Hash the posters of older rows that have none and store the hashes; files that are gone stay unhashed
+    private Set<String> backfillHashes(List<String> paths) {
+        if (paths.isEmpty()) {
+            return Set.of();
+        }
+        String[] hashes = pool.submit(() ->
+            paths.parallelStream().map(path -> hashFile(new File(path))).toArray(String[]::new)
+        ).join();
+        Map<String, String> hashByPath = new HashMap<>();
+        for (int i = 0; i < hashes.length; i++) {
+            if (hashes[i] != null) {
+                hashByPath.put(paths.get(i), hashes[i]);
+            }
+        }
+        Movie.updatePosterHashes(hashByPath);
+        return new HashSet<>(hashByPath.values());
+    }
+
+    /**
+     * Build a movie from a poster file name.
+     * Genre, runtime, score and description rotate with the catalog position.
+     */
+    public static Movie deriveMovie(File posterFile, int index) {
+        String name = posterFile.getName();
+        int dot = name.lastIndexOf('.');
+        String title = dot > 0 ? name.substring(0, dot) : name;
+        title = title.substring(0, 1).toUpperCase() + title.substring(1);
+
+        String genre = GENRES[index % GENRES.length];
+        int hours = 2 + (index % 2);
+        int minutes = (index % 3) * 15;
+        String duration = hours + "h " + minutes + "m";
+
+        double rating = 7.5 + (index % 15) * 0.1;
+        String ratingStr = String.format(Locale.ROOT, "%.1f", rating);
+
+        String description = DESCRIPTIONS[index % DESCRIPTIONS.length];
+        return new Movie(title, genre, duration, ratingStr, description, posterFile.getPath());
+    }
+
+    public static boolean isPosterFile(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".jpeg") || lower.endsWith(".jpg") || lower.endsWith(".png");
+    }
+
+    // SHA-256 of the file contents as hex, or null if the file cannot be read
+    public static String hashFile(File file) {
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[HASH_BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest.digest()) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+                hex.append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+    // Stage 1: each directory is listed by its own task; subdirectories are forked
+    private static class ScanTask extends RecursiveTask<List<File>> {
+        private static final long serialVersionUID = 1L;
+
+        private final File directory;
+
+        ScanTask(File directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        protected List<File> compute() {
+            List<File> posters = new ArrayList<>();
+            File[] entries = directory.listFiles();
+            if (entries == null) {
+                return posters;
+            }
+
+            List<ScanTask> subtasks = new ArrayList<>();
+            for (File entry : entries) {
+                if (entry.isDirectory()) {
+                    ScanTask task = new ScanTask(entry);
+                    task.fork();
+                    subtasks.add(task);
+                } else if (isPosterFile(entry.getName())) {
+                    posters.add(entry);
+                }
+            }
+            for (ScanTask task : subtasks) {
+                posters.addAll(task.join());
+            }
+            return posters;
+        }
+    }
+
+    /**
+     * Outcome of one import run.
+     */
+    public static class ImportReport {
+        private final int scanned;
+        private final int inserted;
+        private final int duplicates;
+        private final int alreadyInCatalog;
+        private final int unreadable;
+        private final long elapsedNanos;
+
+        public ImportReport(int scanned, int inserted, int duplicates, int alreadyInCatalog,
+                            int unreadable, long elapsedNanos) {
+            this.scanned = scanned;
+            this.inserted = inserted;
+            this.duplicates = duplicates;
+            this.alreadyInCatalog = alreadyInCatalog;
+            this.unreadable = unreadable;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getScanned() { return scanned; }
+        public int getInserted() { return inserted; }
+        public int getDuplicates() { return duplicates; }
+        public int getAlreadyInCatalog() { return alreadyInCatalog; }
+        public int getUnreadable() { return unreadable; }
+        public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+
+        public double getPostersPerSecond() {
+            return elapsedNanos == 0 ? 0 : scanned * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                "Scanned %d posters in %d ms (%.0f posters/s)%n" +
+                "  Inserted:            %d%n" +
+                "  Skipped, duplicate:  %d%n" +
+                "  Skipped, in catalog: %d%n" +
+                "  Skipped, unreadable: %d",
+                scanned, getElapsedMillis(), getPostersPerSecond(),
+                inserted, duplicates, alreadyInCatalog, unreadable);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package importer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import model.Movie;
+
+/**
+ * Singleton Pattern: PosterWatcher
+ * Keeps the catalog in step with the poster folder while the application runs.
+ * File system events are collected per path and applied together once the folder
+ * has been quiet for a moment, so copying a few hundred posters results in one
+ * batched import instead of hundreds. On start-up the folder is compared with the
+ * persisted {@link IngestCheckpoint} to pick up changes made while the app was closed.
+ */
+public class PosterWatcher {
+    private static final String POSTERS_DIR = "assets/posters";
+    private static final long QUIET_PERIOD_MS = 500;   // flush after this long without events
+    private static final long MAX_BATCH_DELAY_MS = 5000; // flush at least this often during a long burst
+
+    private static PosterWatcher instance;
+
+    private enum Change { UPSERTED, DELETED }
+
+    private final Path directory;
+    private final MovieImporter importer;
+    private final IngestCheckpoint checkpoint;
+    private final List<Runnable> listeners;
+    private Thread thread;
+    private volatile boolean running;
+
+    private PosterWatcher(Path directory) {
+        this.directory = directory;
+        this.importer = new MovieImporter();
+        this.checkpoint = new IngestCheckpoint();
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    public static synchronized PosterWatcher getInstance() {
+        if (instance == null) {
+            instance = new PosterWatcher(Paths.get(POSTERS_DIR));
+        }
+        return instance;
+    }
+
+    // Listeners run on the watcher thread after the catalog changed
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    public synchronized void start() {
+        if (running || !directory.toFile().isDirectory()) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::watch, "poster-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void watch() {
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+
+            // Register first, then catch up, so nothing slips between the two
+            reconcile();
+
+            Map<Path, Change> pending = new LinkedHashMap<>();
+            long firstPendingAt = 0;
+            while (running) {
+                WatchKey key;
+                if (pending.isEmpty()) {
+                    key = watchService.take();
+                } else {
+                    key = watchService.poll(QUIET_PERIOD_MS, TimeUnit.MILLISECONDS);
+                }
+
+                if (key != null) {
+                    boolean overflow = false;
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            overflow = true;
+                            continue;
+                        }
+                        Path file = directory.resolve((Path) event.context());
+                        if (!MovieImporter.isPosterFile(file.getFileName().toString())) {
+                            continue;
+                        }
+                        if (pending.isEmpty()) {
+                            firstPendingAt = System.currentTimeMillis();
+                        }
+                        // The latest event for a path wins: create+delete is a delete, delete+create an upsert
+                        Change change = event.kind() == StandardWatchEventKinds.ENTRY_DELETE
+                            ? Change.DELETED : Change.UPSERTED;
+                        pending.remove(file);
+                        pending.put(file, change);
+                    }
+                    if (!key.reset()) {
+                        System.err.println("Poster folder is no longer accessible, watcher stopped");
+                        break;
+                    }
+                    if (overflow) {
+                        // Events were lost; fall back to comparing against the checkpoint
+                        pending.clear();
+                        reconcile();
+                        continue;
+                    }
+                }
+
+                boolean quiet = key == null;
+                boolean overdue = !pending.isEmpty()
+                    && System.currentTimeMillis() - firstPendingAt >= MAX_BATCH_DELAY_MS;
+                if (!pending.isEmpty() && (quiet || overdue)) {
+                    apply(pending);
+                    pending.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            running = false;
+        }
+    }
+
+    // Compare the folder with the checkpoint and apply the difference
+    private void reconcile() {
+        Map<String, long[]> ingested = checkpoint.load();
+        Map<Path, Change> changes = new LinkedHashMap<>();
+
+        File[] files = directory.toFile().listFiles((dir, name) -> MovieImporter.isPosterFile(name));
+        if (files != null) {
+            for (File file : files) {
+                long[] entry = ingested.remove(file.getPath());
+                if (!IngestCheckpoint.isUnchanged(entry, file)) {
+                    changes.put(file.toPath(), Change.UPSERTED);
+                }
+            }
+        }
+        // Whatever is left in the checkpoint is gone from disk
+        for (String path : ingested.keySet()) {
+            changes.put(Paths.get(path), Change.DELETED);
+        }
+
+        if (!changes.isEmpty()) {
+            apply(changes);
+        }
+    }
+
+    private void apply(Map<Path, Change> changes) {
+        List<File> added = new ArrayList<>();
+        List<File> modified = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+
+        for (Map.Entry<Path, Change> entry : changes.entrySet()) {
+            File file = entry.getKey().toFile();
+            if (entry.getValue() == Change.DELETED || !file.isFile()) {
+                deleted.add(file.getPath());
+                continue;
+            }
+            long[] seen = checkpoint.get(file.getPath());
+            if (seen == null) {
+                added.add(file);
+            } else if (!IngestCheckpoint.isUnchanged(seen, file)) {
+                modified.add(file);
+            }
+        }
+
+        boolean catalogChanged = false;
+        for (String path : deleted) {
+            catalogChanged |= Movie.removePoster(path);
+        }
+        for (File file : modified) {
+            String hash = MovieImporter.hashFile(file);
+            if (hash != null) {
+                catalogChanged |= Movie.updatePosterHash(file.getPath(), hash);
+            }
+        }
+        if (!added.isEmpty()) {
+            MovieImporter.ImportReport report = importer.importFiles(added);
+            System.out.println("Poster watcher: " + report.getInserted() + " new movie(s) from "
+                               + added.size() + " file(s)");
+            catalogChanged |= report.getInserted() > 0;
+        }
+
+        checkpoint.remove(deleted);
+        List<File> seenFiles = new ArrayList<>(added);
+        seenFiles.addAll(modified);
+        checkpoint.record(seenFiles);
+
+        if (catalogChanged) {
+            for (Runnable listener : listeners) {
+                listener.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package importer;
+
+import core.AccountAvailability;
+import database.DatabaseManager;
+import model.User;
+import security.PasswordHasher;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk import of members, e.g. from a loyalty program export.
+ * The CSV file (name,email,username,password, optional header line) is streamed,
+ * so memory use does not grow with the file. Rows are inserted in batched
+ * transactions with INSERT OR IGNORE: members whose email or username is
+ * already registered are skipped by the UNIQUE constraints instead of being
+ * looked up first.
+ * Passwords already in {@link PasswordHasher} format are stored as they are,
+ * so an export of hashed passwords imports at insert speed. Plaintext ones are
+ * hashed in parallel on threads owned by the import ({@code import.hashThreads},
+ * default half the cores), never on the login pool, so kiosks can still sign
+ * in while a large file is imported.
+ * Each committed batch is added to {@link AccountAvailability}; an import run
+ * as its own process is picked up by the application's periodic catch-up.
+ */
+public class UserImporter {
+    public static final int DEFAULT_BATCH_SIZE = 5000;
+    private static final String INSERT_SQL =
+        "INSERT OR IGNORE INTO users (name, email, username, password) VALUES (?, ?, ?, ?)";
+
+    private final int batchSize;
+
+    public UserImporter() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    public UserImporter(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    public ImportReport importCsv(Path file) throws IOException {
+        long start = System.nanoTime();
+        int read = 0;
+        int inserted = 0;
+        int malformed = 0;
+        List<String[]> batch = new ArrayList<>(batchSize);
+        ExecutorService hashers = newHashPool();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            boolean first = true;
+            while ((line = reader.readLine()) != null) {
+                if (first) {
+                    first = false;
+                    if (line.toLowerCase(Locale.ROOT).startsWith("name,")) {
+                        continue;
+                    }
+                }
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                read++;
+                String[] fields = parseCsvLine(line);
+                if (!isValid(fields)) {
+                    malformed++;
+                    continue;
+                }
+                batch.add(fields);
+                if (batch.size() == batchSize) {
+                    inserted += insertBatch(batch, hashers);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                inserted += insertBatch(batch, hashers);
+            }
+        } finally {
+            hashers.shutdownNow();
+        }
+        return new ImportReport(read, inserted, read - inserted - malformed, malformed,
+                                System.nanoTime() - start);
+    }
+
+    private static ExecutorService newHashPool() {
+        int threads = Integer.getInteger("import.hashThreads",
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "import-hasher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // One transaction per batch; returns the rows actually inserted
+    private int insertBatch(List<String[]> rows, ExecutorService hashers) throws IOException {
+        hashPasswords(rows, hashers);
+        try {
+            List<String[]> insertedRows = DatabaseManager.getInstance().inTransaction(connection -> {
+                try (PreparedStatement pstmt = connection.prepareStatement(INSERT_SQL)) {
+                    for (String[] row : rows) {
+                        for (int i = 0; i < 4; i++) {
+                            pstmt.setString(i + 1, row[i]);
+                        }
+                        pstmt.addBatch();
+                    }
+                    int[] counts = pstmt.executeBatch();
+                    List<String[]> inserted = new ArrayList<>();
+                    for (int i = 0; i < counts.length; i++) {
+                        if (counts[i] > 0) {
+                            inserted.add(rows.get(i));
+                        }
+                    }
+                    return inserted;
+                }
+            });
+            // Committed: the registration form must now report these as taken
+            for (String[] row : insertedRows) {
+                AccountAvailability.getInstance().add(new User(row[0], row[1], row[2], row[3]));
+            }
+            return insertedRows.size();
+        } catch (SQLException e) {
+            throw new IOException("Batch insert failed", e);
+        }
+    }
+
+    // Replaces each row's plaintext password with its hash, outside the transaction
+    private static void hashPasswords(List<String[]> rows, ExecutorService hashers) throws IOException {
+        List<CompletableFuture<String>> hashes = new ArrayList<>(rows.size());
+        for (String[] row : rows) {
+            String password = row[3];
+            hashes.add(PasswordHasher.isHashed(password)
+                ? CompletableFuture.completedFuture(password)
+                : CompletableFuture.supplyAsync(() -> PasswordHasher.getInstance().hash(password.toCharArray()), hashers));
+        }
+        try {
+            for (int i = 0; i < rows.size(); i++) {
+                rows.get(i)[3] = hashes.get(i).join();
+            }
+        } catch (CompletionException e) {
+            throw new IOException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static boolean isValid(String[] fields) {
+        if (fields.length != 4) {
+            return false;
+        }
+        for (String field : fields) {
+            if (field.isEmpty()) {
+                return false;
+            }
+        }
+        return fields[1].contains("@");
+    }
+
+    // Comma-separated fields; double quotes enclose fields and "" is a literal quote
+    static String[] parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields.toArray(new String[0]);
+    }
+
+    /**
+     * Outcome of one user import run.
+     */
+    public static class ImportReport {
+        private final int read;
+        private final int inserted;
+        private final int alreadyRegistered;
+        private final int malformed;
+        private final long elapsedNanos;
+
+        public ImportReport(int read, int inserted, int alreadyRegistered, int malformed, long elapsedNanos) {
+            this.read = read;
+            this.inserted = inserted;
+            this.alreadyRegistered = alreadyRegistered;
+            this.malformed = malformed;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getRead() { return read; }
+        public int getInserted() { return inserted; }
+        public int getAlreadyRegistered() { return alreadyRegistered; }
+        public int getMalformed() { return malformed; }
+        public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+
+        public double getRowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : read * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                "Read %d members in %d ms (%.0f rows/s)%n" +
+                "  Inserted:                    %d%n" +
+                "  Skipped, already registered: %d%n" +
+                "  Skipped, malformed:          %d",
+                read, getElapsedMillis(), getRowsPerSecond(),
+                inserted, alreadyRegistered, malformed);
+        }
+    }
+}
@@ -1,16 +1,22 @@
 package model;
 
+import core.IdGenerator;
 import database.DatabaseManager;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Booking {
     private int id;
     private int userId;
     private int movieId;
     private String seats;
-    private double totalPrice;
+    private long totalPriceCents;
+    private String theaterType;
+    private int addOnMask;
+    private String confirmationCode;
     private Timestamp bookingDate;
     
     // For display purposes
@@ -20,19 +26,19 @@ public class Booking {
     // Constructors
     public Booking() {}
     
-    public Booking(int userId, int movieId, String seats, double totalPrice) {
+    public Booking(int userId, int movieId, String seats, long totalPriceCents) {
         this.userId = userId;
         this.movieId = movieId;
         this.seats = seats;
-        this.totalPrice = totalPrice;
+        this.totalPriceCents = totalPriceCents;
     }
     
-    public Booking(int id, int userId, int movieId, String seats, double totalPrice, Timestamp bookingDate) {
+    public Booking(int id, int userId, int movieId, String seats, long totalPriceCents, Timestamp bookingDate) {
         this.id = id;
         this.userId = userId;
         this.movieId = movieId;
         this.seats = seats;
-        this.totalPrice = totalPrice;
+        this.totalPriceCents = totalPriceCents;
         this.bookingDate = bookingDate;
     }
     
@@ -49,8 +55,19 @@ public class Booking {
     public String getSeats() { return seats; }
     public void setSeats(String seats) { this.seats = seats; }
     
-    public double getTotalPrice() { return totalPrice; }
-    public void setTotalPrice(double totalPrice) { this.totalPrice = totalPrice; }
+    public long getTotalPriceCents() { return totalPriceCents; }
+    public void setTotalPriceCents(long totalPriceCents) { this.totalPriceCents = totalPriceCents; }
+    
+    // Kept so bookings can be re-priced later; addOnMask holds pricing.AddOn bits
+    public String getTheaterType() { return theaterType; }
+    public void setTheaterType(String theaterType) { this.theaterType = theaterType; }
+    
+    public int getAddOnMask() { return addOnMask; }
+    public void setAddOnMask(int addOnMask) { this.addOnMask = addOnMask; }
+    
+    // Code shown to the customer; unlike the row id it is unique across kiosks
+    public String getConfirmationCode() { return confirmationCode; }
+    public void setConfirmationCode(String confirmationCode) { this.confirmationCode = confirmationCode; }
     
     public Timestamp getBookingDate() { return bookingDate; }
     public void setBookingDate(Timestamp bookingDate) { this.bookingDate = bookingDate; }
@@ -63,53 +80,88 @@ public class Booking {
     
     // Database operations
     public boolean save() {
-        String sql = "INSERT INTO bookings (user_id, movie_id, seats, total_price) VALUES (?, ?, ?, ?)";
-        
         try {
-            PreparedStatement pstmt = DatabaseManager.getInstance().getConnection().prepareStatement(sql);
+            return DatabaseManager.getInstance().inTransaction(this::insert);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+    
+    /**
+     * Insert the booking and occupy its seats on the given connection, as part of
+     * the caller's transaction. Fails with an SQLException if a seat is already taken.
+     */
+    public boolean insert(Connection conn) throws SQLException {
+        // total_price is kept filled for older readers; total_price_cents is authoritative
+        String sql = "INSERT INTO bookings (user_id, movie_id, seats, total_price, total_price_cents, theater_type, add_on_mask, " +
+                     "confirmation_code) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        if (confirmationCode == null) {
+            confirmationCode = IdGenerator.getInstance().nextCode();
+        }
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, userId);
             pstmt.setInt(2, movieId);
             pstmt.setString(3, seats);
-            pstmt.setDouble(4, totalPrice);
-            
-            int rowsAffected = pstmt.executeUpdate();
+            pstmt.setDouble(4, totalPriceCents / 100.0);
+            pstmt.setLong(5, totalPriceCents);
+            pstmt.setString(6, theaterType);
+            pstmt.setInt(7, addOnMask);
+            pstmt.setString(8, confirmationCode);
             
-            if (rowsAffected > 0) {
-                // Get the last inserted ID using SQLite's last_insert_rowid()
-                Statement stmt = DatabaseManager.getInstance().getConnection().createStatement();
-                ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()");
-                if (rs.next()) {
-                    this.id = rs.getInt(1);
-                }
-                rs.close();
-                stmt.close();
-                pstmt.close();
-                
-                // Mark seats as occupied
-                markSeatsAsOccupied();
-                
-                return true;
+            if (pstmt.executeUpdate() == 0) {
+                return false;
             }
-            pstmt.close();
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
-        return false;
+        
+        // Get the last inserted ID using SQLite's last_insert_rowid()
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+            if (rs.next()) {
+                this.id = rs.getInt(1);
+            }
+        }
+        
+        // Mark seats as occupied
+        markSeatsAsOccupied(conn);
+        return true;
+    }
+    
+    // Seat labels of this booking
+    public List<String> getSeatList() {
+        List<String> list = new ArrayList<>();
+        for (String seat : seats.split(",")) {
+            if (!seat.trim().isEmpty()) {
+                list.add(seat.trim());
+            }
+        }
+        return list;
+    }
+    
+    // SQLite reports e.g. "UNIQUE constraint failed: seats.movie_id, seats.seat_label"
+    public static boolean isSeatTaken(SQLException e) {
+        String message = e.getMessage();
+        return message != null && message.contains("UNIQUE constraint failed: seats.");
     }
     
-    private void markSeatsAsOccupied() {
-        String[] seatArray = seats.split(", ");
-        String sql = "INSERT OR REPLACE INTO seats (movie_id, seat_label, is_occupied, booking_id) VALUES (?, ?, 1, ?)";
+    public static boolean isDuplicateConfirmationCode(SQLException e) {
+        String message = e.getMessage();
+        return message != null && message.contains("UNIQUE constraint failed: bookings.confirmation_code");
+    }
+    
+    // A seat held by another booking violates UNIQUE(movie_id, seat_label)
+    private void markSeatsAsOccupied(Connection conn) throws SQLException {
+        String sql = "INSERT INTO seats (movie_id, seat_label, is_occupied, booking_id) VALUES (?, ?, 1, ?)";
         
-        try (PreparedStatement pstmt = DatabaseManager.getInstance().getConnection().prepareStatement(sql)) {
-            for (String seat : seatArray) {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (String seat : getSeatList()) {
                 pstmt.setInt(1, movieId);
-                pstmt.setString(2, seat.trim());
+                pstmt.setString(2, seat);
                 pstmt.setInt(3, id);
-                pstmt.executeUpdate();
+                pstmt.addBatch();
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
+            pstmt.executeBatch();
         }
     }
     
@@ -132,9 +184,10 @@ public class Booking {
                     rs.getInt("user_id"),
                     rs.getInt("movie_id"),
                     rs.getString("seats"),
-                    rs.getDouble("total_price"),
+                    rs.getLong("total_price_cents"),
                     rs.getTimestamp("booking_date")
                 );
+                booking.setConfirmationCode(rs.getString("confirmation_code"));
                 booking.setUserName(rs.getString("user_name"));
                 booking.setMovieTitle(rs.getString("movie_title"));
                 bookings.add(booking);
@@ -162,9 +215,10 @@ public class Booking {
                     rs.getInt("user_id"),
                     rs.getInt("movie_id"),
                     rs.getString("seats"),
-                    rs.getDouble("total_price"),
+                    rs.getLong("total_price_cents"),
                     rs.getTimestamp("booking_date")
                 );
+                booking.setConfirmationCode(rs.getString("confirmation_code"));
                 booking.setUserName(rs.getString("user_name"));
                 booking.setMovieTitle(rs.getString("movie_title"));
                 bookings.add(booking);
@@ -208,5 +262,52 @@ public class Booking {
         }
         return occupiedSeats;
     }
+    
+    public interface PricingRowHandler {
+        void accept(int movieId, String theaterType, int addOnMask, int seatCount, long totalPriceCents);
+    }
+    
+    // Stream what is needed to re-price the last days of bookings, without building Booking objects
+    public static int forEachPricingRow(int days, PricingRowHandler handler) {
+        String sql = "SELECT movie_id, theater_type, add_on_mask, seats, total_price_cents FROM bookings " +
+                     "WHERE booking_date >= datetime('now', '-' || ? || ' days')";
+        int count = 0;
+        
+        try (PreparedStatement pstmt = DatabaseManager.getInstance().getConnection().prepareStatement(sql)) {
+            pstmt.setInt(1, days);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String seats = rs.getString("seats");
+                    int seatCount = 1;
+                    for (int i = 0; i < seats.length(); i++) {
+                        if (seats.charAt(i) == ',') {
+                            seatCount++;
+                        }
+                    }
+                    handler.accept(rs.getInt("movie_id"), rs.getString("theater_type"),
+                                   rs.getInt("add_on_mask"), seatCount, rs.getLong("total_price_cents"));
+                    count++;
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return count;
+    }
+    
+    // Occupied seats per movie with one grouped query; movies without bookings are absent
+    public static Map<Integer, Integer> getOccupiedSeatCounts() {
+        Map<Integer, Integer> counts = new HashMap<>();
+        String sql = "SELECT movie_id, COUNT(*) AS occupied FROM seats WHERE is_occupied = 1 GROUP BY movie_id";
+        
+        try (Statement stmt = DatabaseManager.getInstance().getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                counts.put(rs.getInt("movie_id"), rs.getInt("occupied"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return counts;
+    }
 }
-
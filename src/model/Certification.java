@@ -0,0 +1,64 @@
+package model;
+
+/**
+ * MPAA certification of a movie.
+ * Codes are stored in the movies table and grow with how restrictive the
+ * certification is, so "suitable for age N" is a single range query.
+ */
+public enum Certification {
+    NONE(0, "", 0),
+    G(1, "G", 0),
+    PG(2, "PG", 8),
+    PG_13(3, "PG-13", 13),
+    R(4, "R", 17),
+    NC_17(5, "NC-17", 18);
+
+    private static final Certification[] BY_CODE = values();
+
+    private final int code;
+    private final String label;
+    private final int minimumAge;
+
+    Certification(int code, String label, int minimumAge) {
+        this.code = code;
+        this.label = label;
+        this.minimumAge = minimumAge;
+    }
+
+    public int getCode() { return code; }
+    public String getLabel() { return label; }
+    public int getMinimumAge() { return minimumAge; }
+
+    public boolean allows(int age) {
+        return age >= minimumAge;
+    }
+
+    public static Certification fromCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : NONE;
+    }
+
+    // Numeric scores and unknown text have no certification
+    public static Certification parse(String rating) {
+        if (rating == null) {
+            return NONE;
+        }
+        String value = rating.trim().toUpperCase();
+        for (Certification certification : BY_CODE) {
+            if (certification != NONE && certification.label.equals(value)) {
+                return certification;
+            }
+        }
+        return NONE;
+    }
+
+    // Strictest certification a viewer of the given age may watch
+    public static Certification strictestAllowed(int age) {
+        Certification strictest = NONE;
+        for (Certification certification : BY_CODE) {
+            if (certification.allows(age)) {
+                strictest = certification;
+            }
+        }
+        return strictest;
+    }
+}
@@ -3,7 +3,9 @@ package model;
 import database.DatabaseManager;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Movie {
     private int id;
@@ -11,19 +13,26 @@ public class Movie {
     private String genre;
     private String duration;
     private String rating;
-    private String description;
+    private String description;          // heavy: list queries leave it out, see getDescription()
+    private volatile boolean descriptionLoaded;
     private String posterPath;
+    private String posterHash;
     private Timestamp createdAt;
     
+    // Typed forms of duration and rating, kept in step by the setters
+    private int runtimeMinutes;          // 0 if unknown
+    private int scoreTenths;             // score * 10, 0 if the rating is not a score
+    private Certification certification = Certification.NONE;
+    
     // Constructors
     public Movie() {}
     
     public Movie(String title, String genre, String duration, String rating, String description, String posterPath) {
         this.title = title;
         this.genre = genre;
-        this.duration = duration;
-        this.rating = rating;
-        this.description = description;
+        setDuration(duration);
+        setRating(rating);
+        setDescription(description);
         this.posterPath = posterPath;
     }
     
@@ -31,9 +40,9 @@ public class Movie {
         this.id = id;
         this.title = title;
         this.genre = genre;
-        this.duration = duration;
-        this.rating = rating;
-        this.description = description;
+        setDuration(duration);
+        setRating(rating);
+        setDescription(description);
         this.posterPath = posterPath;
         this.createdAt = createdAt;
     }
@@ -49,32 +58,68 @@ public class Movie {
     public void setGenre(String genre) { this.genre = genre; }
     
     public String getDuration() { return duration; }
-    public void setDuration(String duration) { this.duration = duration; }
+    public void setDuration(String duration) {
+        this.duration = duration;
+        this.runtimeMinutes = parseRuntimeMinutes(duration);
+    }
     
     public String getRating() { return rating; }
-    public void setRating(String rating) { this.rating = rating; }
+    public void setRating(String rating) {
+        this.rating = rating;
+        this.scoreTenths = parseScoreTenths(rating);
+        this.certification = Certification.parse(rating);
+    }
+    
+    public int getRuntimeMinutes() { return runtimeMinutes; }
+    public int getScoreTenths() { return scoreTenths; }
+    public Certification getCertification() { return certification; }
+    
+    // Loaded from the database on first access when the movie came from a list query
+    public String getDescription() {
+        if (!descriptionLoaded && id > 0) {
+            loadDescription();
+        }
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+        this.descriptionLoaded = true;
+    }
     
-    public String getDescription() { return description; }
-    public void setDescription(String description) { this.description = description; }
+    private synchronized void loadDescription() {
+        if (descriptionLoaded) {
+            return;
+        }
+        String sql = "SELECT description FROM movies WHERE id = ?";
+        
+        try (PreparedStatement pstmt = DatabaseManager.getInstance().getConnection().prepareStatement(sql)) {
+            pstmt.setInt(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    description = rs.getString("description");
+                }
+            }
+            descriptionLoaded = true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
     
     public String getPosterPath() { return posterPath; }
     public void setPosterPath(String posterPath) { this.posterPath = posterPath; }
     
+    public String getPosterHash() { return posterHash; }
+    public void setPosterHash(String posterHash) { this.posterHash = posterHash; }
+    
     public Timestamp getCreatedAt() { return createdAt; }
     public void setCreatedAt(Timestamp createdAt) { this.createdAt = createdAt; }
     
     // Database operations
     public boolean save() {
-        String sql = "INSERT INTO movies (title, genre, duration, rating, description, poster_path) VALUES (?, ?, ?, ?, ?, ?)";
-        
         try {
-            PreparedStatement pstmt = DatabaseManager.getInstance().getConnection().prepareStatement(sql);
-            pstmt.setString(1, title);
-            pstmt.setString(2, genre);
-            pstmt.setString(3, duration);
-            pstmt.setString(4, rating);
-            pstmt.setString(5, description);
-            pstmt.setString(6, posterPath);
+            PreparedStatement pstmt = DatabaseManager.getInstance().getConnection().prepareStatement(INSERT_SQL);
+            bindInsert(pstmt);
             
             int rowsAffected = pstmt.executeUpdate();
             
@@ -97,24 +142,263 @@ public class Movie {
         return false;
     }
     
+    private static final String INSERT_SQL =
+        "INSERT INTO movies (title, genre, duration, rating, description, poster_path, poster_hash, " +
+        "runtime_minutes, score_tenths, certification) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private void bindInsert(PreparedStatement pstmt) throws SQLException {
+        pstmt.setString(1, title);
+        pstmt.setString(2, genre);
+        pstmt.setString(3, duration);
+        pstmt.setString(4, rating);
+        pstmt.setString(5, description);
+        pstmt.setString(6, posterPath);
+        pstmt.setString(7, posterHash);
+        bindTyped(pstmt, 8, runtimeMinutes, scoreTenths, certification);
+    }
+    
+    // Unknown runtime and score are stored as NULL so range queries skip them
+    public static void bindTyped(PreparedStatement pstmt, int index, int runtimeMinutes, int scoreTenths,
+                                 Certification certification) throws SQLException {
+        if (runtimeMinutes > 0) {
+            pstmt.setInt(index, runtimeMinutes);
+        } else {
+            pstmt.setNull(index, Types.INTEGER);
+        }
+        if (scoreTenths > 0) {
+            pstmt.setInt(index + 1, scoreTenths);
+        } else {
+            pstmt.setNull(index + 1, Types.INTEGER);
+        }
+        pstmt.setInt(index + 2, certification.getCode());
+    }
+    
+    // Accepts "2h 15m", "135 min" and plain "135"
+    public static int parseRuntimeMinutes(String duration) {
+        if (duration == null) {
+            return 0;
+        }
+        int total = 0;
+        int number = 0;
+        boolean sawDigit = false;
+        for (char c : duration.toLowerCase().toCharArray()) {
+            if (Character.isDigit(c)) {
+                number = number * 10 + (c - '0');
+                sawDigit = true;
+            } else if (c == 'h' && sawDigit) {
+                total += number * 60;
+                number = 0;
+                sawDigit = false;
+            } else if (c == 'm' && sawDigit) {
+                total += number;
+                number = 0;
+                sawDigit = false;
+            }
+        }
+        return sawDigit ? total + number : total;
+    }
+    
+    // "7.8" -> 78; certifications and unparsable text -> 0
+    public static int parseScoreTenths(String rating) {
+        if (rating == null) {
+            return 0;
+        }
+        try {
+            double score = Double.parseDouble(rating.trim());
+            return score > 0 && score <= 10 ? (int) Math.round(score * 10) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+    
+    /**
+     * Insert many movies in a single transaction using JDBC batches.
+     * Either every movie is stored or none is.
+     * @return number of movies inserted, or 0 if the transaction was rolled back
+     */
+    public static int saveAll(List<Movie> movies, int batchSize) {
+        if (movies.isEmpty()) {
+            return 0;
+        }
+        try {
+            return DatabaseManager.getInstance().inTransaction(connection -> {
+                try (PreparedStatement pstmt = connection.prepareStatement(INSERT_SQL)) {
+                    int pending = 0;
+                    for (Movie movie : movies) {
+                        movie.bindInsert(pstmt);
+                        pstmt.addBatch();
+                        if (++pending == batchSize) {
+                            pstmt.executeBatch();
+                            pending = 0;
+                        }
+                    }
+                    if (pending > 0) {
+                        pstmt.executeBatch();
+                    }
+                    return movies.size();
+                }
+            });
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return 0;
+    }
+    
+    /**
+     * Detach a poster file that no longer exists.
+     * Movies without bookings are removed; movies with bookings keep their history
+     * and simply lose the poster.
+     * @return true if any movie changed
+     */
+    public static boolean removePoster(String posterPath) {
+        String deleteSql = "DELETE FROM movies WHERE poster_path = ? " +
+                           "AND id NOT IN (SELECT movie_id FROM bookings)";
+        String detachSql = "UPDATE movies SET poster_path = NULL, poster_hash = NULL WHERE poster_path = ?";
+        Connection connection = DatabaseManager.getInstance().getConnection();
+        
+        try (PreparedStatement delete = connection.prepareStatement(deleteSql);
+             PreparedStatement detach = connection.prepareStatement(detachSql)) {
+            delete.setString(1, posterPath);
+            detach.setString(1, posterPath);
+            return delete.executeUpdate() + detach.executeUpdate() > 0;
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+    
+    // Record new content for a poster file that was replaced in place
+    public static boolean updatePosterHash(String posterPath, String posterHash) {
+        String sql = "UPDATE movies SET poster_hash = ? WHERE poster_path = ?";
+        
+        try (PreparedStatement pstmt = DatabaseManager.getInstance().getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, posterHash);
+            pstmt.setString(2, posterPath);
+            return pstmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+    
+    // Record hashes for many poster paths in one transaction, e.g. to backfill older rows
+    public static int updatePosterHashes(Map<String, String> hashByPath) {
+        if (hashByPath.isEmpty()) {
+            return 0;
+        }
+        String sql = "UPDATE movies SET poster_hash = ? WHERE poster_path = ?";
+        try {
+            return DatabaseManager.getInstance().inTransaction(connection -> {
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    for (Map.Entry<String, String> entry : hashByPath.entrySet()) {
+                        pstmt.setString(1, entry.getValue());
+                        pstmt.setString(2, entry.getKey());
+                        pstmt.addBatch();
+                    }
+                    int updated = 0;
+                    for (int count : pstmt.executeBatch()) {
+                        updated += Math.max(count, 0);
+                    }
+                    return updated;
+                }
+            });
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return 0;
+    }
+    
+    // Lightweight projection used by the importer to detect movies already in the catalog
+    public static List<Movie> getImportKeys() {
+        List<Movie> movies = new ArrayList<>();
+        String sql = "SELECT title, poster_path, poster_hash FROM movies";
+        
+        try (Statement stmt = DatabaseManager.getInstance().getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            while (rs.next()) {
+                Movie movie = new Movie();
+                movie.setTitle(rs.getString("title"));
+                movie.setPosterPath(rs.getString("poster_path"));
+                movie.setPosterHash(rs.getString("poster_hash"));
+                movies.add(movie);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return movies;
+    }
+    
+    // Columns for list views; heavy ones such as description are left out
+    private static final String LIST_COLUMNS =
+        "id, title, genre, duration, rating, poster_path, poster_hash, created_at, " +
+        "runtime_minutes, score_tenths, certification";
+    
+    // Maps a movies row; typed columns are read as stored instead of re-parsing the text
+    private static Movie fromRow(ResultSet rs, boolean withDescription) throws SQLException {
+        Movie movie = new Movie();
+        movie.id = rs.getInt("id");
+        movie.title = rs.getString("title");
+        movie.genre = rs.getString("genre");
+        movie.duration = rs.getString("duration");
+        movie.rating = rs.getString("rating");
+        if (withDescription) {
+            movie.setDescription(rs.getString("description"));
+        }
+        movie.posterPath = rs.getString("poster_path");
+        movie.posterHash = rs.getString("poster_hash");
+        movie.createdAt = rs.getTimestamp("created_at");
+        movie.runtimeMinutes = rs.getInt("runtime_minutes");
+        movie.scoreTenths = rs.getInt("score_tenths");
+        movie.certification = Certification.fromCode(rs.getInt("certification"));
+        return movie;
+    }
+    
+    private static List<Movie> query(String sql, int... params) {
+        List<Movie> movies = new ArrayList<>();
+        
+        try (PreparedStatement pstmt = DatabaseManager.getInstance().getConnection().prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setInt(i + 1, params[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    movies.add(fromRow(rs, false));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return movies;
+    }
+    
+    // Shortest first
+    public static List<Movie> findByRuntime(int minMinutes, int maxMinutes) {
+        return query("SELECT " + LIST_COLUMNS + " FROM movies WHERE runtime_minutes BETWEEN ? AND ? ORDER BY runtime_minutes",
+                     minMinutes, maxMinutes);
+    }
+    
+    // Best scored first; movies without a score are left out
+    public static List<Movie> findByMinimumScore(int minScoreTenths) {
+        return query("SELECT " + LIST_COLUMNS + " FROM movies WHERE score_tenths >= ? ORDER BY score_tenths DESC",
+                     minScoreTenths);
+    }
+    
+    // Movies a viewer of this age may watch, including uncertified ones
+    public static List<Movie> findSuitableForAge(int age) {
+        return query("SELECT " + LIST_COLUMNS + " FROM movies WHERE certification <= ? ORDER BY title",
+                     Certification.strictestAllowed(age).getCode());
+    }
+    
     public static List<Movie> getAllMovies() {
         List<Movie> movies = new ArrayList<>();
-        String sql = "SELECT * FROM movies";
+        String sql = "SELECT " + LIST_COLUMNS + " FROM movies";
         
         try (Statement stmt = DatabaseManager.getInstance().getConnection().createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                movies.add(new Movie(
-                    rs.getInt("id"),
-                    rs.getString("title"),
-                    rs.getString("genre"),
-                    rs.getString("duration"),
-                    rs.getString("rating"),
-                    rs.getString("description"),
-                    rs.getString("poster_path"),
-                    rs.getTimestamp("created_at")
-                ));
+                movies.add(fromRow(rs, false));
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -130,16 +414,7 @@ public class Movie {
             ResultSet rs = pstmt.executeQuery();
             
             if (rs.next()) {
-                return new Movie(
-                    rs.getInt("id"),
-                    rs.getString("title"),
-                    rs.getString("genre"),
-                    rs.getString("duration"),
-                    rs.getString("rating"),
-                    rs.getString("description"),
-                    rs.getString("poster_path"),
-                    rs.getTimestamp("created_at")
-                );
+                return fromRow(rs, true);
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -147,25 +422,52 @@ public class Movie {
         return null;
     }
     
+    // SQLite allows 999 parameters per statement
+    private static final int MAX_IDS_PER_QUERY = 900;
+    
+    /**
+     * Load several movies with one IN (...) query per 900 ids.
+     * @return movies keyed by id; ids that do not exist are absent
+     */
+    public static Map<Integer, Movie> findByIds(int[] ids) {
+        Map<Integer, Movie> movies = new HashMap<>();
+        Connection connection = DatabaseManager.getInstance().getConnection();
+        
+        for (int from = 0; from < ids.length; from += MAX_IDS_PER_QUERY) {
+            int to = Math.min(ids.length, from + MAX_IDS_PER_QUERY);
+            StringBuilder sql = new StringBuilder("SELECT " + LIST_COLUMNS + " FROM movies WHERE id IN (");
+            for (int i = from; i < to; i++) {
+                sql.append(i == from ? "?" : ", ?");
+            }
+            sql.append(")");
+            
+            try (PreparedStatement pstmt = connection.prepareStatement(sql.toString())) {
+                for (int i = from; i < to; i++) {
+                    pstmt.setInt(i - from + 1, ids[i]);
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        Movie movie = fromRow(rs, false);
+                        movies.put(movie.getId(), movie);
+                    }
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+        return movies;
+    }
+    
     public static List<Movie> searchByTitle(String searchTerm) {
         List<Movie> movies = new ArrayList<>();
-        String sql = "SELECT * FROM movies WHERE title LIKE ?";
+        String sql = "SELECT " + LIST_COLUMNS + " FROM movies WHERE title LIKE ?";
         
         try (PreparedStatement pstmt = DatabaseManager.getInstance().getConnection().prepareStatement(sql)) {
             pstmt.setString(1, "%" + searchTerm + "%");
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                movies.add(new Movie(
-                    rs.getInt("id"),
-                    rs.getString("title"),
-                    rs.getString("genre"),
-                    rs.getString("duration"),
-                    rs.getString("rating"),
-                    rs.getString("description"),
-                    rs.getString("poster_path"),
-                    rs.getTimestamp("created_at")
-                ));
+                movies.add(fromRow(rs, false));
             }
         } catch (SQLException e) {
             e.printStackTrace();
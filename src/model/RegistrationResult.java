@@ -0,0 +1,25 @@
+package model;
+
+/**
+ * Outcome of registering a user.
+ */
+public enum RegistrationResult {
+    SUCCESS("Registration successful! Please login to continue."),
+    EMAIL_TAKEN("An account with this email address already exists."),
+    USERNAME_TAKEN("This username is already taken."),
+    FAILED("Registration failed! Please try again later.");
+
+    private final String message;
+
+    RegistrationResult(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isSuccess() {
+        return this == SUCCESS;
+    }
+}
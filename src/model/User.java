@@ -51,42 +51,118 @@ public class User {
     
     // Database operations
     public boolean save() {
+        return register().isSuccess();
+    }
+    
+    /**
+     * Insert the user in a single statement.
+     * Duplicates are detected by the UNIQUE constraints on email and username,
+     * so concurrent sign-ups cannot both succeed.
+     */
+    public RegistrationResult register() {
         String sql = "INSERT INTO users (name, email, username, password) VALUES (?, ?, ?, ?)";
         
-        try {
-            PreparedStatement pstmt = DatabaseManager.getInstance().getConnection().prepareStatement(sql);
+        try (PreparedStatement pstmt = DatabaseManager.getInstance().getConnection()
+                .prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             pstmt.setString(1, name);
             pstmt.setString(2, email);
             pstmt.setString(3, username);
             pstmt.setString(4, password);
+            pstmt.executeUpdate();
             
-            int rowsAffected = pstmt.executeUpdate();
-            
-            if (rowsAffected > 0) {
-                // Get the last inserted ID using SQLite's last_insert_rowid()
-                Statement stmt = DatabaseManager.getInstance().getConnection().createStatement();
-                ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()");
-                if (rs.next()) {
-                    this.id = rs.getInt(1);
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    this.id = keys.getInt(1);
                 }
-                rs.close();
-                stmt.close();
-                pstmt.close();
-                return true;
             }
-            pstmt.close();
+            return RegistrationResult.SUCCESS;
+        } catch (SQLException e) {
+            RegistrationResult result = classifyConstraintViolation(e);
+            if (result == RegistrationResult.FAILED) {
+                e.printStackTrace();
+            }
+            return result;
+        }
+    }
+    
+    // SQLite reports e.g. "UNIQUE constraint failed: users.email"
+    static RegistrationResult classifyConstraintViolation(SQLException e) {
+        String message = e.getMessage();
+        if (message == null || !message.contains("UNIQUE constraint failed")) {
+            return RegistrationResult.FAILED;
+        }
+        if (message.contains("users.email")) {
+            return RegistrationResult.EMAIL_TAKEN;
+        }
+        if (message.contains("users.username")) {
+            return RegistrationResult.USERNAME_TAKEN;
+        }
+        return RegistrationResult.FAILED;
+    }
+    
+    // Replace the stored password, e.g. when a legacy plaintext password is upgraded to a hash
+    public static boolean updatePassword(int userId, String password) {
+        String sql = "UPDATE users SET password = ? WHERE id = ?";
+        
+        try (PreparedStatement pstmt = DatabaseManager.getInstance().getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, password);
+            pstmt.setInt(2, userId);
+            return pstmt.executeUpdate() > 0;
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return false;
     }
     
-    public static User findByEmailAndPassword(String email, String password) {
-        String sql = "SELECT * FROM users WHERE email = ? AND password = ?";
+    // Stream every username and email without materializing users, e.g. to build lookup filters
+    public static int forEachIdentity(java.util.function.BiConsumer<String, String> consumer) {
+        return forEachIdentityAfter(0, consumer);
+    }
+    
+    // Same for users with an id above afterId; ids only grow, so this finds users added since then
+    public static int forEachIdentityAfter(int afterId, java.util.function.BiConsumer<String, String> consumer) {
+        String sql = "SELECT username, email FROM users WHERE id > ?";
+        int count = 0;
         
         try (PreparedStatement pstmt = DatabaseManager.getInstance().getConnection().prepareStatement(sql)) {
-            pstmt.setString(1, email);
-            pstmt.setString(2, password);
+            pstmt.setInt(1, afterId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(rs.getString("username"), rs.getString("email"));
+                    count++;
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return count;
+    }
+    
+    public static int maxId() {
+        try (Statement stmt = DatabaseManager.getInstance().getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) FROM users")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return 0;
+    }
+    
+    public static int count() {
+        try (Statement stmt = DatabaseManager.getInstance().getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM users")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return 0;
+    }
+    
+    public static User findById(int id) {
+        String sql = "SELECT * FROM users WHERE id = ?";
+        
+        try (PreparedStatement pstmt = DatabaseManager.getInstance().getConnection().prepareStatement(sql)) {
+            pstmt.setInt(1, id);
             
             ResultSet rs = pstmt.executeQuery();
             
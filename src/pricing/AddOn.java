@@ -0,0 +1,64 @@
+package pricing;
+
+/**
+ * Ticket extras that can be priced by the {@link PriceTable}.
+ * Each add-on is one bit of a cart's add-on mask. Per-booking extras are charged
+ * once however many seats are booked; all others are charged per seat.
+ */
+public enum AddOn {
+    POPCORN_SMALL("Popcorn & Drink Combo (Small)", 599, true),
+    POPCORN_MEDIUM("Popcorn & Drink Combo (Medium)", 799, true),
+    POPCORN_LARGE("Popcorn & Drink Combo (Large)", 999, true),
+    THREE_D_GLASSES("3D Glasses", 350, false),
+    PREMIUM_SEAT("Premium Reclining Seat", 500, false),
+    VIP_LOUNGE("VIP Lounge Access", 1500, false),
+    RESERVED_PARKING("Reserved Parking", 500, false),
+    MEAL_SNACK("Snack Meal Voucher", 899, false),
+    MEAL_DINNER("Dinner Meal Voucher", 1599, false),
+    MEAL_DELUXE("Deluxe Meal Voucher", 2299, false),
+    INSURANCE("Cancellation Insurance", 250, false);
+
+    private final String label;
+    private final long defaultCents;
+    private final boolean perBooking;
+
+    AddOn(String label, long defaultCents, boolean perBooking) {
+        this.label = label;
+        this.defaultCents = defaultCents;
+        this.perBooking = perBooking;
+    }
+
+    public String getLabel() { return label; }
+    public long getDefaultCents() { return defaultCents; }
+    public boolean isPerBooking() { return perBooking; }
+
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    public boolean isIn(int addOnMask) {
+        return (addOnMask & mask()) != 0;
+    }
+
+    // Unknown sizes fall back to medium, as the combo decorator always did
+    public static AddOn popcornCombo(String size) {
+        if (size != null) {
+            switch (size.toLowerCase()) {
+                case "small": return POPCORN_SMALL;
+                case "large": return POPCORN_LARGE;
+            }
+        }
+        return POPCORN_MEDIUM;
+    }
+
+    // Unknown meal types fall back to a snack
+    public static AddOn mealVoucher(String mealType) {
+        if (mealType != null) {
+            switch (mealType.toLowerCase()) {
+                case "dinner": return MEAL_DINNER;
+                case "deluxe": return MEAL_DELUXE;
+            }
+        }
+        return MEAL_SNACK;
+    }
+}
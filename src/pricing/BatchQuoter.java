@@ -0,0 +1,262 @@
+package pricing;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * What-if pricing: quotes a large number of carts under a baseline and a
+ * proposed {@link Scenario} and adds up the revenue difference per movie and
+ * per theater type.
+ * Carts that carry the amount actually paid use it as their baseline revenue,
+ * and the proposal moves it by the list-price difference between the scenarios,
+ * so demand pricing, promotions and fees already in the paid amount are kept.
+ * Carts are buffered into chunks, and each chunk is split recursively across a
+ * fork-join pool while the caller keeps feeding the next ones. Only a few chunks
+ * are in flight at a time, so memory stays bounded however many carts there are.
+ */
+public class BatchQuoter {
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int LEAF_SIZE = 4 * 1024;
+
+    // Prices one cart: base seat price, multiplier per theater type, add-on table
+    public static final class Scenario {
+        private final PriceTable table;
+        private final long seatBaseCents;
+        private final long[] seatCentsByTheater;
+
+        public Scenario(PriceTable table, long seatBaseCents, double[] theaterMultipliers) {
+            this.table = table;
+            this.seatBaseCents = seatBaseCents;
+            this.seatCentsByTheater = new long[theaterMultipliers.length];
+            for (int i = 0; i < theaterMultipliers.length; i++) {
+                seatCentsByTheater[i] = PriceTable.seatCents(seatBaseCents, theaterMultipliers[i]);
+            }
+        }
+
+        public long quote(int theaterType, int addOnMask, int seats) {
+            long seatCents = theaterType >= 0 && theaterType < seatCentsByTheater.length
+                ? seatCentsByTheater[theaterType] : seatBaseCents;
+            return table.quoteSeatTotal(seatCents * seats, addOnMask, seats);
+        }
+    }
+
+    // One cart to re-price; theaterType indexes the scenarios' multiplier arrays
+    public static final class Cart {
+        final int movieId;
+        final int theaterType;
+        final int addOnMask;
+        final int seats;
+        final long paidCents;
+
+        // Without a paid amount the baseline scenario's quote stands in for it
+        public Cart(int movieId, int theaterType, int addOnMask, int seats) {
+            this(movieId, theaterType, addOnMask, seats, -1);
+        }
+
+        public Cart(int movieId, int theaterType, int addOnMask, int seats, long paidCents) {
+            this.movieId = movieId;
+            this.theaterType = theaterType;
+            this.addOnMask = addOnMask;
+            this.seats = seats;
+            this.paidCents = paidCents;
+        }
+    }
+
+    // Revenue of a group of carts under both scenarios
+    public static final class Totals {
+        private long carts;
+        private long baselineCents;
+        private long proposedCents;
+
+        void add(long baseline, long proposed) {
+            carts++;
+            baselineCents += baseline;
+            proposedCents += proposed;
+        }
+
+        void merge(Totals other) {
+            carts += other.carts;
+            baselineCents += other.baselineCents;
+            proposedCents += other.proposedCents;
+        }
+
+        public long getCarts() { return carts; }
+        public long getBaselineCents() { return baselineCents; }
+        public long getProposedCents() { return proposedCents; }
+        public long getDeltaCents() { return proposedCents - baselineCents; }
+
+        public double getDeltaPercent() {
+            return baselineCents == 0 ? 0 : getDeltaCents() * 100.0 / baselineCents;
+        }
+
+        StringBuilder appendTo(StringBuilder sb) {
+            sb.append(carts).append(" carts, ");
+            Money.appendTo(sb, baselineCents).append(" -> ");
+            Money.appendTo(sb, proposedCents).append(" (");
+            if (getDeltaCents() >= 0) {
+                sb.append('+');
+            }
+            Money.appendTo(sb, getDeltaCents());
+            return sb.append(String.format(", %+.2f%%)", getDeltaPercent()));
+        }
+    }
+
+    public static final class Report {
+        private final Totals overall = new Totals();
+        private final Map<Integer, Totals> byMovie = new HashMap<>();
+        private final Map<Integer, Totals> byTheaterType = new HashMap<>();
+        private long elapsedNanos;
+
+        void add(Cart cart, long baseline, long proposed) {
+            overall.add(baseline, proposed);
+            byMovie.computeIfAbsent(cart.movieId, k -> new Totals()).add(baseline, proposed);
+            byTheaterType.computeIfAbsent(cart.theaterType, k -> new Totals()).add(baseline, proposed);
+        }
+
+        void merge(Report other) {
+            overall.merge(other.overall);
+            other.byMovie.forEach((k, v) -> byMovie.computeIfAbsent(k, x -> new Totals()).merge(v));
+            other.byTheaterType.forEach((k, v) -> byTheaterType.computeIfAbsent(k, x -> new Totals()).merge(v));
+        }
+
+        public Totals getOverall() { return overall; }
+        public Map<Integer, Totals> getByMovie() { return byMovie; }
+        public Map<Integer, Totals> getByTheaterType() { return byTheaterType; }
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        // Theater types are printed with the given names, indexed like the multipliers
+        public String format(String[] theaterNames, Map<Integer, String> movieTitles) {
+            StringBuilder sb = new StringBuilder(1024);
+            overall.appendTo(sb.append("Overall: ")).append('\n');
+            sb.append(String.format("Quoted in %.2f s (%.0f carts/s)%n", elapsedNanos / 1e9,
+                                    elapsedNanos == 0 ? 0 : overall.carts * 1e9 / elapsedNanos));
+            sb.append("\nBy theater type:\n");
+            new TreeMap<>(byTheaterType).forEach((type, totals) -> {
+                String name = type >= 0 && type < theaterNames.length ? theaterNames[type] : "#" + type;
+                totals.appendTo(sb.append("  ").append(name).append(": ")).append('\n');
+            });
+            sb.append("\nBy movie:\n");
+            new TreeMap<>(byMovie).forEach((movieId, totals) -> {
+                String title = movieTitles.getOrDefault(movieId, "Movie #" + movieId);
+                totals.appendTo(sb.append("  ").append(title).append(": ")).append('\n');
+            });
+            return sb.toString();
+        }
+    }
+
+    // Quotes a slice of a chunk, splitting until slices are small
+    private static final class QuoteTask extends RecursiveTask<Report> {
+        private static final long serialVersionUID = 1L;
+
+        private final Scenario baseline;
+        private final Scenario proposed;
+        private final Cart[] carts;
+        private final int from;
+        private final int to;
+
+        QuoteTask(Scenario baseline, Scenario proposed, Cart[] carts, int from, int to) {
+            this.baseline = baseline;
+            this.proposed = proposed;
+            this.carts = carts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Report compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                QuoteTask left = new QuoteTask(baseline, proposed, carts, from, mid);
+                left.fork();
+                Report report = new QuoteTask(baseline, proposed, carts, mid, to).compute();
+                report.merge(left.join());
+                return report;
+            }
+            Report report = new Report();
+            for (int i = from; i < to; i++) {
+                Cart cart = carts[i];
+                long before = baseline.quote(cart.theaterType, cart.addOnMask, cart.seats);
+                long after = proposed.quote(cart.theaterType, cart.addOnMask, cart.seats);
+                if (cart.paidCents >= 0) {
+                    report.add(cart, cart.paidCents, cart.paidCents + after - before);
+                } else {
+                    report.add(cart, before, after);
+                }
+            }
+            return report;
+        }
+    }
+
+    /**
+     * One batch run: feed carts with {@link #accept}, then call {@link #finish}.
+     * Not thread-safe; feed from one thread.
+     */
+    public final class Run {
+        private final Deque<ForkJoinTask<Report>> inFlight = new ArrayDeque<>();
+        private final Report report = new Report();
+        private final long start = System.nanoTime();
+        private Cart[] chunk = new Cart[CHUNK_SIZE];
+        private int size;
+
+        public void accept(Cart cart) {
+            chunk[size++] = cart;
+            if (size == CHUNK_SIZE) {
+                submitChunk();
+            }
+        }
+
+        public Report finish() {
+            if (size > 0) {
+                submitChunk();
+            }
+            while (!inFlight.isEmpty()) {
+                report.merge(inFlight.removeFirst().join());
+            }
+            report.elapsedNanos = System.nanoTime() - start;
+            return report;
+        }
+
+        private void submitChunk() {
+            // Keep the pool busy while bounding the chunks held in memory
+            while (inFlight.size() >= maxInFlight) {
+                report.merge(inFlight.removeFirst().join());
+            }
+            inFlight.addLast(pool.submit(new QuoteTask(baseline, proposed, chunk, 0, size)));
+            chunk = new Cart[CHUNK_SIZE];
+            size = 0;
+        }
+    }
+
+    private final Scenario baseline;
+    private final Scenario proposed;
+    private final ForkJoinPool pool;
+    private final int maxInFlight;
+
+    public BatchQuoter(Scenario baseline, Scenario proposed) {
+        this(baseline, proposed, ForkJoinPool.commonPool());
+    }
+
+    public BatchQuoter(Scenario baseline, Scenario proposed, ForkJoinPool pool) {
+        this.baseline = baseline;
+        this.proposed = proposed;
+        this.pool = pool;
+        this.maxInFlight = Math.max(2, pool.getParallelism());
+    }
+
+    public Run start() {
+        return new Run();
+    }
+
+    public Report run(Stream<Cart> carts) {
+        Run run = start();
+        carts.forEachOrdered(run::accept);
+        return run.finish();
+    }
+}
@@ -0,0 +1,90 @@
+package pricing;
+
+/**
+ * Per-seat price of a showing adjusted by three factors, each in basis points:
+ * how full the showing is (from the live {@code core.SeatInventory}), how soon
+ * it starts, and which zone of the theater's layout the seat is in. The factors
+ * are multiplied in integer arithmetic and rounded once.
+ */
+public final class DemandPricing {
+    private DemandPricing() {}
+
+    // Pass when the showtime is not known; the time factor is then neutral
+    public static final long UNKNOWN_SHOWTIME = Long.MIN_VALUE;
+
+    // Occupancy bands: below each percent the matching factor applies
+    private static final int[] OCCUPANCY_BAND_LIMITS = { 30, 60, 85, 101 };
+    private static final int[] OCCUPANCY_FACTORS = { 9_000, 10_000, 11_500, 13_000 };
+
+    // Minutes to showtime: early bookings are cheaper, the last hours dearer
+    private static final long EARLY_BIRD_MINUTES = 7 * 24 * 60;
+    private static final long LAST_MINUTE_MINUTES = 3 * 60;
+    private static final int[] SHOWTIME_FACTORS = { 9_500, 10_000, 11_000 };  // early, regular, last minute
+
+    public enum SeatZone {
+        FRONT(8_500), MIDDLE(11_000), BACK(10_000);
+
+        private final int factor;
+
+        SeatZone(int factor) {
+            this.factor = factor;
+        }
+
+        public int getFactor() { return factor; }
+
+        // First quarter of the rows is front, last quarter back
+        public static SeatZone forRow(int row, int rows) {
+            if (row < rows / 4) {
+                return FRONT;
+            }
+            return row >= rows - rows / 4 ? BACK : MIDDLE;
+        }
+    }
+
+    // Index of the occupancy band a percentage falls in
+    public static int occupancyBand(int occupancyPercent) {
+        for (int i = 0; i < OCCUPANCY_BAND_LIMITS.length - 1; i++) {
+            if (occupancyPercent < OCCUPANCY_BAND_LIMITS[i]) {
+                return i;
+            }
+        }
+        return OCCUPANCY_BAND_LIMITS.length - 1;
+    }
+
+    // 0 early bird, 1 regular (also when unknown), 2 last minute
+    public static int showtimeBand(long minutesToShowtime) {
+        if (minutesToShowtime == UNKNOWN_SHOWTIME) {
+            return 1;
+        }
+        if (minutesToShowtime >= EARLY_BIRD_MINUTES) {
+            return 0;
+        }
+        return minutesToShowtime < LAST_MINUTE_MINUTES ? 2 : 1;
+    }
+
+    public static int occupancyFactor(int occupancyPercent) {
+        return OCCUPANCY_FACTORS[occupancyBand(occupancyPercent)];
+    }
+
+    public static int showtimeFactor(long minutesToShowtime) {
+        return SHOWTIME_FACTORS[showtimeBand(minutesToShowtime)];
+    }
+
+    // base * occupancy * time * zone, rounded half-up to the cent
+    public static long seatCents(long baseCents, int occupancyPercent, long minutesToShowtime, SeatZone zone) {
+        return bandSeatCents(baseCents, occupancyBand(occupancyPercent), showtimeBand(minutesToShowtime), zone);
+    }
+
+    public static long bandSeatCents(long baseCents, int occupancyBand, int showtimeBand, SeatZone zone) {
+        long factor = (long) OCCUPANCY_FACTORS[occupancyBand] * SHOWTIME_FACTORS[showtimeBand] * zone.getFactor();
+        return (baseCents * factor + 500_000_000_000L) / 1_000_000_000_000L;
+    }
+
+    // Seats counted per zone, as in a cart shape
+    public static long bandSeatTotalCents(long baseCents, int occupancyBand, int showtimeBand,
+                                          int front, int middle, int back) {
+        return front * bandSeatCents(baseCents, occupancyBand, showtimeBand, SeatZone.FRONT)
+             + middle * bandSeatCents(baseCents, occupancyBand, showtimeBand, SeatZone.MIDDLE)
+             + back * bandSeatCents(baseCents, occupancyBand, showtimeBand, SeatZone.BACK);
+    }
+}
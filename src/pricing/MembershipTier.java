@@ -0,0 +1,14 @@
+package pricing;
+
+import java.util.Locale;
+
+/**
+ * Customer categories promotions can target.
+ */
+public enum MembershipTier {
+    NONE, STUDENT, SENIOR, SILVER, GOLD;
+
+    public static MembershipTier parse(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
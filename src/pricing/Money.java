@@ -0,0 +1,48 @@
+package pricing;
+
+/**
+ * Money is carried as a long number of cents from pricing through to the
+ * bookings table and payment. This class holds the few operations needed on
+ * those amounts: rates in basis points with half-up rounding, and formatting.
+ * {@link #appendTo} writes into the caller's StringBuilder, so formatting a
+ * receipt or report line creates no intermediate strings.
+ */
+public final class Money {
+    private Money() {}
+
+    // Boundary conversion for values that arrive as decimal dollars
+    public static long ofDollars(double dollars) {
+        return Math.round(dollars * 100);
+    }
+
+    // A rate such as 0.15 as basis points (1500)
+    public static int basisPoints(double rate) {
+        return (int) Math.round(rate * 10_000);
+    }
+
+    // cents * basisPoints / 10000, rounded half away from zero
+    public static long applyRate(long cents, int basisPoints) {
+        long scaled = cents * basisPoints;
+        return scaled >= 0 ? (scaled + 5_000) / 10_000 : (scaled - 5_000) / 10_000;
+    }
+
+    // Appends e.g. "$1234.50" or "-$0.99"
+    public static StringBuilder appendTo(StringBuilder sb, long cents) {
+        long dollars = cents / 100;
+        long rest = cents % 100;
+        if (cents < 0) {
+            sb.append('-');
+            dollars = -dollars;
+            rest = -rest;
+        }
+        sb.append('$').append(dollars).append('.');
+        if (rest < 10) {
+            sb.append('0');
+        }
+        return sb.append(rest);
+    }
+
+    public static String format(long cents) {
+        return appendTo(new StringBuilder(16), cents).toString();
+    }
+}
@@ -0,0 +1,98 @@
+package pricing;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Immutable add-on prices compiled for quoting.
+ * Every possible add-on mask is summed up front, split into the per-seat and the
+ * per-booking part, so a quote is two array reads and a little arithmetic: no
+ * objects, strings or branches per add-on. All amounts are in cents.
+ */
+public final class PriceTable {
+    // Standard seat before the theater multiplier
+    public static final long DEFAULT_SEAT_CENTS = 1500;
+
+    private static final int MASK_COUNT = 1 << AddOn.values().length;
+
+    private final long[] addOnCents;       // by ordinal
+    private final long[] perSeatByMask;
+    private final long[] perBookingByMask;
+
+    private PriceTable(long[] addOnCents) {
+        this.addOnCents = addOnCents;
+        this.perSeatByMask = new long[MASK_COUNT];
+        this.perBookingByMask = new long[MASK_COUNT];
+        // Each mask is a smaller mask plus its lowest add-on
+        for (int mask = 1; mask < MASK_COUNT; mask++) {
+            int lowest = Integer.numberOfTrailingZeros(mask);
+            int rest = mask & (mask - 1);
+            perSeatByMask[mask] = perSeatByMask[rest];
+            perBookingByMask[mask] = perBookingByMask[rest];
+            if (AddOn.values()[lowest].isPerBooking()) {
+                perBookingByMask[mask] += addOnCents[lowest];
+            } else {
+                perSeatByMask[mask] += addOnCents[lowest];
+            }
+        }
+    }
+
+    public static PriceTable defaults() {
+        return compile(new EnumMap<>(AddOn.class));
+    }
+
+    // Add-ons missing from the map keep their default price
+    public static PriceTable compile(Map<AddOn, Long> prices) {
+        AddOn[] addOns = AddOn.values();
+        long[] cents = new long[addOns.length];
+        for (AddOn addOn : addOns) {
+            Long price = prices.get(addOn);
+            cents[addOn.ordinal()] = price != null ? price : addOn.getDefaultCents();
+            if (cents[addOn.ordinal()] < 0) {
+                throw new IllegalArgumentException("Negative price for " + addOn + ": " + cents[addOn.ordinal()]);
+            }
+        }
+        return new PriceTable(cents);
+    }
+
+    // A copy of this table with one add-on repriced
+    public PriceTable withPrice(AddOn addOn, long cents) {
+        Map<AddOn, Long> prices = new EnumMap<>(AddOn.class);
+        for (AddOn a : AddOn.values()) {
+            prices.put(a, addOnCents[a.ordinal()]);
+        }
+        prices.put(addOn, cents);
+        return compile(prices);
+    }
+
+    public long priceOf(AddOn addOn) {
+        return addOnCents[addOn.ordinal()];
+    }
+
+    // Seat price after the theater multiplier, rounded to the cent
+    public static long seatCents(long baseCents, double theaterMultiplier) {
+        return Math.round(baseCents * theaterMultiplier);
+    }
+
+    // Extras only: per-seat add-ons for every seat plus per-booking add-ons once
+    public long addOnCents(int addOnMask, int seats) {
+        if (seats <= 0) {
+            return 0;
+        }
+        return perSeatByMask[addOnMask] * seats + perBookingByMask[addOnMask];
+    }
+
+    // Whole cart when seats are priced individually (see DemandPricing)
+    public long quoteSeatTotal(long seatTotalCents, int addOnMask, int seats) {
+        return addOnCents(addOnMask, seats) + (seats <= 0 ? 0 : seatTotalCents);
+    }
+
+    // Whole cart: seats at the multiplied base price plus extras
+    public long quote(long baseCents, double theaterMultiplier, int addOnMask, int seats) {
+        if (seats <= 0) {
+            return 0;
+        }
+        return (seatCents(baseCents, theaterMultiplier) + perSeatByMask[addOnMask]) * seats
+               + perBookingByMask[addOnMask];
+    }
+}
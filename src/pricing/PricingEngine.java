@@ -0,0 +1,40 @@
+package pricing;
+
+/**
+ * Singleton Pattern: PricingEngine
+ * Holds the current compiled {@link PriceTable}. Quotes read the table through a
+ * volatile field, so a new price list can be swapped in without locking.
+ * Swapping invalidates the {@link QuoteCache}.
+ */
+public class PricingEngine {
+    private static PricingEngine instance;
+
+    private volatile PriceTable table;
+
+    private PricingEngine() {
+        this.table = PriceTable.defaults();
+    }
+
+    public static synchronized PricingEngine getInstance() {
+        if (instance == null) {
+            instance = new PricingEngine();
+        }
+        return instance;
+    }
+
+    public PriceTable getTable() {
+        return table;
+    }
+
+    public void setTable(PriceTable table) {
+        if (table == null) {
+            throw new IllegalArgumentException("Price table is required");
+        }
+        this.table = table;
+        QuoteCache.getInstance().invalidate();
+    }
+
+    public long quote(long baseCents, double theaterMultiplier, int addOnMask, int seats) {
+        return table.quote(baseCents, theaterMultiplier, addOnMask, seats);
+    }
+}
@@ -0,0 +1,34 @@
+package pricing;
+
+import java.time.DayOfWeek;
+import java.util.Locale;
+
+/**
+ * The facts about a cart that promotion rules are matched against.
+ * Null or zero means the fact is unknown, and rules needing it do not apply.
+ */
+public final class PromotionContext {
+    private final String promoCode;
+    private final DayOfWeek day;
+    private final int groupSize;
+    private final MembershipTier tier;
+    private final String theaterType;
+    private final long subtotalCents;
+
+    public PromotionContext(String promoCode, DayOfWeek day, int groupSize,
+                            MembershipTier tier, String theaterType, long subtotalCents) {
+        this.promoCode = promoCode == null || promoCode.trim().isEmpty() ? null : promoCode.trim().toUpperCase(Locale.ROOT);
+        this.day = day;
+        this.groupSize = groupSize;
+        this.tier = tier == null ? MembershipTier.NONE : tier;
+        this.theaterType = theaterType == null ? null : theaterType.toLowerCase();
+        this.subtotalCents = subtotalCents;
+    }
+
+    public String getPromoCode() { return promoCode; }
+    public DayOfWeek getDay() { return day; }
+    public int getGroupSize() { return groupSize; }
+    public MembershipTier getTier() { return tier; }
+    public String getTheaterType() { return theaterType; }
+    public long getSubtotalCents() { return subtotalCents; }
+}
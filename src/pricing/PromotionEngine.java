@@ -0,0 +1,264 @@
+package pricing;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Singleton Pattern: PromotionEngine
+ * Chooses the discount for a cart from a set of {@link PromotionRule}s.
+ * Rules are indexed by their most selective condition (promo code, membership
+ * tier, theater type, weekday, then minimum group size), so a cart only looks at
+ * the rules filed under its own code, tier, theater and day, the group rules it
+ * is large enough for, and rules without conditions.
+ * Matching stackable rules add up (best rule per group), capped at
+ * {@code promo.maxDiscountPercent} (default 50) of the subtotal; an exclusive
+ * rule wins instead when it saves more.
+ * Rules are read from {@code promo.rules} (default assets/promotions.txt) when
+ * that file exists, otherwise the built-in rules below are used.
+ */
+public class PromotionEngine {
+    private static final String[] DEFAULT_RULES = {
+        "student: name=Student Discount; tier=STUDENT; percent=15; group=identity",
+        "senior: name=Senior Discount; tier=SENIOR; percent=20; group=identity",
+        "group5: name=Group Discount (5+); minGroup=5; percent=10; group=group-size",
+        "group10: name=Group Discount (10+); minGroup=10; percent=15; group=group-size",
+        "weekday: name=Weekday Discount; days=MON,TUE,WED,THU; percent=10",
+    };
+
+    private static PromotionEngine instance;
+
+    // Immutable index of one rule set
+    private static final class RuleIndex {
+        private static final PromotionRule[] EMPTY = new PromotionRule[0];
+
+        final int size;
+        final Map<String, PromotionRule[]> byCode = new HashMap<>();
+        final Map<MembershipTier, PromotionRule[]> byTier = new EnumMap<>(MembershipTier.class);
+        final Map<String, PromotionRule[]> byTheater = new HashMap<>();
+        final PromotionRule[][] byDay = new PromotionRule[DayOfWeek.values().length][];
+        final PromotionRule[] byGroupSize;   // ascending minimum size
+        final int[] groupSizes;
+        final PromotionRule[] unconditional;
+        final Map<String, Integer> codeIds = new HashMap<>();  // 1..n, for cart keys
+
+        RuleIndex(List<PromotionRule> rules) {
+            this.size = rules.size();
+            Map<String, List<PromotionRule>> codes = new HashMap<>();
+            Map<MembershipTier, List<PromotionRule>> tiers = new EnumMap<>(MembershipTier.class);
+            Map<String, List<PromotionRule>> theaters = new HashMap<>();
+            List<List<PromotionRule>> days = new ArrayList<>();
+            for (int i = 0; i < byDay.length; i++) {
+                days.add(new ArrayList<>());
+            }
+            List<PromotionRule> groups = new ArrayList<>();
+            List<PromotionRule> others = new ArrayList<>();
+
+            for (PromotionRule rule : rules) {
+                if (rule.getCode() != null) {
+                    codes.computeIfAbsent(rule.getCode(), k -> new ArrayList<>()).add(rule);
+                } else if (rule.getTier() != null) {
+                    tiers.computeIfAbsent(rule.getTier(), k -> new ArrayList<>()).add(rule);
+                } else if (rule.getTheaterType() != null) {
+                    theaters.computeIfAbsent(rule.getTheaterType(), k -> new ArrayList<>()).add(rule);
+                } else if (rule.getDayMask() != 0) {
+                    for (int d = 0; d < byDay.length; d++) {
+                        if ((rule.getDayMask() & (1 << d)) != 0) {
+                            days.get(d).add(rule);
+                        }
+                    }
+                } else if (rule.getMinGroupSize() > 0) {
+                    groups.add(rule);
+                } else {
+                    others.add(rule);
+                }
+            }
+            codes.forEach((k, v) -> byCode.put(k, v.toArray(EMPTY)));
+            for (String code : new TreeSet<>(codes.keySet())) {
+                codeIds.put(code, codeIds.size() + 1);
+            }
+            tiers.forEach((k, v) -> byTier.put(k, v.toArray(EMPTY)));
+            theaters.forEach((k, v) -> byTheater.put(k, v.toArray(EMPTY)));
+            for (int d = 0; d < byDay.length; d++) {
+                byDay[d] = days.get(d).toArray(EMPTY);
+            }
+            groups.sort(Comparator.comparingInt(PromotionRule::getMinGroupSize));
+            this.byGroupSize = groups.toArray(EMPTY);
+            this.groupSizes = new int[byGroupSize.length];
+            for (int i = 0; i < byGroupSize.length; i++) {
+                groupSizes[i] = byGroupSize[i].getMinGroupSize();
+            }
+            this.unconditional = others.toArray(EMPTY);
+        }
+
+        void collectCandidates(PromotionContext context, List<PromotionRule> out) {
+            addAll(out, context.getPromoCode() == null ? null : byCode.get(context.getPromoCode()));
+            addAll(out, byTier.get(context.getTier()));
+            addAll(out, context.getTheaterType() == null ? null : byTheater.get(context.getTheaterType()));
+            addAll(out, context.getDay() == null ? null : byDay[context.getDay().ordinal()]);
+            // Rules whose minimum group size is at most the cart's
+            int eligible = upperBound(groupSizes, context.getGroupSize());
+            for (int i = 0; i < eligible; i++) {
+                out.add(byGroupSize[i]);
+            }
+            addAll(out, unconditional);
+        }
+
+        private static void addAll(List<PromotionRule> out, PromotionRule[] rules) {
+            if (rules != null) {
+                out.addAll(Arrays.asList(rules));
+            }
+        }
+
+        // Number of values <= key in a sorted array
+        private static int upperBound(int[] values, int key) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] <= key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private final int maxDiscountBasisPoints;
+    private volatile RuleIndex index;
+
+    private PromotionEngine() {
+        this.maxDiscountBasisPoints = Integer.getInteger("promo.maxDiscountPercent", 50) * 100;
+        this.index = new RuleIndex(parseAll(Arrays.asList(DEFAULT_RULES)));
+
+        Path rulesFile = Paths.get(System.getProperty("promo.rules", "assets/promotions.txt"));
+        if (Files.isRegularFile(rulesFile)) {
+            try {
+                load(rulesFile);
+            } catch (IOException | IllegalArgumentException e) {
+                System.out.println("Could not load promotions from " + rulesFile + ", using built-in rules");
+                e.printStackTrace();
+            }
+        }
+    }
+
+    public static synchronized PromotionEngine getInstance() {
+        if (instance == null) {
+            instance = new PromotionEngine();
+        }
+        return instance;
+    }
+
+    // Replace all rules with those in the file; blank lines and # comments are skipped
+    public void load(Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        List<PromotionRule> rules = parseAll(lines);
+        setRules(rules);
+        System.out.println("Loaded " + rules.size() + " promotion rule(s) from " + file);
+    }
+
+    public void setRules(List<PromotionRule> rules) {
+        this.index = new RuleIndex(rules);
+        QuoteCache.getInstance().invalidate();
+    }
+    
+    // Small id of a promo code that some rule uses, 0 for none or an unknown code
+    // (an unknown code matches no rule, so it prices like no code)
+    public int codeId(String promoCode) {
+        if (promoCode == null || promoCode.trim().isEmpty()) {
+            return 0;
+        }
+        Integer id = index.codeIds.get(promoCode.trim().toUpperCase(Locale.ROOT));
+        return id == null ? 0 : id;
+    }
+
+    public int getRuleCount() {
+        return index.size;
+    }
+
+    private static List<PromotionRule> parseAll(List<String> lines) {
+        List<PromotionRule> rules = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                rules.add(PromotionRule.parse(line));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        return rules;
+    }
+
+    public PromotionResult evaluate(PromotionContext context) {
+        long subtotal = context.getSubtotalCents();
+        if (subtotal <= 0) {
+            return PromotionResult.NONE;
+        }
+        List<PromotionRule> candidates = new ArrayList<>();
+        index.collectCandidates(context, candidates);
+
+        // Best stackable rule per group; ungrouped rules each stand alone
+        Map<String, PromotionRule> bestByGroup = new HashMap<>();
+        List<PromotionRule> stacked = new ArrayList<>();
+        PromotionRule bestExclusive = null;
+        long bestExclusiveCents = 0;
+        for (PromotionRule rule : candidates) {
+            if (!rule.matches(context)) {
+                continue;
+            }
+            long saving = rule.discountCents(subtotal);
+            if (rule.getStacking() == PromotionRule.Stacking.EXCLUSIVE) {
+                if (saving > bestExclusiveCents) {
+                    bestExclusive = rule;
+                    bestExclusiveCents = saving;
+                }
+            } else if (rule.getGroup() == null) {
+                stacked.add(rule);
+            } else {
+                bestByGroup.merge(rule.getGroup(), rule,
+                    (a, b) -> b.discountCents(subtotal) > a.discountCents(subtotal) ? b : a);
+            }
+        }
+        stacked.addAll(bestByGroup.values());
+
+        long stackedCents = 0;
+        for (PromotionRule rule : stacked) {
+            stackedCents += rule.discountCents(subtotal);
+        }
+        long capCents = Money.applyRate(subtotal, maxDiscountBasisPoints);
+        boolean capped = stackedCents > capCents;
+        stackedCents = Math.min(stackedCents, capCents);
+
+        if (bestExclusive != null && bestExclusiveCents > stackedCents) {
+            List<PromotionRule> applied = new ArrayList<>();
+            applied.add(bestExclusive);
+            return new PromotionResult(bestExclusiveCents, applied);
+        }
+        return stackedCents == 0 ? PromotionResult.NONE
+            : new PromotionResult(stackedCents, stacked, capped ? maxDiscountBasisPoints : 0);
+    }
+}
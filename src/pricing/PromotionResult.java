@@ -0,0 +1,31 @@
+package pricing;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Discount chosen for a cart and the promotions that make it up.
+ */
+public final class PromotionResult {
+    public static final PromotionResult NONE = new PromotionResult(0, Collections.emptyList());
+
+    private final long discountCents;
+    private final List<PromotionRule> applied;
+    private final int capBasisPoints;
+
+    PromotionResult(long discountCents, List<PromotionRule> applied) {
+        this(discountCents, applied, 0);
+    }
+
+    // capBasisPoints is the cap that cut the applied rules' sum down, 0 if none did
+    PromotionResult(long discountCents, List<PromotionRule> applied, int capBasisPoints) {
+        this.discountCents = discountCents;
+        this.applied = Collections.unmodifiableList(applied);
+        this.capBasisPoints = capBasisPoints;
+    }
+
+    public long getDiscountCents() { return discountCents; }
+    public List<PromotionRule> getApplied() { return applied; }
+    public boolean isCapped() { return capBasisPoints > 0; }
+    public int getCapBasisPoints() { return capBasisPoints; }
+}
@@ -0,0 +1,154 @@
+package pricing;
+
+import java.time.DayOfWeek;
+import java.util.Locale;
+
+/**
+ * One promotion: the conditions a cart must meet and the discount it gives.
+ * All conditions that are set must hold. Rules are written one per line as
+ * {@code id: key=value; key=value}, for example
+ * {@code spring: code=SPRING24; days=MON,TUE; percent=12.5; stacking=exclusive}.
+ * Keys: name, code, days, minGroup, tier, theater, percent, amount (dollars),
+ * stacking (stackable or exclusive) and group.
+ */
+public final class PromotionRule {
+
+    public enum Stacking {
+        // Adds to other stackable rules; only the best rule of each group counts
+        STACKABLE,
+        // Applies alone, when it saves more than the stackable rules together
+        EXCLUSIVE
+    }
+
+    private final String id;
+    private final String name;
+    private final String code;          // upper case
+    private final int dayMask;          // bit per DayOfWeek ordinal, 0 = any day
+    private final int minGroupSize;     // 0 = any size
+    private final MembershipTier tier;
+    private final String theaterType;   // lower case
+    private final int percentOffBasisPoints;
+    private final long amountOffCents;
+    private final Stacking stacking;
+    private final String group;
+
+    private PromotionRule(String id, String name, String code, int dayMask, int minGroupSize,
+                          MembershipTier tier, String theaterType, int percentOffBasisPoints,
+                          long amountOffCents, Stacking stacking, String group) {
+        this.id = id;
+        this.name = name;
+        this.code = code;
+        this.dayMask = dayMask;
+        this.minGroupSize = minGroupSize;
+        this.tier = tier;
+        this.theaterType = theaterType;
+        this.percentOffBasisPoints = percentOffBasisPoints;
+        this.amountOffCents = amountOffCents;
+        this.stacking = stacking;
+        this.group = group;
+    }
+
+    public static PromotionRule parse(String line) {
+        int colon = line.indexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("Expected 'id: key=value; ...' but got: " + line);
+        }
+        String id = line.substring(0, colon).trim();
+        String name = id;
+        String code = null;
+        int dayMask = 0;
+        int minGroupSize = 0;
+        MembershipTier tier = null;
+        String theaterType = null;
+        int percent = 0;
+        long amount = 0;
+        Stacking stacking = Stacking.STACKABLE;
+        String group = null;
+
+        for (String part : line.substring(colon + 1).split(";")) {
+            if (part.trim().isEmpty()) {
+                continue;
+            }
+            int eq = part.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Rule " + id + ": expected key=value but got '" + part.trim() + "'");
+            }
+            String key = part.substring(0, eq).trim();
+            String value = part.substring(eq + 1).trim();
+            switch (key) {
+                case "name": name = value; break;
+                case "code": code = value.toUpperCase(Locale.ROOT); break;
+                case "days": dayMask = parseDays(value); break;
+                case "minGroup": minGroupSize = Integer.parseInt(value); break;
+                case "tier": tier = MembershipTier.parse(value); break;
+                case "theater": theaterType = value.toLowerCase(); break;
+                case "percent": percent = Money.basisPoints(Double.parseDouble(value) / 100); break;
+                case "amount": amount = Money.ofDollars(Double.parseDouble(value)); break;
+                case "stacking": stacking = Stacking.valueOf(value.toUpperCase(Locale.ROOT)); break;
+                case "group": group = value; break;
+                default:
+                    throw new IllegalArgumentException("Rule " + id + ": unknown key '" + key + "'");
+            }
+        }
+        if (percent <= 0 && amount <= 0) {
+            throw new IllegalArgumentException("Rule " + id + " gives no discount");
+        }
+        return new PromotionRule(id, name, code, dayMask, minGroupSize, tier, theaterType,
+                                 percent, amount, stacking, group);
+    }
+
+    private static int parseDays(String value) {
+        int mask = 0;
+        for (String day : value.split(",")) {
+            String prefix = day.trim().toUpperCase(Locale.ROOT);
+            DayOfWeek match = null;
+            for (DayOfWeek d : DayOfWeek.values()) {
+                if (prefix.length() >= 3 && d.name().startsWith(prefix)) {
+                    match = d;
+                }
+            }
+            if (match == null) {
+                throw new IllegalArgumentException("Unknown day: " + day);
+            }
+            mask |= 1 << match.ordinal();
+        }
+        return mask;
+    }
+
+    public boolean matches(PromotionContext context) {
+        if (code != null && !code.equals(context.getPromoCode())) {
+            return false;
+        }
+        if (dayMask != 0 && (context.getDay() == null || (dayMask & (1 << context.getDay().ordinal())) == 0)) {
+            return false;
+        }
+        if (minGroupSize > 0 && context.getGroupSize() < minGroupSize) {
+            return false;
+        }
+        if (tier != null && tier != context.getTier()) {
+            return false;
+        }
+        return theaterType == null || theaterType.equals(context.getTheaterType());
+    }
+
+    // Never more than the subtotal
+    public long discountCents(long subtotalCents) {
+        long discount = Money.applyRate(subtotalCents, percentOffBasisPoints) + amountOffCents;
+        return Math.min(discount, subtotalCents);
+    }
+
+    public String getId() { return id; }
+    public String getName() { return name; }
+    public String getCode() { return code; }
+    public int getDayMask() { return dayMask; }
+    public int getMinGroupSize() { return minGroupSize; }
+    public MembershipTier getTier() { return tier; }
+    public String getTheaterType() { return theaterType; }
+    public Stacking getStacking() { return stacking; }
+    public String getGroup() { return group; }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
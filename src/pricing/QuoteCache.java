@@ -0,0 +1,132 @@
+package pricing;
+
+/**
+ * Singleton Pattern: QuoteCache
+ * Finished cart quotes keyed by the cart's shape packed into one long (see
+ * {@link #cartKey}). The cache is a fixed array of {@code quote.cache.size}
+ * slots (default 4096, rounded up to a power of two); a key maps to one slot
+ * and a newer quote replaces whatever was there, so a lookup is one hash and
+ * one comparison and nothing is allocated.
+ * Each entry remembers the pricing version it was computed under.
+ * {@link #invalidate} bumps the version when prices or promotions change, which
+ * retires every entry at once.
+ */
+public class QuoteCache {
+    // Returned by lookup when there is no usable entry
+    public static final long MISS = Long.MIN_VALUE;
+    // Returned by cartKey when the cart does not fit the packed layout
+    public static final long NO_KEY = -1;
+
+    private static QuoteCache instance;
+
+    private final long[] keys;
+    private final long[] values;
+    private final long[] versions;
+    private final int mask;
+    private long version = 1;  // slots start at version 0, so all are empty
+
+    private long hits;
+    private long misses;
+    private long replacements;
+
+    private QuoteCache(int size) {
+        int capacity = Integer.highestOneBit(Math.max(16, size - 1)) << 1;
+        this.keys = new long[capacity];
+        this.values = new long[capacity];
+        this.versions = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public static synchronized QuoteCache getInstance() {
+        if (instance == null) {
+            instance = new QuoteCache(Integer.getInteger("quote.cache.size", 4096));
+        }
+        return instance;
+    }
+
+    /**
+     * Pack a cart shape: theater type (4 bits), add-on mask (12), seats in the
+     * front, middle and back zones (7 each), occupancy band (3), showtime band (2),
+     * promo code id (16) and day of week (3, DayOfWeek ordinal).
+     * Returns {@link #NO_KEY} if a value is out of range.
+     */
+    public static long cartKey(int theaterType, int addOnMask, int front, int middle, int back,
+                               int occupancyBand, int showtimeBand, int promoCodeId, int dayOfWeek) {
+        if ((theaterType & ~0xF) != 0 || (addOnMask & ~0xFFF) != 0
+                || (front & ~0x7F) != 0 || (middle & ~0x7F) != 0 || (back & ~0x7F) != 0
+                || (occupancyBand & ~0x7) != 0 || (showtimeBand & ~0x3) != 0 || (promoCodeId & ~0xFFFF) != 0
+                || (dayOfWeek & ~0x7) != 0) {
+            return NO_KEY;
+        }
+        return (long) theaterType
+             | (long) addOnMask << 4
+             | (long) front << 16
+             | (long) middle << 23
+             | (long) back << 30
+             | (long) occupancyBand << 37
+             | (long) showtimeBand << 40
+             | (long) promoCodeId << 42
+             | (long) dayOfWeek << 58;
+    }
+
+    // Pass the result to store, so a quote computed before an invalidation is dropped
+    public synchronized long currentVersion() {
+        return version;
+    }
+
+    public synchronized long lookup(long key) {
+        if (key == NO_KEY) {
+            return MISS;
+        }
+        int slot = slot(key);
+        if (versions[slot] == version && keys[slot] == key) {
+            hits++;
+            return values[slot];
+        }
+        misses++;
+        return MISS;
+    }
+
+    public synchronized void store(long key, long computedAtVersion, long quoteCents) {
+        if (key == NO_KEY || computedAtVersion != version) {
+            return;
+        }
+        int slot = slot(key);
+        if (versions[slot] == version && keys[slot] != key) {
+            replacements++;
+        }
+        keys[slot] = key;
+        values[slot] = quoteCents;
+        versions[slot] = version;
+    }
+
+    // Prices or promotions changed: every cached quote is stale
+    public synchronized void invalidate() {
+        version++;
+    }
+
+    private int slot(long key) {
+        // Murmur3 finalizer spreads the packed fields over the slot bits
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    public int getCapacity() { return keys.length; }
+    public synchronized long getHitCount() { return hits; }
+    public synchronized long getMissCount() { return misses; }
+    public synchronized long getReplacementCount() { return replacements; }
+
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("QuoteCache[slots=%d, version=%d, hits=%d, misses=%d (%.1f%% hit rate), replacements=%d]",
+            keys.length, version, hits, misses, getHitRate() * 100, replacements);
+    }
+}
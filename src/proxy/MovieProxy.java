@@ -1,5 +1,6 @@
 package proxy;
 
+import model.Certification;
 import model.Movie;
 import model.User;
 
@@ -21,13 +22,20 @@ interface MovieAccess {
 class RealMovie implements MovieAccess {
     private Movie movie;
     private User user;
+    private final boolean admin;
     
     public RealMovie(Movie movie, User user) {
         this.movie = movie;
         this.user = user;
+        this.admin = isAdmin(user);
         loadMovieData();
     }
     
+    // Only admins can edit or delete (for this example, check if user email contains "admin")
+    static boolean isAdmin(User user) {
+        return user != null && user.getEmail() != null && user.getEmail().contains("admin");
+    }
+    
     private void loadMovieData() {
         // Simulate expensive operation of loading movie data
         System.out.println("Loading movie data: " + movie.getTitle());
@@ -40,14 +48,12 @@ class RealMovie implements MovieAccess {
     
     @Override
     public boolean canEdit() {
-        // Only admins can edit (for this example, check if user email contains "admin")
-        return user != null && user.getEmail().contains("admin");
+        return admin;
     }
     
     @Override
     public boolean canDelete() {
-        // Only admins can delete
-        return user != null && user.getEmail().contains("admin");
+        return admin;
     }
     
     @Override
@@ -62,20 +68,20 @@ public class MovieProxy implements MovieAccess {
     private Movie movie;
     private User user;
     private RealMovie realMovie;
-    private String ageRating;
+    private Certification certification;
     private int userAge;
     
     public MovieProxy(Movie movie, User user) {
         this.movie = movie;
         this.user = user;
-        this.ageRating = movie.getRating();
+        this.certification = movie.getCertification();
         this.userAge = 18; // Default age, could be retrieved from user profile
     }
     
     public MovieProxy(Movie movie, User user, int userAge) {
         this.movie = movie;
         this.user = user;
-        this.ageRating = movie.getRating();
+        this.certification = movie.getCertification();
         this.userAge = userAge;
     }
     
@@ -121,20 +127,7 @@ public class MovieProxy implements MovieAccess {
     
     // Age restriction checking
     private boolean checkAgeRestriction() {
-        switch (ageRating) {
-            case "G":
-                return true; // General audience
-            case "PG":
-                return userAge >= 8; // Parental guidance suggested
-            case "PG-13":
-                return userAge >= 13;
-            case "R":
-                return userAge >= 17;
-            case "NC-17":
-                return userAge >= 18;
-            default:
-                return true;
-        }
+        return certification.allows(userAge);
     }
     
     // Additional proxy functionality - logging
@@ -153,10 +146,12 @@ public class MovieProxy implements MovieAccess {
 class AdminMovieProxy {
     private Movie movie;
     private User user;
+    private final boolean admin;
     
     public AdminMovieProxy(Movie movie, User user) {
         this.movie = movie;
         this.user = user;
+        this.admin = RealMovie.isAdmin(user);
     }
     
     public boolean updateMovie(String title, String genre, String duration, String rating, String description) {
@@ -187,6 +182,6 @@ class AdminMovieProxy {
     }
     
     private boolean isAdmin() {
-        return user != null && user.getEmail().contains("admin");
+        return admin;
     }
 }
@@ -0,0 +1,324 @@
+package search;
+
+import java.util.Arrays;
+
+/**
+ * Compressed bitmap of non-negative ints.
+ * Values are split into chunks of 65536 by their upper 16 bits. A sparse chunk is
+ * stored as a sorted char array, a dense one (more than 4096 values) as a
+ * 1024-word bit set, so memory stays proportional to the number of values and
+ * AND/OR cost follows the smaller operand rather than the id range.
+ */
+public class CompressedBitmap {
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int BITSET_WORDS = 1024;
+
+    private char[] keys = new char[0];         // upper 16 bits of each chunk, ascending
+    private Object[] chunks = new Object[0];   // char[] (sorted lows) or long[] (bit set)
+    private int[] counts = new int[0];         // values per chunk
+    private int size;                          // number of chunks in use
+
+    public void add(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+        char high = (char) (value >>> 16);
+        char low = (char) value;
+        int index = Arrays.binarySearch(keys, 0, size, high);
+        if (index < 0) {
+            index = -index - 1;
+            insertChunk(index, high, new char[4], 0);
+        }
+
+        Object chunk = chunks[index];
+        if (chunk instanceof long[]) {
+            long[] bits = (long[]) chunk;
+            long mask = 1L << low;
+            if ((bits[low >>> 6] & mask) == 0) {
+                bits[low >>> 6] |= mask;
+                counts[index]++;
+            }
+            return;
+        }
+
+        char[] values = (char[]) chunk;
+        int count = counts[index];
+        int position = Arrays.binarySearch(values, 0, count, low);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        if (count == ARRAY_LIMIT) {
+            long[] bits = toBits(values, count);
+            bits[low >>> 6] |= 1L << low;
+            chunks[index] = bits;
+            counts[index] = count + 1;
+            return;
+        }
+        if (count == values.length) {
+            values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, count * 2));
+            chunks[index] = values;
+        }
+        System.arraycopy(values, position, values, position + 1, count - position);
+        values[position] = low;
+        counts[index] = count + 1;
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        char low = (char) value;
+        Object chunk = chunks[index];
+        if (chunk instanceof long[]) {
+            return (((long[]) chunk)[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) chunk, 0, counts[index], low) >= 0;
+    }
+
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += counts[i];
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public CompressedBitmap and(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Object chunk = andChunks(chunks[i], counts[i], other.chunks[j], other.counts[j]);
+                int count = chunkCount(chunk);
+                if (count > 0) {
+                    result.appendChunk(keys[i], chunk, count);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    // Size of the intersection without building it; used for facet counts
+    public int andCardinality(CompressedBitmap other) {
+        int total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                total += chunkCount(andChunks(chunks[i], counts[i], other.chunks[j], other.counts[j]));
+                i++;
+                j++;
+            }
+        }
+        return total;
+    }
+
+    public CompressedBitmap or(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j >= other.size || (i < size && keys[i] < other.keys[j])) {
+                result.appendChunk(keys[i], copyChunk(chunks[i], counts[i]), counts[i]);
+                i++;
+            } else if (i >= size || keys[i] > other.keys[j]) {
+                result.appendChunk(other.keys[j], copyChunk(other.chunks[j], other.counts[j]), other.counts[j]);
+                j++;
+            } else {
+                Object chunk = orChunks(chunks[i], counts[i], other.chunks[j], other.counts[j]);
+                result.appendChunk(keys[i], chunk, chunkCount(chunk));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    // Values in ascending order
+    public int[] toArray() {
+        int[] values = new int[cardinality()];
+        int position = 0;
+        for (int i = 0; i < size; i++) {
+            int base = keys[i] << 16;
+            Object chunk = chunks[i];
+            if (chunk instanceof long[]) {
+                long[] bits = (long[]) chunk;
+                for (int word = 0; word < BITSET_WORDS; word++) {
+                    long w = bits[word];
+                    while (w != 0) {
+                        values[position++] = base | (word << 6) | Long.numberOfTrailingZeros(w);
+                        w &= w - 1;
+                    }
+                }
+            } else {
+                char[] lows = (char[]) chunk;
+                for (int k = 0; k < counts[i]; k++) {
+                    values[position++] = base | lows[k];
+                }
+            }
+        }
+        return values;
+    }
+
+    private void insertChunk(int index, char key, Object chunk, int count) {
+        if (size == keys.length) {
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            chunks = Arrays.copyOf(chunks, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(chunks, index, chunks, index + 1, size - index);
+        System.arraycopy(counts, index, counts, index + 1, size - index);
+        keys[index] = key;
+        chunks[index] = chunk;
+        counts[index] = count;
+        size++;
+    }
+
+    private void appendChunk(char key, Object chunk, int count) {
+        insertChunk(size, key, chunk, count);
+    }
+
+    private static Object andChunks(Object a, int countA, Object b, int countB) {
+        if (a instanceof char[] && b instanceof char[]) {
+            char[] x = (char[]) a;
+            char[] y = (char[]) b;
+            char[] out = new char[Math.min(countA, countB)];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < countA && j < countB) {
+                if (x[i] < y[j]) {
+                    i++;
+                } else if (x[i] > y[j]) {
+                    j++;
+                } else {
+                    out[n++] = x[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(out, n);
+        }
+        if (a instanceof char[] || b instanceof char[]) {
+            // Probe the bit set with each value of the array
+            char[] values = (char[]) (a instanceof char[] ? a : b);
+            int count = a instanceof char[] ? countA : countB;
+            long[] bits = (long[]) (a instanceof char[] ? b : a);
+            char[] out = new char[count];
+            int n = 0;
+            for (int i = 0; i < count; i++) {
+                char v = values[i];
+                if ((bits[v >>> 6] & (1L << v)) != 0) {
+                    out[n++] = v;
+                }
+            }
+            return Arrays.copyOf(out, n);
+        }
+        long[] x = (long[]) a;
+        long[] y = (long[]) b;
+        long[] out = new long[BITSET_WORDS];
+        int count = 0;
+        for (int i = 0; i < BITSET_WORDS; i++) {
+            out[i] = x[i] & y[i];
+            count += Long.bitCount(out[i]);
+        }
+        return count > ARRAY_LIMIT ? out : toArray(out, count);
+    }
+
+    private static Object orChunks(Object a, int countA, Object b, int countB) {
+        if (a instanceof char[] && b instanceof char[] && countA + countB <= ARRAY_LIMIT) {
+            char[] x = (char[]) a;
+            char[] y = (char[]) b;
+            char[] out = new char[countA + countB];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < countA || j < countB) {
+                if (j >= countB || (i < countA && x[i] < y[j])) {
+                    out[n++] = x[i++];
+                } else if (i >= countA || x[i] > y[j]) {
+                    out[n++] = y[j++];
+                } else {
+                    out[n++] = x[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(out, n);
+        }
+        long[] out = a instanceof long[] ? ((long[]) a).clone() : toBits((char[]) a, countA);
+        if (b instanceof long[]) {
+            long[] y = (long[]) b;
+            for (int i = 0; i < BITSET_WORDS; i++) {
+                out[i] |= y[i];
+            }
+        } else {
+            char[] y = (char[]) b;
+            for (int i = 0; i < countB; i++) {
+                out[y[i] >>> 6] |= 1L << y[i];
+            }
+        }
+        return out;
+    }
+
+    private static int chunkCount(Object chunk) {
+        if (chunk instanceof char[]) {
+            return ((char[]) chunk).length;
+        }
+        int count = 0;
+        for (long word : (long[]) chunk) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static Object copyChunk(Object chunk, int count) {
+        if (chunk instanceof long[]) {
+            return ((long[]) chunk).clone();
+        }
+        return Arrays.copyOf((char[]) chunk, count);
+    }
+
+    private static long[] toBits(char[] values, int count) {
+        long[] bits = new long[BITSET_WORDS];
+        for (int i = 0; i < count; i++) {
+            bits[values[i] >>> 6] |= 1L << values[i];
+        }
+        return bits;
+    }
+
+    private static char[] toArray(long[] bits, int count) {
+        char[] values = new char[count];
+        int n = 0;
+        for (int word = 0; word < BITSET_WORDS; word++) {
+            long w = bits[word];
+            while (w != 0) {
+                values[n++] = (char) ((word << 6) | Long.numberOfTrailingZeros(w));
+                w &= w - 1;
+            }
+        }
+        return values;
+    }
+}
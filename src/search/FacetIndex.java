@@ -0,0 +1,183 @@
+package search;
+
+import model.Certification;
+import model.Movie;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable facet index over the catalog.
+ * Every facet value owns a compressed bitmap of the movie ids that carry it.
+ * A filter is answered with bitmap algebra: values selected within one facet are
+ * OR-ed, facets are AND-ed. Counts for each value are computed against the other
+ * facets' filters, so the UI can show how many movies picking that value would leave.
+ */
+public class FacetIndex {
+
+    public enum Facet {
+        GENRE("Genre"),
+        RATING("Rating"),
+        DURATION("Duration");
+
+        private final String label;
+
+        Facet(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final Map<Integer, Movie> moviesById;
+    private final CompressedBitmap allIds;
+    private final Map<Facet, Map<String, CompressedBitmap>> bitmaps;
+
+    public FacetIndex(List<Movie> movies) {
+        this.moviesById = new HashMap<>();
+        this.allIds = new CompressedBitmap();
+        this.bitmaps = new EnumMap<>(Facet.class);
+        for (Facet facet : Facet.values()) {
+            bitmaps.put(facet, new LinkedHashMap<>());
+        }
+
+        for (Movie movie : movies) {
+            int id = movie.getId();
+            moviesById.put(id, movie);
+            allIds.add(id);
+
+            if (movie.getGenre() != null) {
+                for (String genre : movie.getGenre().split(",")) {
+                    if (!genre.trim().isEmpty()) {
+                        index(Facet.GENRE, genre.trim(), id);
+                    }
+                }
+            }
+            index(Facet.RATING, ratingBucket(movie), id);
+            index(Facet.DURATION, durationBucket(movie.getRuntimeMinutes()), id);
+        }
+    }
+
+    private void index(Facet facet, String value, int id) {
+        bitmaps.get(facet).computeIfAbsent(value, v -> new CompressedBitmap()).add(id);
+    }
+
+    /**
+     * Apply a filter and count every facet value.
+     * @param selected values picked per facet; a missing or empty set means no restriction
+     */
+    public FacetResult filter(Map<Facet, Set<String>> selected) {
+        Map<Facet, CompressedBitmap> perFacet = new EnumMap<>(Facet.class);
+        for (Facet facet : Facet.values()) {
+            CompressedBitmap union = union(facet, selected.get(facet));
+            if (union != null) {
+                perFacet.put(facet, union);
+            }
+        }
+
+        CompressedBitmap matching = intersectAllExcept(perFacet, null);
+
+        // Disjunctive counts: a value's count ignores the selection on its own facet
+        Map<Facet, Map<String, Integer>> counts = new EnumMap<>(Facet.class);
+        for (Facet facet : Facet.values()) {
+            CompressedBitmap others = intersectAllExcept(perFacet, facet);
+            Map<String, Integer> valueCounts = new LinkedHashMap<>();
+            for (Map.Entry<String, CompressedBitmap> entry : bitmaps.get(facet).entrySet()) {
+                valueCounts.put(entry.getKey(), entry.getValue().andCardinality(others));
+            }
+            counts.put(facet, valueCounts);
+        }
+
+        // Only the matching ids are materialized
+        int[] ids = matching.toArray();
+        List<Movie> movies = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            movies.add(moviesById.get(id));
+        }
+        return new FacetResult(movies, counts);
+    }
+
+    public List<String> getValues(Facet facet) {
+        return new ArrayList<>(bitmaps.get(facet).keySet());
+    }
+
+    private CompressedBitmap union(Facet facet, Set<String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        CompressedBitmap result = new CompressedBitmap();
+        for (String value : values) {
+            CompressedBitmap bitmap = bitmaps.get(facet).get(value);
+            if (bitmap != null) {
+                result = result.or(bitmap);
+            }
+        }
+        return result;
+    }
+
+    // Smallest filters first keeps the intermediate results small
+    private CompressedBitmap intersectAllExcept(Map<Facet, CompressedBitmap> perFacet, Facet skipped) {
+        List<CompressedBitmap> filters = new ArrayList<>();
+        for (Map.Entry<Facet, CompressedBitmap> entry : perFacet.entrySet()) {
+            if (entry.getKey() != skipped) {
+                filters.add(entry.getValue());
+            }
+        }
+        if (filters.isEmpty()) {
+            return allIds;
+        }
+        filters.sort((a, b) -> Integer.compare(a.cardinality(), b.cardinality()));
+        CompressedBitmap result = filters.get(0);
+        for (int i = 1; i < filters.size() && !result.isEmpty(); i++) {
+            result = result.and(filters.get(i));
+        }
+        return result;
+    }
+
+    // Scores are banded; certifications such as "PG-13" are their own value
+    static String ratingBucket(Movie movie) {
+        if (movie.getCertification() != Certification.NONE) {
+            return movie.getCertification().getLabel();
+        }
+        int score = movie.getScoreTenths();
+        if (score <= 0) return "Unrated";
+        if (score >= 90) return "9+";
+        if (score >= 80) return "8 - 9";
+        if (score >= 70) return "7 - 8";
+        return "Under 7";
+    }
+
+    static String durationBucket(int minutes) {
+        if (minutes <= 0) return "Unknown";
+        if (minutes < 90) return "Under 90 min";
+        if (minutes < 120) return "90 - 120 min";
+        if (minutes < 150) return "120 - 150 min";
+        return "150+ min";
+    }
+
+    /**
+     * Movies matching a filter, plus the count for every facet value.
+     */
+    public static class FacetResult {
+        private final List<Movie> movies;
+        private final Map<Facet, Map<String, Integer>> counts;
+
+        public FacetResult(List<Movie> movies, Map<Facet, Map<String, Integer>> counts) {
+            this.movies = movies;
+            this.counts = counts;
+        }
+
+        public List<Movie> getMovies() { return movies; }
+
+        public Map<String, Integer> getCounts(Facet facet) {
+            return counts.getOrDefault(facet, Collections.emptyMap());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package search;
+
+import model.Movie;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Singleton Pattern: SearchIndex
+ * Holds the in-memory title indexes used by the search bar
+ * The index is rebuilt as an immutable snapshot and swapped in atomically,
+ * so lookups from background threads never block on a rebuild or on the database
+ */
+public class SearchIndex {
+    private static SearchIndex instance;
+    private volatile TitlePrefixIndex prefixIndex;
+    private volatile TrigramIndex trigramIndex;
+    private volatile FacetIndex facetIndex;
+
+    private SearchIndex() {
+        this.prefixIndex = new TitlePrefixIndex(new ArrayList<>());
+        this.trigramIndex = new TrigramIndex(new ArrayList<>());
+        this.facetIndex = new FacetIndex(new ArrayList<>());
+    }
+
+    public static synchronized SearchIndex getInstance() {
+        if (instance == null) {
+            instance = new SearchIndex();
+        }
+        return instance;
+    }
+
+    // Rebuild from the full catalog
+    public void rebuild(List<Movie> movies) {
+        List<String> titles = new ArrayList<>(movies.size());
+        for (Movie movie : movies) {
+            titles.add(movie.getTitle());
+        }
+        prefixIndex = new TitlePrefixIndex(titles);
+        trigramIndex = new TrigramIndex(new ArrayList<>(movies));
+        facetIndex = new FacetIndex(movies);
+    }
+
+    public List<String> complete(String prefix, int limit) {
+        return prefixIndex.complete(prefix, limit);
+    }
+
+    // Typo-tolerant lookup, closest titles first
+    public List<Movie> fuzzySearch(String query, int limit) {
+        return trigramIndex.search(query, limit);
+    }
+
+    public FacetIndex.FacetResult filter(Map<FacetIndex.Facet, Set<String>> selected) {
+        return facetIndex.filter(selected);
+    }
+
+    public int size() {
+        return prefixIndex.size();
+    }
+}
@@ -0,0 +1,147 @@
+package search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Immutable prefix index over movie titles.
+ * Every word of a title is stored as a normalized key in one sorted array, and
+ * whole titles in a second one, so a completion is a binary search followed by
+ * a short forward scan in each.
+ * Instances are never modified after construction and can be shared between threads.
+ */
+public class TitlePrefixIndex {
+    private final String[] titles;  // display titles, one per movie
+    private final String[] keys;    // normalized title suffixes starting at a word, sorted
+    private final int[] owners;     // keys[i] belongs to titles[owners[i]]
+    private final String[] titleKeys; // normalized whole titles, sorted
+    private final int[] titleOwners;  // titleKeys[i] belongs to titles[titleOwners[i]]
+
+    public TitlePrefixIndex(List<String> titleList) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String title : titleList) {
+            if (title != null && !title.trim().isEmpty()) {
+                distinct.add(title);
+            }
+        }
+        this.titles = distinct.toArray(new String[0]);
+
+        // One entry per word start: "the dark knight" -> "the dark knight", "dark knight", "knight"
+        List<Object[]> entries = new ArrayList<>();
+        List<Object[]> wholeTitles = new ArrayList<>();
+        for (int i = 0; i < titles.length; i++) {
+            String normalized = normalize(titles[i]);
+            wholeTitles.add(new Object[]{normalized, i});
+            int start = 0;
+            while (start < normalized.length()) {
+                entries.add(new Object[]{normalized.substring(start), i});
+                int space = normalized.indexOf(' ', start);
+                if (space < 0) {
+                    break;
+                }
+                start = space + 1;
+            }
+        }
+        entries.sort(Comparator.comparing((Object[] e) -> (String) e[0]));
+        wholeTitles.sort(Comparator.comparing((Object[] e) -> (String) e[0]));
+
+        this.keys = new String[entries.size()];
+        this.owners = new int[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            keys[i] = (String) entries.get(i)[0];
+            owners[i] = (Integer) entries.get(i)[1];
+        }
+        this.titleKeys = new String[wholeTitles.size()];
+        this.titleOwners = new int[wholeTitles.size()];
+        for (int i = 0; i < wholeTitles.size(); i++) {
+            titleKeys[i] = (String) wholeTitles.get(i)[0];
+            titleOwners[i] = (Integer) wholeTitles.get(i)[1];
+        }
+    }
+
+    /**
+     * Return up to {@code limit} distinct titles that have a word starting with the prefix.
+     * Titles that start with the prefix are listed before titles that only contain it
+     * as a later word.
+     */
+    public List<String> complete(String prefix, int limit) {
+        List<String> results = new ArrayList<>();
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return results;
+        }
+
+        Set<Integer> taken = new HashSet<>();
+
+        // Titles that start with the prefix first, from their own index, so word matches
+        // that sort earlier can never crowd them out
+        for (int i = lowerBound(titleKeys, key); i < titleKeys.length && titleKeys[i].startsWith(key)
+                && results.size() < limit; i++) {
+            if (taken.add(titleOwners[i])) {
+                results.add(titles[titleOwners[i]]);
+            }
+        }
+
+        // Then fill up with titles that have a later word starting with it; each scan is O(limit)
+        for (int i = lowerBound(keys, key); i < keys.length && keys[i].startsWith(key)
+                && results.size() < limit; i++) {
+            if (taken.add(owners[i])) {
+                results.add(titles[owners[i]]);
+            }
+        }
+        return results;
+    }
+
+    public int size() {
+        return titles.length;
+    }
+
+    // First index whose key is >= the given key
+    private static int lowerBound(String[] keys, String key) {
+        int index = Arrays.binarySearch(keys, key);
+        if (index < 0) {
+            return -index - 1;
+        }
+        // Step back over duplicates so every owner of an identical key is visited
+        while (index > 0 && keys[index - 1].equals(key)) {
+            index--;
+        }
+        return index;
+    }
+
+    /**
+     * Lower-case, strip accents and punctuation, and collapse whitespace,
+     * so "Amélie!" and "amelie" share the same key.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && sb.length() > 0) {
+                    sb.append(' ');
+                }
+                pendingSpace = false;
+                sb.append(c);
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+}
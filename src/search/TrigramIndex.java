@@ -0,0 +1,203 @@
+package search;
+
+import model.Movie;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable trigram index for typo-tolerant title search.
+ * Candidates are gathered from the posting lists of the query's trigrams,
+ * so only titles sharing letters with the query are looked at. The best
+ * candidates are then verified word by word with a bounded edit distance.
+ */
+public class TrigramIndex {
+    // Only this many of the highest-overlap candidates reach the edit-distance check
+    private static final int MAX_CANDIDATES = 64;
+
+    private final Movie[] movies;
+    private final String[][] words;           // normalized title words per movie
+    private final Map<String, int[]> postings; // trigram -> ascending movie positions
+
+    public TrigramIndex(List<Movie> movieList) {
+        this.movies = movieList.toArray(new Movie[0]);
+        this.words = new String[movies.length][];
+
+        Map<String, List<Integer>> building = new HashMap<>();
+        for (int i = 0; i < movies.length; i++) {
+            String normalized = TitlePrefixIndex.normalize(movies[i].getTitle());
+            words[i] = normalized.isEmpty() ? new String[0] : normalized.split(" ");
+            for (String word : words[i]) {
+                for (String gram : trigrams(word)) {
+                    List<Integer> list = building.computeIfAbsent(gram, g -> new ArrayList<>());
+                    // Words repeat grams ("aaa"); keep each movie once per list
+                    if (list.isEmpty() || list.get(list.size() - 1) != i) {
+                        list.add(i);
+                    }
+                }
+            }
+        }
+
+        this.postings = new HashMap<>(building.size() * 2);
+        for (Map.Entry<String, List<Integer>> entry : building.entrySet()) {
+            List<Integer> list = entry.getValue();
+            int[] ids = new int[list.size()];
+            for (int j = 0; j < ids.length; j++) {
+                ids[j] = list.get(j);
+            }
+            postings.put(entry.getKey(), ids);
+        }
+    }
+
+    /**
+     * Find titles within a small edit distance of the query, best matches first.
+     * Each query word is matched against the closest word of the title; a title
+     * qualifies when every query word is within its allowed distance.
+     */
+    public List<Movie> search(String query, int limit) {
+        List<Movie> results = new ArrayList<>();
+        String normalized = TitlePrefixIndex.normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return results;
+        }
+        String[] queryWords = normalized.split(" ");
+
+        // Count shared trigrams per movie, touching only the relevant posting lists
+        Map<Integer, Integer> overlap = new HashMap<>();
+        int queryGrams = 0;
+        for (String word : queryWords) {
+            for (String gram : trigrams(word)) {
+                queryGrams++;
+                int[] ids = postings.get(gram);
+                if (ids != null) {
+                    for (int id : ids) {
+                        overlap.merge(id, 1, Integer::sum);
+                    }
+                }
+            }
+        }
+
+        // Keep the candidates that share at least a quarter of the query's trigrams
+        int minOverlap = Math.max(1, queryGrams / 4);
+        List<int[]> candidates = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> entry : overlap.entrySet()) {
+            if (entry.getValue() >= minOverlap) {
+                candidates.add(new int[]{entry.getKey(), entry.getValue()});
+            }
+        }
+        candidates.sort((a, b) -> b[1] != a[1] ? b[1] - a[1] : a[0] - b[0]);
+        if (candidates.size() > MAX_CANDIDATES) {
+            candidates = candidates.subList(0, MAX_CANDIDATES);
+        }
+
+        // Verify with bounded edit distance and rank by total distance, then overlap
+        List<int[]> matches = new ArrayList<>();
+        for (int[] candidate : candidates) {
+            int distance = titleDistance(queryWords, words[candidate[0]]);
+            if (distance >= 0) {
+                matches.add(new int[]{candidate[0], distance, candidate[1], words[candidate[0]].length});
+            }
+        }
+        // Fewest edits first, then most shared trigrams, then the shorter title
+        matches.sort((a, b) -> a[1] != b[1] ? a[1] - b[1] : b[2] != a[2] ? b[2] - a[2] : a[3] - b[3]);
+
+        for (int i = 0; i < matches.size() && results.size() < limit; i++) {
+            results.add(movies[matches.get(i)[0]]);
+        }
+        return results;
+    }
+
+    // Sum of per-word distances, or -1 if some query word has no close title word
+    private static int titleDistance(String[] queryWords, String[] titleWords) {
+        int total = 0;
+        for (String queryWord : queryWords) {
+            int maxDistance = allowedDistance(queryWord);
+            int best = -1;
+            for (String titleWord : titleWords) {
+                int d = boundedEditDistance(queryWord, titleWord, maxDistance);
+                if (d >= 0 && (best < 0 || d < best)) {
+                    best = d;
+                    if (best == 0) {
+                        break;
+                    }
+                }
+            }
+            if (best < 0) {
+                return -1;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    // Short words tolerate one typo, longer words two
+    private static int allowedDistance(String word) {
+        if (word.length() <= 2) {
+            return 0;
+        }
+        return word.length() <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Edit distance (insert, delete, substitute, swap adjacent letters) restricted to a
+     * diagonal band of width {@code max}. Returns -1 as soon as the distance is known
+     * to exceed {@code max}, so far-off words cost only a few rows.
+     */
+    static int boundedEditDistance(String a, String b, int max) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > max) {
+            return -1;
+        }
+        int big = max + 1;
+        int[] twoBack = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j <= max ? j : big;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            Arrays.fill(current, big);
+            current[0] = i <= max ? i : big;
+            int from = Math.max(1, i - max);
+            int to = Math.min(m, i + max);
+            int rowMin = current[0];
+            for (int j = from; j <= to; j++) {
+                char ca = a.charAt(i - 1);
+                char cb = b.charAt(j - 1);
+                int cost = ca == cb ? 0 : 1;
+                int value = Math.min(previous[j - 1] + cost, Math.min(previous[j] + 1, current[j - 1] + 1));
+                if (i > 1 && j > 1 && ca == b.charAt(j - 2) && a.charAt(i - 2) == cb) {
+                    value = Math.min(value, twoBack[j - 2] + 1);
+                }
+                current[j] = Math.min(value, big);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return -1;
+            }
+            int[] recycled = twoBack;
+            twoBack = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[m] <= max ? previous[m] : -1;
+    }
+
+    // Word trigrams with boundary padding: "tony" -> "  t", " to", "ton", "ony", "ny "
+    private static List<String> trigrams(String word) {
+        String padded = "  " + word + " ";
+        List<String> grams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    public int size() {
+        return movies.length;
+    }
+}
@@ -0,0 +1,126 @@
+package security;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Singleton Pattern: PasswordHasher
+ * PBKDF2-HMAC-SHA256 password hashes stored as
+ * {@code pbkdf2$<iterations>$<salt>$<hash>} (Base64 salt and hash).
+ * The iteration count is calibrated once at start-up so one hash takes about
+ * {@code password.hash.targetMs} milliseconds (default 100) on this machine.
+ * Stored values without the prefix are legacy plaintext passwords; they still
+ * verify and are reported by {@link #needsRehash} so they can be upgraded.
+ */
+public class PasswordHasher {
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2$";
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BITS = 256;
+    private static final int PROBE_ITERATIONS = 20_000;
+    private static final int MIN_ITERATIONS = 10_000;
+    private static final int MAX_ITERATIONS = 2_000_000;
+
+    private static PasswordHasher instance;
+
+    private final SecureRandom random;
+    private final int iterations;
+
+    private PasswordHasher(long targetMillis) {
+        this.random = new SecureRandom();
+        this.iterations = calibrate(targetMillis);
+        System.out.println("Password hashing calibrated to " + iterations + " PBKDF2 iterations (~"
+                           + targetMillis + " ms per hash)");
+    }
+
+    public static synchronized PasswordHasher getInstance() {
+        if (instance == null) {
+            instance = new PasswordHasher(Long.getLong("password.hash.targetMs", 100));
+        }
+        return instance;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public String hash(char[] password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = derive(password, salt, iterations);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    // Constant-time comparison for both hashed and legacy plaintext values
+    public boolean verify(char[] password, String stored) {
+        if (stored == null) {
+            return false;
+        }
+        if (!isHashed(stored)) {
+            byte[] given = new String(password).getBytes(StandardCharsets.UTF_8);
+            return MessageDigest.isEqual(given, stored.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            return MessageDigest.isEqual(expected, derive(password, salt, storedIterations));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // Plaintext values and hashes weaker than the current calibration should be replaced
+    public boolean needsRehash(String stored) {
+        if (stored == null || !isHashed(stored)) {
+            return true;
+        }
+        String[] parts = stored.split("\\$");
+        try {
+            return parts.length != 4 || Integer.parseInt(parts[1]) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    public static boolean isHashed(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    private static byte[] derive(char[] password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, KEY_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    // Time a probe run (best of three after a warm-up) and scale to the target
+    private static int calibrate(long targetMillis) {
+        char[] sample = "calibration".toCharArray();
+        byte[] salt = new byte[SALT_BYTES];
+        derive(sample, salt, PROBE_ITERATIONS);
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            derive(sample, salt, PROBE_ITERATIONS);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        long scaled = PROBE_ITERATIONS * targetMillis * 1_000_000L / Math.max(1, best);
+        return (int) Math.max(MIN_ITERATIONS, Math.min(MAX_ITERATIONS, scaled));
+    }
+}
@@ -0,0 +1,113 @@
+package security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Singleton Pattern: PasswordVerifier
+ * Dedicated, bounded pool for password hashing and verification.
+ * It uses half the cores, so a burst of logins cannot starve the rest of the
+ * application, and a fixed-size queue. When the queue is full new work is
+ * rejected right away (the future fails with {@link RejectedExecutionException})
+ * instead of piling up; callers should ask the user to retry.
+ */
+public class PasswordVerifier {
+    private static PasswordVerifier instance;
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger peakQueueDepth;
+    private final AtomicLong completed;
+    private final AtomicLong rejected;
+    private final AtomicLong busyNanos;
+
+    private PasswordVerifier(int threads, int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            r -> {
+                Thread thread = new Thread(r, "password-verifier-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        this.peakQueueDepth = new AtomicInteger();
+        this.completed = new AtomicLong();
+        this.rejected = new AtomicLong();
+        this.busyNanos = new AtomicLong();
+    }
+
+    public static synchronized PasswordVerifier getInstance() {
+        if (instance == null) {
+            int threads = Integer.getInteger("password.verify.threads",
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+            int queueCapacity = Integer.getInteger("password.verify.queue", 64);
+            instance = new PasswordVerifier(threads, queueCapacity);
+        }
+        return instance;
+    }
+
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                long start = System.nanoTime();
+                try {
+                    future.complete(task.call());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                } finally {
+                    busyNanos.addAndGet(System.nanoTime() - start);
+                    completed.incrementAndGet();
+                }
+            });
+            peakQueueDepth.accumulateAndGet(executor.getQueue().size(), Math::max);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    public CompletableFuture<String> hash(char[] password) {
+        return submit(() -> PasswordHasher.getInstance().hash(password));
+    }
+
+    public CompletableFuture<Boolean> verify(char[] password, String stored) {
+        return submit(() -> PasswordHasher.getInstance().verify(password, stored));
+    }
+
+    // Tasks waiting for a thread right now
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getPeakQueueDepth() {
+        return peakQueueDepth.get();
+    }
+
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public double getAverageMillis() {
+        long done = completed.get();
+        return done == 0 ? 0 : busyNanos.get() / 1_000_000.0 / done;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PasswordVerifier[threads=%d, queued=%d, peak=%d, completed=%d, rejected=%d, avg=%.1f ms]",
+            executor.getMaximumPoolSize(), getQueueDepth(), getPeakQueueDepth(),
+            getCompletedCount(), getRejectedCount(), getAverageMillis());
+    }
+}
@@ -0,0 +1,227 @@
+package snapshot;
+
+import model.Movie;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * Binary image of the catalog: movies, encoded poster thumbnails and the
+ * number of occupied seats per movie.
+ *
+ * <pre>
+ * header  (32 bytes, big endian)
+ *   int   magic "MBCS"
+ *   int   format version
+ *   long  creation time (epoch millis)
+ *   int   entry count
+ *   int   payload length
+ *   long  CRC32 of the payload
+ * payload, one entry per movie
+ *   int id, strings title/genre/duration/rating/posterPath/posterHash,
+ *   long createdAt (-1 if unknown), int occupied seats, thumbnail (int length, -1 if none, bytes)
+ * </pre>
+ * Strings are an int byte length (-1 for null) followed by UTF-8 bytes.
+ * Descriptions are not stored; they are loaded on demand like for list queries.
+ * A file with the wrong magic, version, length or checksum is rejected as a whole.
+ */
+public class CatalogSnapshot {
+    private static final int MAGIC = 0x4D424353; // "MBCS"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 32;
+
+    private final long createdAt;
+    private final List<Movie> movies;
+    private final Map<Integer, Integer> occupiedSeats;
+    private final Map<Integer, byte[]> thumbnails;
+
+    public CatalogSnapshot(long createdAt, List<Movie> movies, Map<Integer, Integer> occupiedSeats,
+                           Map<Integer, byte[]> thumbnails) {
+        this.createdAt = createdAt;
+        this.movies = Collections.unmodifiableList(movies);
+        this.occupiedSeats = Collections.unmodifiableMap(occupiedSeats);
+        this.thumbnails = Collections.unmodifiableMap(thumbnails);
+    }
+
+    public long getCreatedAt() { return createdAt; }
+    public List<Movie> getMovies() { return movies; }
+    public Map<Integer, Integer> getOccupiedSeats() { return occupiedSeats; }
+
+    // Encoded thumbnail by movie id, or null
+    public byte[] getThumbnail(int movieId) {
+        return thumbnails.get(movieId);
+    }
+
+    // True if the database still holds what the snapshot shows
+    public boolean matches(List<Movie> current, Map<Integer, Integer> currentSeats) {
+        if (current.size() != movies.size() || !currentSeats.equals(occupiedSeats)) {
+            return false;
+        }
+        for (int i = 0; i < movies.size(); i++) {
+            Movie a = movies.get(i);
+            Movie b = current.get(i);
+            if (a.getId() != b.getId()
+                || !Objects.equals(a.getTitle(), b.getTitle())
+                || !Objects.equals(a.getGenre(), b.getGenre())
+                || !Objects.equals(a.getDuration(), b.getDuration())
+                || !Objects.equals(a.getRating(), b.getRating())
+                || !Objects.equals(a.getPosterPath(), b.getPosterPath())
+                || !Objects.equals(a.getPosterHash(), b.getPosterHash())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Write to a temporary file first so readers never see a partial snapshot
+    public void write(Path file) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (Movie movie : movies) {
+            out.writeInt(movie.getId());
+            writeString(out, movie.getTitle());
+            writeString(out, movie.getGenre());
+            writeString(out, movie.getDuration());
+            writeString(out, movie.getRating());
+            writeString(out, movie.getPosterPath());
+            writeString(out, movie.getPosterHash());
+            out.writeLong(movie.getCreatedAt() != null ? movie.getCreatedAt().getTime() : -1);
+            out.writeInt(occupiedSeats.getOrDefault(movie.getId(), 0));
+            byte[] thumbnail = thumbnails.get(movie.getId());
+            out.writeInt(thumbnail != null ? thumbnail.length : -1);
+            if (thumbnail != null) {
+                out.write(thumbnail);
+            }
+        }
+        out.flush();
+        byte[] payload = bytes.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC)
+              .putInt(VERSION)
+              .putLong(createdAt)
+              .putInt(movies.size())
+              .putInt(payload.length)
+              .putLong(crc.getValue());
+        header.flip();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer body = ByteBuffer.wrap(payload);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            while (body.hasRemaining()) {
+                channel.write(body);
+            }
+            channel.force(true);
+        }
+        SnapshotManager.replace(temp, file);
+    }
+
+    /**
+     * Map and decode a snapshot file.
+     * @return the snapshot, or null if the file is missing, from another version or corrupt
+     */
+    public static CatalogSnapshot read(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            long createdAt = buffer.getLong();
+            int count = buffer.getInt();
+            int payloadLength = buffer.getInt();
+            long checksum = buffer.getLong();
+            if (payloadLength != size - HEADER_SIZE || count < 0) {
+                return null;
+            }
+
+            ByteBuffer payload = buffer.slice();
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            if (crc.getValue() != checksum) {
+                return null;
+            }
+
+            List<Movie> movies = new ArrayList<>(count);
+            Map<Integer, Integer> seats = new HashMap<>();
+            Map<Integer, byte[]> thumbnails = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                Movie movie = new Movie();
+                movie.setId(payload.getInt());
+                movie.setTitle(readString(payload));
+                movie.setGenre(readString(payload));
+                movie.setDuration(readString(payload));
+                movie.setRating(readString(payload));
+                movie.setPosterPath(readString(payload));
+                movie.setPosterHash(readString(payload));
+                long created = payload.getLong();
+                if (created >= 0) {
+                    movie.setCreatedAt(new Timestamp(created));
+                }
+                int occupied = payload.getInt();
+                if (occupied > 0) {
+                    seats.put(movie.getId(), occupied);
+                }
+                int thumbnailLength = payload.getInt();
+                if (thumbnailLength >= 0) {
+                    byte[] thumbnail = new byte[thumbnailLength];
+                    payload.get(thumbnail);
+                    thumbnails.put(movie.getId(), thumbnail);
+                }
+                movies.add(movie);
+            }
+            return new CatalogSnapshot(createdAt, movies, seats, thumbnails);
+        } catch (IOException | RuntimeException e) {
+            // A truncated or malformed file is treated like a missing one
+            System.err.println("Ignoring catalog snapshot " + file + ": " + e);
+            return null;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
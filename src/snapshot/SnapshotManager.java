@@ -0,0 +1,128 @@
+package snapshot;
+
+import model.Booking;
+import model.Movie;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Singleton Pattern: SnapshotManager
+ * Owns the catalog snapshot file: loads it at start-up and rewrites it from
+ * the database on a schedule and when the application exits.
+ */
+public class SnapshotManager {
+    private static final String SNAPSHOT_FILE = "moviebooking.snapshot";
+    private static final long WRITE_INTERVAL_MINUTES = 10;
+
+    private static SnapshotManager instance;
+
+    private final Path file;
+    private ScheduledExecutorService scheduler;
+
+    private SnapshotManager(Path file) {
+        this.file = file;
+    }
+
+    public static synchronized SnapshotManager getInstance() {
+        if (instance == null) {
+            instance = new SnapshotManager(Paths.get(SNAPSHOT_FILE));
+        }
+        return instance;
+    }
+
+    /**
+     * Read the snapshot and seed the thumbnail cache from it.
+     * @return the snapshot, or null if there is no usable one
+     */
+    public CatalogSnapshot load() {
+        long start = System.nanoTime();
+        CatalogSnapshot snapshot = CatalogSnapshot.read(file);
+        if (snapshot == null) {
+            return null;
+        }
+        ThumbnailCache thumbnails = ThumbnailCache.getInstance();
+        for (Movie movie : snapshot.getMovies()) {
+            thumbnails.putEncoded(movie, snapshot.getThumbnail(movie.getId()));
+        }
+        System.out.println("Loaded catalog snapshot with " + snapshot.getMovies().size() + " movie(s) in "
+                           + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return snapshot;
+    }
+
+    // Periodic writes plus one on exit
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "catalog-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> write(true),
+            WRITE_INTERVAL_MINUTES, WRITE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        // On exit there is no time to scale posters that were never shown
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> write(false), "catalog-snapshot-exit"));
+    }
+
+    // Write soon, e.g. after reconciliation found the snapshot out of date
+    public synchronized void requestWrite() {
+        if (scheduler != null) {
+            scheduler.execute(() -> write(true));
+        }
+    }
+
+    /**
+     * Write the current catalog to the snapshot file.
+     * @param renderThumbnails whether to scale posters that have no thumbnail yet
+     */
+    public synchronized boolean write(boolean renderThumbnails) {
+        List<Movie> movies = Movie.getAllMovies();
+        if (movies.isEmpty()) {
+            // Nothing worth keeping, or the database is not reachable
+            return false;
+        }
+        Map<Integer, Integer> seats = Booking.getOccupiedSeatCounts();
+
+        ThumbnailCache cache = ThumbnailCache.getInstance();
+        Map<Integer, byte[]> thumbnails = new HashMap<>();
+        for (Movie movie : movies) {
+            byte[] thumbnail = cache.getEncoded(movie, renderThumbnails);
+            if (thumbnail != null) {
+                thumbnails.put(movie.getId(), thumbnail);
+            }
+        }
+        cache.retainOnly(movies);
+
+        try {
+            new CatalogSnapshot(System.currentTimeMillis(), movies, seats, thumbnails).write(file);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    static void replace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (FileSystemException e) {
+            // Some platforms refuse to replace a file that is still mapped
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+            Files.deleteIfExists(source);
+        }
+    }
+}
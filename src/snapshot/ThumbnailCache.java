@@ -0,0 +1,162 @@
+package snapshot;
+
+import model.Movie;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.imageio.ImageIO;
+
+/**
+ * Singleton Pattern: ThumbnailCache
+ * Poster thumbnails at card size. Each poster is read and scaled once; the
+ * JPEG-encoded form is what the catalog snapshot stores, so after a restart
+ * cards are drawn without touching the original poster files.
+ * Entries are keyed by poster path and content hash, so a replaced poster
+ * gets a new thumbnail.
+ * Only the compact JPEG bytes are kept for every poster; decoded images
+ * (about 220 KB each) are kept for the {@code thumbnail.cacheSize} (default
+ * 128) most recently drawn cards and decoded again from the bytes after that.
+ */
+public class ThumbnailCache {
+    public static final int WIDTH = 200;
+    public static final int HEIGHT = 280;
+
+    private static ThumbnailCache instance;
+
+    private final Map<String, BufferedImage> images;
+    private final Map<String, byte[]> encoded;
+
+    private ThumbnailCache(int maxImages) {
+        // Access order, guarded by itself
+        this.images = new LinkedHashMap<String, BufferedImage>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, BufferedImage> eldest) {
+                return size() > maxImages;
+            }
+        };
+        this.encoded = new ConcurrentHashMap<>();
+    }
+
+    public static synchronized ThumbnailCache getInstance() {
+        if (instance == null) {
+            instance = new ThumbnailCache(Integer.getInteger("thumbnail.cacheSize", 128));
+        }
+        return instance;
+    }
+
+    private static String key(Movie movie) {
+        return movie.getPosterPath() + "#" + (movie.getPosterHash() != null ? movie.getPosterHash() : "");
+    }
+
+    /**
+     * Thumbnail for a movie's poster.
+     * @return the image, or null if the movie has no readable poster
+     */
+    public BufferedImage get(Movie movie) {
+        if (movie.getPosterPath() == null) {
+            return null;
+        }
+        String key = key(movie);
+        BufferedImage image;
+        synchronized (images) {
+            image = images.get(key);
+        }
+        if (image != null) {
+            return image;
+        }
+
+        byte[] bytes = encoded.get(key);
+        try {
+            if (bytes != null) {
+                image = ImageIO.read(new ByteArrayInputStream(bytes));
+            } else {
+                // Keep the bytes too, so an evicted image is never read from the poster again
+                image = render(movie);
+                bytes = image != null ? encode(image) : null;
+                if (bytes != null) {
+                    encoded.put(key, bytes);
+                }
+            }
+        } catch (IOException e) {
+            image = null;
+        }
+        if (image != null) {
+            synchronized (images) {
+                images.put(key, image);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * JPEG bytes of a movie's thumbnail for the snapshot.
+     * @param render whether to read and scale posters that were never displayed
+     */
+    public byte[] getEncoded(Movie movie, boolean render) {
+        if (movie.getPosterPath() == null) {
+            return null;
+        }
+        String key = key(movie);
+        byte[] bytes = encoded.get(key);
+        if (bytes != null) {
+            return bytes;
+        }
+
+        if (!render || get(movie) == null) {
+            return null;
+        }
+        return encoded.get(key);
+    }
+
+    private static byte[] encode(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+        return ImageIO.write(image, "jpg", out) ? out.toByteArray() : null;
+    }
+
+    // Seed from a snapshot; decoding waits until a card is drawn
+    public void putEncoded(Movie movie, byte[] bytes) {
+        if (movie.getPosterPath() != null && bytes != null) {
+            encoded.putIfAbsent(key(movie), bytes);
+        }
+    }
+
+    // Drop thumbnails of posters no longer in the catalog
+    public void retainOnly(Collection<Movie> catalog) {
+        Set<String> keys = new HashSet<>();
+        for (Movie movie : catalog) {
+            keys.add(key(movie));
+        }
+        synchronized (images) {
+            images.keySet().retainAll(keys);
+        }
+        encoded.keySet().retainAll(keys);
+    }
+
+    private static BufferedImage render(Movie movie) throws IOException {
+        File file = new File(movie.getPosterPath());
+        if (!file.isFile()) {
+            return null;
+        }
+        BufferedImage poster = ImageIO.read(file);
+        if (poster == null) {
+            return null;
+        }
+        BufferedImage thumbnail = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = thumbnail.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(poster, 0, 0, WIDTH, HEIGHT, null);
+        g.dispose();
+        return thumbnail;
+    }
+}